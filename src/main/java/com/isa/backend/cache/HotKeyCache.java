@@ -0,0 +1,323 @@
+package com.isa.backend.cache;
+
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keš sa detekcijom "vrućih" ključeva i posebnim slojem za njih.
+ *
+ * Osnovno skladište je ConcurrentHashMap (kao ConcurrentMapCache), uz opcioni TTL po unosu.
+ * Svaki 1/sampleRate pristup se broji po ključu; detectHotKeys() (periodično, iz HotKeyCacheManager-a)
+ * procenjuje učestalost i najčešće ključeve iznad praga promoviše u nepromenljivu mapu koja se objavljuje
+ * kroz volatile polje. Čitanje vrućeg ključa je zato samo čitanje deljene, nepromenljive strukture —
+ * bez upisa i CAS operacija, pa nema nadmetanja za cache line bez obzira na broj zahteva.
+ * Izmene promovisanog ključa (put/evict) ponovo objavljuju mapu (copy-on-write; retko).
+ *
+ * get(key, loader) (@Cacheable sa sync = true) je single-flight i podržava stale-while-revalidate.
+ */
+public class HotKeyCache extends AbstractValueAdaptingCache {
+
+    private final String name;
+    private final long ttlMillis;
+    private final int sampleRate;
+    private final int maxTrackedKeys;
+
+    private final ConcurrentHashMap<Object, Entry> store = new ConcurrentHashMap<>();
+    // Učitavanja u toku (single-flight): ostali pozivaoci za isti ključ čekaju ovaj future
+    private final ConcurrentHashMap<Object, CompletableFuture<Entry>> inFlight = new ConcurrentHashMap<>();
+    private final Executor refreshExecutor;
+    private final double refreshAheadRatio;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder refreshFailures = new LongAdder();
+    private volatile ConcurrentHashMap<Object, LongAdder> samples = new ConcurrentHashMap<>();
+    private volatile Map<Object, Entry> promoted = Map.of();
+    private volatile Map<Object, Double> promotedRates = Map.of();
+    private long lastDetectionNanos = System.nanoTime();
+
+    public HotKeyCache(String name, long ttlMillis, int sampleRate, int maxTrackedKeys,
+                       Executor refreshExecutor, double refreshAheadRatio) {
+        super(true);
+        this.name = name;
+        this.ttlMillis = ttlMillis;
+        this.sampleRate = Math.max(1, sampleRate);
+        this.maxTrackedKeys = maxTrackedKeys;
+        this.refreshExecutor = refreshExecutor;
+        this.refreshAheadRatio = refreshAheadRatio;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return store;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        boolean sampled = sample(key);
+        Entry entry = currentEntry(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (sampled) hits.add(sampleRate);
+        return entry.value;
+    }
+
+    /**
+     * Single-flight učitavanje: pri promašaju samo jedan pozivalac računa vrednost, a ostali čekaju
+     * isti future (brojač coalesced). Za unos blizu isteka (starost > refreshAhead * TTL) vraća se
+     * postojeća vrednost, a osvežavanje se jednom pokreće u pozadini (stale-while-revalidate).
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        boolean sampled = sample(key);
+        Entry entry = currentEntry(key);
+        if (entry != null) {
+            if (sampled) hits.add(sampleRate);
+            if (needsRefresh(entry)) refreshAsync(key, valueLoader);
+            return (T) fromStoreValue(entry.value);
+        }
+        misses.increment();
+
+        CompletableFuture<Entry> mine = new CompletableFuture<>();
+        CompletableFuture<Entry> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            coalesced.increment();
+            return (T) fromStoreValue(await(existing, key, valueLoader).value);
+        }
+        try {
+            // Neko je mogao da završi učitavanje između provere i registracije
+            Entry loaded = currentEntry(key);
+            if (loaded == null) {
+                loads.increment();
+                loaded = new Entry(toStoreValue(valueLoader.call()), System.currentTimeMillis());
+                store(key, loaded);
+            }
+            mine.complete(loaded);
+            return (T) fromStoreValue(loaded.value);
+        } catch (Exception e) {
+            mine.completeExceptionally(e);
+            throw new ValueRetrievalException(key, valueLoader, e);
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        store(key, new Entry(toStoreValue(value), System.currentTimeMillis()));
+    }
+
+    @Override
+    public void evict(Object key) {
+        store.remove(key);
+        syncPromoted(key);
+    }
+
+    // Pod istim zaključavanjem kao detectHotKeys, pa detekcija ne može ponovo da objavi obrisane unose
+    @Override
+    public synchronized void clear() {
+        store.clear();
+        promoted = Map.of();
+        promotedRates = Map.of();
+    }
+
+    /**
+     * Procenjuje učestalost pristupa iz uzoraka od prošlog poziva i ažurira skup vrućih ključeva.
+     * Promocija ide iznad promoteRate (zahteva u sekundi), a ključ ostaje vruć dok ne padne ispod
+     * polovine praga (histerezis, da ključevi ne osciluju).
+     */
+    synchronized void detectHotKeys(double promoteRate, int maxPromoted) {
+        long now = System.nanoTime();
+        double seconds = Math.max(0.001, (now - lastDetectionNanos) / 1e9);
+        lastDetectionNanos = now;
+        ConcurrentHashMap<Object, LongAdder> window = samples;
+        samples = new ConcurrentHashMap<>();
+
+        List<Map.Entry<Object, Double>> candidates = new ArrayList<>();
+        for (Map.Entry<Object, LongAdder> e : window.entrySet()) {
+            double rate = e.getValue().sum() * (double) sampleRate / seconds;
+            double threshold = promoted.containsKey(e.getKey()) ? promoteRate / 2 : promoteRate;
+            if (rate >= threshold) candidates.add(Map.entry(e.getKey(), rate));
+        }
+        candidates.sort((a, b) -> Double.compare(b.getValue(), a.getValue()));
+
+        Map<Object, Entry> hot = new HashMap<>();
+        Map<Object, Double> rates = new LinkedHashMap<>();
+        for (Map.Entry<Object, Double> candidate : candidates) {
+            if (hot.size() >= maxPromoted) break;
+            Entry entry = store.get(candidate.getKey());
+            if (entry == null || isExpired(entry)) continue;
+            hot.put(candidate.getKey(), entry);
+            rates.put(candidate.getKey(), candidate.getValue());
+        }
+        // Ponovna provera pre objave: objavljuje se samo unos koji je i dalje u store-u
+        hot.entrySet().removeIf(e -> store.get(e.getKey()) != e.getValue());
+        rates.keySet().retainAll(hot.keySet());
+        promoted = Map.copyOf(hot);
+        promotedRates = rates;
+    }
+
+    /**
+     * Trenutno promovisani ključevi sa procenjenom učestalošću (zahteva u sekundi), najvrući prvi.
+     */
+    public Map<Object, Double> getPromotedKeys() {
+        return promotedRates;
+    }
+
+    public int size() {
+        return store.size();
+    }
+
+    /**
+     * Brojači: pogoci, promašaji, stvarna učitavanja, zahtevi koji su čekali tuđe učitavanje
+     * i pozadinska osvežavanja. Pogoci su procena iz uzorka (svaki 1/sampleRate pogodak se broji sampleRate puta),
+     * da čitanje vrućeg ključa ne bi pisalo u deljeni brojač.
+     */
+    public Map<String, Long> getStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("size", (long) store.size());
+        stats.put("hits", hits.sum());
+        stats.put("misses", misses.sum());
+        stats.put("loads", loads.sum());
+        stats.put("coalesced", coalesced.sum());
+        stats.put("refreshes", refreshes.sum());
+        stats.put("refreshFailures", refreshFailures.sum());
+        stats.put("promoted", (long) promoted.size());
+        return stats;
+    }
+
+    private Entry currentEntry(Object key) {
+        Entry entry = promoted.get(key);
+        if (entry == null || isExpired(entry)) {
+            entry = store.get(key);
+        }
+        if (entry == null) return null;
+        if (isExpired(entry)) {
+            store.remove(key, entry);
+            return null;
+        }
+        return entry;
+    }
+
+    private void store(Object key, Entry entry) {
+        store.put(key, entry);
+        syncPromoted(key);
+    }
+
+    /**
+     * Usklađuje promovisan unos sa store-om posle izmene ključa. Provera je pod zaključavanjem: detekcija koja je
+     * pročitala store pre izmene završava objavu pre ove provere, pa je ova provera ispravlja.
+     */
+    private synchronized void syncPromoted(Object key) {
+        if (promoted.containsKey(key)) {
+            republish(key, store.get(key));
+        }
+    }
+
+    private boolean needsRefresh(Entry entry) {
+        return ttlMillis > 0 && refreshExecutor != null
+                && System.currentTimeMillis() - entry.writtenAt > ttlMillis * refreshAheadRatio;
+    }
+
+    // Jedno osvežavanje po ključu; ako je pool pun, unos jednostavno istekne i učita se sinhrono
+    private void refreshAsync(Object key, Callable<?> valueLoader) {
+        CompletableFuture<Entry> mine = new CompletableFuture<>();
+        if (inFlight.putIfAbsent(key, mine) != null) return;
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    Entry fresh = new Entry(toStoreValue(valueLoader.call()), System.currentTimeMillis());
+                    store(key, fresh);
+                    refreshes.increment();
+                    mine.complete(fresh);
+                } catch (Exception e) {
+                    refreshFailures.increment();
+                    mine.completeExceptionally(e);
+                } finally {
+                    inFlight.remove(key, mine);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(key, mine);
+            mine.cancel(false);
+        }
+    }
+
+    private Entry await(CompletableFuture<Entry> future, Object key, Callable<?> valueLoader) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ValueRetrievalException(key, valueLoader, e);
+        } catch (ExecutionException | CancellationException e) {
+            Throwable cause = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+            throw new ValueRetrievalException(key, valueLoader, cause);
+        }
+    }
+
+    // Vraća true ako je pristup uzorkovan (1/sampleRate); samo tada se piše u deljene brojače
+    private boolean sample(Object key) {
+        if (sampleRate > 1 && ThreadLocalRandom.current().nextInt(sampleRate) != 0) return false;
+        ConcurrentHashMap<Object, LongAdder> current = samples;
+        LongAdder counter = current.get(key);
+        if (counter == null) {
+            // Ograničen broj praćenih ključeva po periodu; novi ključevi preko limita se ne broje
+            if (current.size() >= maxTrackedKeys) return true;
+            counter = current.computeIfAbsent(key, k -> new LongAdder());
+        }
+        counter.increment();
+        return true;
+    }
+
+    private synchronized void republish(Object key, Entry entry) {
+        Map<Object, Entry> copy = new HashMap<>(promoted);
+        if (entry == null) {
+            copy.remove(key);
+            Map<Object, Double> rates = new LinkedHashMap<>(promotedRates);
+            rates.remove(key);
+            promotedRates = rates;
+        } else if (copy.containsKey(key)) {
+            copy.put(key, entry);
+        }
+        promoted = Map.copyOf(copy);
+    }
+
+    private boolean isExpired(Entry entry) {
+        return ttlMillis > 0 && System.currentTimeMillis() - entry.writtenAt > ttlMillis;
+    }
+
+    private static final class Entry {
+        final Object value;
+        final long writtenAt;
+
+        Entry(Object value, long writtenAt) {
+            this.value = value;
+            this.writtenAt = writtenAt;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.isa.backend.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.AbstractCacheManager;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CacheManager koji pravi HotKeyCache za svaki keš. TTL se zadaje po imenu keša (0 = bez isteka);
+ * keševi koji nisu unapred navedeni prave se po potrebi, bez TTL-a.
+ */
+public class HotKeyCacheManager extends AbstractCacheManager {
+
+    private final Map<String, Long> ttlByCache;
+    private final int sampleRate;
+    private final int maxTrackedKeys;
+    private final double promoteRate;
+    private final int maxPromoted;
+    private final double refreshAheadRatio;
+
+    // Mali pool za pozadinsko osvežavanje; kada je pun, zadaci se odbacuju (unos tada samo istekne)
+    private final ThreadPoolExecutor refreshExecutor = new ThreadPoolExecutor(1, 4, 30, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(256), runnable -> {
+                Thread thread = new Thread(runnable, "cache-refresh");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    public HotKeyCacheManager(Map<String, Long> ttlByCache, int sampleRate, int maxTrackedKeys,
+                              double promoteRate, int maxPromoted, double refreshAheadRatio) {
+        this.ttlByCache = new LinkedHashMap<>(ttlByCache);
+        this.sampleRate = sampleRate;
+        this.maxTrackedKeys = maxTrackedKeys;
+        this.promoteRate = promoteRate;
+        this.maxPromoted = maxPromoted;
+        this.refreshAheadRatio = refreshAheadRatio;
+    }
+
+    @Override
+    protected Collection<? extends Cache> loadCaches() {
+        List<Cache> caches = new ArrayList<>();
+        for (Map.Entry<String, Long> e : ttlByCache.entrySet()) {
+            caches.add(create(e.getKey(), e.getValue()));
+        }
+        return caches;
+    }
+
+    @Override
+    protected Cache getMissingCache(String name) {
+        return create(name, 0L);
+    }
+
+    /**
+     * Jedan krug detekcije vrućih ključeva za sve keševe (app.cache.hot-key.detect-ms).
+     */
+    @Scheduled(fixedDelayString = "${app.cache.hot-key.detect-ms:1000}")
+    public void detectHotKeys() {
+        for (String name : getCacheNames()) {
+            Cache cache = getCache(name);
+            if (cache instanceof HotKeyCache hotKeyCache) {
+                hotKeyCache.detectHotKeys(promoteRate, maxPromoted);
+            }
+        }
+    }
+
+    /**
+     * Promovisani ključevi po kešu (ključevi kao stringovi, sa procenjenom učestalošću u zahtevima/s).
+     */
+    public Map<String, Map<String, Double>> getPromotedKeys() {
+        Map<String, Map<String, Double>> result = new LinkedHashMap<>();
+        for (String name : getCacheNames()) {
+            Cache cache = getCache(name);
+            if (cache instanceof HotKeyCache hotKeyCache) {
+                Map<String, Double> keys = new LinkedHashMap<>();
+                hotKeyCache.getPromotedKeys().forEach((key, rate) -> keys.put(String.valueOf(key), Math.round(rate * 10) / 10.0));
+                result.put(name, keys);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Brojači po kešu (pogoci, promašaji, učitavanja, spojeni zahtevi, osvežavanja).
+     */
+    public Map<String, Map<String, Long>> getStats() {
+        Map<String, Map<String, Long>> result = new LinkedHashMap<>();
+        for (String name : getCacheNames()) {
+            Cache cache = getCache(name);
+            if (cache instanceof HotKeyCache hotKeyCache) {
+                result.put(name, hotKeyCache.getStats());
+            }
+        }
+        return result;
+    }
+
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    private HotKeyCache create(String name, long ttlMillis) {
+        return new HotKeyCache(name, ttlMillis, sampleRate, maxTrackedKeys, refreshExecutor, refreshAheadRatio);
+    }
+}
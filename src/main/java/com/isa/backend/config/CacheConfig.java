@@ -0,0 +1,35 @@
+package com.isa.backend.config;
+
+import com.isa.backend.cache.HotKeyCacheManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keševi aplikacije (videoComments, commentCursorPages, thumbnails, videoPosts) sa detekcijom i promocijom vrućih ključeva.
+ */
+@Configuration
+public class CacheConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public HotKeyCacheManager cacheManager(
+            @Value("${app.cache.video-posts.ttl-ms:5000}") long videoPostsTtlMs,
+            @Value("${app.cache.comment-cursor-pages.ttl-ms:60000}") long commentCursorPagesTtlMs,
+            @Value("${app.cache.hot-key.sample-rate:16}") int sampleRate,
+            @Value("${app.cache.hot-key.max-tracked-keys:10000}") int maxTrackedKeys,
+            @Value("${app.cache.hot-key.promote-rate:50}") double promoteRate,
+            @Value("${app.cache.hot-key.max-promoted:64}") int maxPromoted,
+            @Value("${app.cache.refresh-ahead-ratio:0.8}") double refreshAheadRatio) {
+        Map<String, Long> ttlByCache = new LinkedHashMap<>();
+        ttlByCache.put("videoComments", 0L);
+        // Sastav stranice iza kursora se ne menja (novi komentari ulaze samo na prvu), ali replyCount raste
+        ttlByCache.put("commentCursorPages", commentCursorPagesTtlMs);
+        ttlByCache.put("thumbnails", 0L);
+        // DTO sadrži brojače pregleda/lajkova, pa kratko živi
+        ttlByCache.put("videoPosts", videoPostsTtlMs);
+        return new HotKeyCacheManager(ttlByCache, sampleRate, maxTrackedKeys, promoteRate, maxPromoted, refreshAheadRatio);
+    }
+}
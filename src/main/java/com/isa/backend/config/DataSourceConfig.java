@@ -0,0 +1,70 @@
+package com.isa.backend.config;
+
+import com.isa.backend.datasource.ReadReplicaRoutingDataSource;
+import com.isa.backend.datasource.ReadYourWritesTracker;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Primarna baza + read replike. Bez app.datasource.routing.enabled=true ostaje podrazumevani Spring Boot
+ * DataSource (samo spring.datasource.url), a read-only transakcije rade na primarnoj bazi.
+ */
+@Configuration
+public class DataSourceConfig {
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(
+            @Value("${app.datasource.read-your-writes-ms:5000}") long readYourWritesMs) {
+        return new ReadYourWritesTracker(readYourWritesMs);
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "app.datasource.routing.enabled", havingValue = "true")
+    public ReadReplicaRoutingDataSource routingDataSource(
+            DataSourceProperties properties,
+            Environment environment,
+            ReadYourWritesTracker readYourWritesTracker,
+            @Value("${app.datasource.replica.urls:}") List<String> replicaUrls,
+            @Value("${app.datasource.replica.username:${spring.datasource.username}}") String replicaUsername,
+            @Value("${app.datasource.replica.password:${spring.datasource.password}}") String replicaPassword,
+            @Value("${app.datasource.replica.max-pool-size:10}") int replicaMaxPoolSize) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        // Ista spring.datasource.hikari.* podešavanja kao i bez routing-a
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName("primary");
+
+        List<DataSource> replicas = new ArrayList<>();
+        for (String url : replicaUrls) {
+            if (url.isBlank()) continue;
+            HikariDataSource replica = new HikariDataSource();
+            replica.setJdbcUrl(url.trim());
+            replica.setUsername(replicaUsername);
+            replica.setPassword(replicaPassword);
+            replica.setMaximumPoolSize(replicaMaxPoolSize);
+            replica.setReadOnly(true);
+            replica.setPoolName("replica-" + replicas.size());
+            replicas.add(replica);
+        }
+        return new ReadReplicaRoutingDataSource(primary, replicas, readYourWritesTracker);
+    }
+
+    @Bean
+    @Primary
+    @ConditionalOnProperty(name = "app.datasource.routing.enabled", havingValue = "true")
+    public DataSource dataSource(ReadReplicaRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+}
@@ -36,6 +36,8 @@ public class SecurityConfig {
                         // Public endpoints (GETs)
                         .requestMatchers(HttpMethod.GET, "/api/videos/**", "/api/videos/thumbnail/**", "/api/videos/stream/**", "/api/users/**").permitAll()
                         .requestMatchers("/api/auth/**").permitAll()
+                        // Live brojači su javni podaci (WebSocket handshake)
+                        .requestMatchers("/ws/**").permitAll()
                         // Allow root and static resources (for health checks, welcome page, etc.)
                         .requestMatchers("/", "/error", "/actuator/**", "/favicon.ico").permitAll()
                         // Anything else requires authentication (uploads, comments, likes, user actions)
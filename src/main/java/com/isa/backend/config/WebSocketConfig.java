@@ -0,0 +1,23 @@
+package com.isa.backend.config;
+
+import com.isa.backend.websocket.CounterWebSocketHandler;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+@Configuration
+@EnableWebSocket
+public class WebSocketConfig implements WebSocketConfigurer {
+
+    @Autowired
+    private CounterWebSocketHandler counterWebSocketHandler;
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        // Isti frontend origin-i kao u CorsConfig
+        registry.addHandler(counterWebSocketHandler, "/ws/counters")
+                .setAllowedOrigins("http://localhost:4200", "http://localhost:3000", "http://localhost:5173");
+    }
+}
@@ -0,0 +1,87 @@
+package com.isa.backend.controller;
+
+import com.isa.backend.cache.HotKeyCacheManager;
+import com.isa.backend.service.HotVideosService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.security.Principal;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Operativni endpoint-i. Dostupni samo korisnicima čiji je email naveden u app.admin.emails.
+ */
+@RestController
+@RequestMapping("/api/admin")
+@CrossOrigin(origins = "*")
+public class AdminController {
+
+    @Autowired
+    private HotVideosService hotVideosService;
+
+    @Autowired
+    private HotKeyCacheManager cacheManager;
+
+    private final Set<String> adminEmails;
+
+    public AdminController(@Value("${app.admin.emails:}") String adminEmails) {
+        this.adminEmails = Arrays.stream(adminEmails.split(","))
+                .map(s -> s.trim().toLowerCase(Locale.ROOT))
+                .filter(s -> !s.isEmpty())
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * 🔥 Najgledaniji video snimci u kliznom prozoru (Space-Saving, sa granicama greške)
+     * GET /api/admin/hot-videos?window=minute|hour|day&k=20
+     */
+    @GetMapping("/hot-videos")
+    public ResponseEntity<?> getHotVideos(@RequestParam(value = "window", required = false, defaultValue = "hour") String window,
+                                          @RequestParam(value = "k", required = false, defaultValue = "20") int k,
+                                          Principal principal) {
+        if (!isAdmin(principal)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Pristup dozvoljen samo administratorima");
+        }
+        HotVideosService.Window parsed;
+        try {
+            parsed = HotVideosService.Window.valueOf(window.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Prozor mora biti 'minute', 'hour' ili 'day'");
+        }
+        return ResponseEntity.ok(hotVideosService.getTop(parsed, Math.max(1, Math.min(k, 100))));
+    }
+
+    /**
+     * 🌡️ Trenutno promovisani (vrući) ključevi po kešu, sa procenjenim brojem zahteva u sekundi
+     * GET /api/admin/cache/hot-keys
+     */
+    @GetMapping("/cache/hot-keys")
+    public ResponseEntity<?> getHotCacheKeys(Principal principal) {
+        if (!isAdmin(principal)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Pristup dozvoljen samo administratorima");
+        }
+        return ResponseEntity.ok(cacheManager.getPromotedKeys());
+    }
+
+    /**
+     * 📊 Brojači keševa: pogoci, promašaji, učitavanja, spojeni (single-flight) zahtevi i osvežavanja
+     * GET /api/admin/cache/stats
+     */
+    @GetMapping("/cache/stats")
+    public ResponseEntity<?> getCacheStats(Principal principal) {
+        if (!isAdmin(principal)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Pristup dozvoljen samo administratorima");
+        }
+        return ResponseEntity.ok(cacheManager.getStats());
+    }
+
+    private boolean isAdmin(Principal principal) {
+        return principal != null && adminEmails.contains(principal.getName().toLowerCase(Locale.ROOT));
+    }
+}
@@ -64,7 +64,7 @@ public class AuthController {
                 return ResponseEntity.status(429).body("Previše pokušaja prijave. Pokušajte ponovo za 1 minut.");
             }
 
-            User user = userService.findByEmail(request.getEmail());
+            User user = userService.findByEmailForLogin(request.getEmail());
 
             if (!user.isEnabled()) {
                 loginAttemptService.loginFailed(ipAddress);
@@ -2,11 +2,15 @@ package com.isa.backend.controller;
 
 import com.isa.backend.dto.UserProfileDTO;
 import com.isa.backend.model.User;
+import com.isa.backend.service.FollowService;
 import com.isa.backend.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.security.Principal;
+
 @RestController
 @RequestMapping("/api/users")
 @CrossOrigin(origins = "*")
@@ -15,11 +19,13 @@ public class UserController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private FollowService followService;
+
     @GetMapping("/{id}")
     public ResponseEntity<?> getUserProfileById(@PathVariable Long id) {
         try {
-            User user = userService.findById(id);
-            UserProfileDTO dto = toDTO(user);
+            UserProfileDTO dto = userService.getUserProfile(id);
             return ResponseEntity.ok(dto);
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
@@ -30,22 +36,62 @@ public class UserController {
     public ResponseEntity<?> getUserProfileByUsername(@PathVariable String username) {
         try {
             User user = userService.findByUsername(username);
-            UserProfileDTO dto = toDTO(user);
+            UserProfileDTO dto = userService.toProfileDTO(user);
             return ResponseEntity.ok(dto);
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
     }
 
-    private UserProfileDTO toDTO(User user) {
-        UserProfileDTO dto = new UserProfileDTO();
-        dto.setId(user.getId());
-        dto.setUsername(user.getUsername());
-        dto.setFirstName(user.getFirstName());
-        dto.setLastName(user.getLastName());
-        dto.setAddress(user.getAddress());
-        dto.setCreatedAt(user.getCreatedAt());
-        return dto;
+    /**
+     * ➕ Zaprati korisnika
+     * POST /api/users/{id}/follow
+     */
+    @PostMapping("/{id}/follow")
+    public ResponseEntity<?> follow(@PathVariable Long id, Principal principal) {
+        if (principal == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Morate biti prijavljeni.");
+        }
+        try {
+            Long followerId = userService.findByEmail(principal.getName()).getId();
+            followService.follow(followerId, id);
+            return ResponseEntity.ok(followService.getFollowStats(id, followerId));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        }
+    }
+
+    /**
+     * ➖ Prestani da pratiš korisnika
+     * DELETE /api/users/{id}/follow
+     */
+    @DeleteMapping("/{id}/follow")
+    public ResponseEntity<?> unfollow(@PathVariable Long id, Principal principal) {
+        if (principal == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Morate biti prijavljeni.");
+        }
+        try {
+            Long followerId = userService.findByEmail(principal.getName()).getId();
+            followService.unfollow(followerId, id);
+            return ResponseEntity.ok(followService.getFollowStats(id, followerId));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        }
     }
-}
 
+    /**
+     * 👥 Broj pratilaca i praćenih (i da li ga prijavljeni korisnik prati)
+     * GET /api/users/{id}/follow-stats
+     */
+    @GetMapping("/{id}/follow-stats")
+    public ResponseEntity<?> getFollowStats(@PathVariable Long id, Principal principal) {
+        try {
+            Long viewerId = principal != null ? userService.findByEmail(principal.getName()).getId() : null;
+            return ResponseEntity.ok(followService.getFollowStats(id, viewerId));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+}
@@ -1,30 +1,53 @@
 package com.isa.backend.controller;
 
 import com.isa.backend.dto.CommentDTO;
+import com.isa.backend.dto.CommentPageDTO;
 import com.isa.backend.dto.VideoPostDTO;
 import com.isa.backend.exception.RateLimitExceededException;
+import com.isa.backend.exception.SpamCommentException;
 import com.isa.backend.model.User;
-import com.isa.backend.model.VideoPost;
+import com.isa.backend.service.AutocompleteService;
 import com.isa.backend.service.CommentService;
+import com.isa.backend.service.CommentStreamService;
+import com.isa.backend.service.FeedSnapshotService;
 import com.isa.backend.service.FileStorageService;
+import com.isa.backend.service.GeoIndexService;
+import com.isa.backend.service.RelatedVideosService;
+import com.isa.backend.service.SearchIndexService;
+import com.isa.backend.service.TagIndexService;
+import com.isa.backend.service.TimelineService;
+import com.isa.backend.service.TrendingService;
+import com.isa.backend.service.UniqueViewerService;
 import com.isa.backend.service.UserService;
+import com.isa.backend.service.VideoPageService;
 import com.isa.backend.service.VideoPostService;
+import com.isa.backend.service.ViewAnalyticsService;
+import com.isa.backend.util.FullTextIndex;
+import com.isa.backend.util.GeoGridIndex;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.UrlResource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.Files;
 import java.security.Principal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Value;
@@ -34,6 +57,9 @@ import org.springframework.beans.factory.annotation.Value;
 @CrossOrigin(origins = "*") // Za frontend
 public class VideoPostController {
 
+    // Najviše propuštenih komentara koji se šalju klijentu pri ponovnom povezivanju na SSE
+    private static final int SSE_BACKLOG_LIMIT = 100;
+
     @Autowired
     private VideoPostService videoPostService;
 
@@ -46,6 +72,39 @@ public class VideoPostController {
     @Autowired
     private FileStorageService fileStorageService;
 
+    @Autowired
+    private TagIndexService tagIndexService;
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private AutocompleteService autocompleteService;
+
+    @Autowired
+    private GeoIndexService geoIndexService;
+
+    @Autowired
+    private TrendingService trendingService;
+
+    @Autowired
+    private ViewAnalyticsService viewAnalyticsService;
+
+    @Autowired
+    private UniqueViewerService uniqueViewerService;
+
+    @Autowired
+    private VideoPageService videoPageService;
+
+    @Autowired
+    private RelatedVideosService relatedVideosService;
+
+    @Autowired
+    private TimelineService timelineService;
+
+    @Autowired
+    private CommentStreamService commentStreamService;
+
     @Value("${file.upload.dir:uploads/videos}")
     private String videoUploadDir;
 
@@ -61,6 +120,8 @@ public class VideoPostController {
             @RequestParam("thumbnail") MultipartFile thumbnail,
             @RequestParam("video") MultipartFile video,
             @RequestParam(value = "location", required = false) String location,
+            @RequestParam(value = "latitude", required = false) Double latitude,
+            @RequestParam(value = "longitude", required = false) Double longitude,
             Principal principal
     ) {
         try {
@@ -86,7 +147,7 @@ public class VideoPostController {
 
             // Kreiranje video objave
             VideoPostDTO createdPost = videoPostService.createVideoPost(
-                    title, description, tags, thumbnail, video, location, userId
+                    title, description, tags, thumbnail, video, location, latitude, longitude, userId
             );
 
             return ResponseEntity.status(HttpStatus.CREATED).body(createdPost);
@@ -123,17 +184,24 @@ public class VideoPostController {
      * Endpoint za komentar (zahteva autentifikaciju)
      */
     @PostMapping("/{id}/comments")
-    public ResponseEntity<?> commentVideo(@PathVariable Long id, @RequestParam("text") String text, Principal principal) {
+    public ResponseEntity<?> commentVideo(@PathVariable Long id, @RequestParam("text") String text,
+                                          @RequestParam(value = "parentId", required = false) Long parentId,
+                                          Principal principal) {
         if (principal == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Morate se prijaviti da biste komentarisali.");
         }
 
         try {
             User user = userService.findByEmail(principal.getName());
-            CommentDTO saved = commentService.addComment(id, user.getId(), text);
+            CommentDTO saved = commentService.addComment(id, user.getId(), text, parentId);
             return ResponseEntity.status(HttpStatus.CREATED).body(saved);
         } catch (RateLimitExceededException e) {
             return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(e.getMessage());
+        } catch (SpamCommentException e) {
+            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(e.getMessage());
+        } catch (IllegalStateException e) {
+            // Pun red ili nepotvrđen grupni upis (baferisan upis komentara)
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
         }
@@ -151,6 +219,86 @@ public class VideoPostController {
         }
     }
 
+    /**
+     * 💬 Komentari sa kursorskom (keyset) paginacijom, najnoviji prvi
+     * GET /api/videos/{id}/comments/cursor?size=20
+     * GET /api/videos/{id}/comments/cursor?cursor={nextCursor}&size=20
+     * Sastav stranice iza kursora se ne menja, pa je HTTP keširana (kratko, zbog replyCount); prva stranica nije.
+     */
+    @GetMapping("/{id}/comments/cursor")
+    public ResponseEntity<?> getCommentsByCursor(@PathVariable Long id,
+                                                 @RequestParam(value = "cursor", required = false) String cursor,
+                                                 @RequestParam(value = "size", required = false, defaultValue = "20") int size) {
+        try {
+            CommentPageDTO page = commentService.getCommentsPage(id, cursor, Math.min(size, 100));
+            CacheControl cacheControl = cursor != null
+                    ? CacheControl.maxAge(Duration.ofSeconds(60)).cachePublic()
+                    : CacheControl.noCache();
+            return ResponseEntity.ok().cacheControl(cacheControl).body(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * 🧵 Nit odgovora ispod komentara (podrazumevano dva nivoa), jednim upitom, u DFS poretku
+     * GET /api/videos/{id}/comments/{commentId}/thread?levels=2
+     */
+    @GetMapping("/{id}/comments/{commentId}/thread")
+    public ResponseEntity<?> getCommentThread(@PathVariable Long id, @PathVariable Long commentId,
+                                              @RequestParam(value = "levels", required = false, defaultValue = "2") int levels) {
+        try {
+            return ResponseEntity.ok(commentService.getThread(id, commentId, levels));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        }
+    }
+
+    /**
+     * ↩️ Direktni odgovori na komentar, stranično (after = id poslednjeg odgovora sa prethodne stranice)
+     * GET /api/videos/{id}/comments/{commentId}/replies?after=123&size=20
+     */
+    @GetMapping("/{id}/comments/{commentId}/replies")
+    public ResponseEntity<?> getCommentReplies(@PathVariable Long id, @PathVariable Long commentId,
+                                               @RequestParam(value = "after", required = false) Long after,
+                                               @RequestParam(value = "size", required = false, defaultValue = "20") int size) {
+        try {
+            return ResponseEntity.ok(commentService.getReplies(id, commentId, after, Math.min(size, 100)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        }
+    }
+
+    /**
+     * 📡 Live komentari za video (Server-Sent Events, događaj "comment" sa CommentDTO)
+     * GET /api/videos/{id}/comments/stream
+     * Pri ponovnom povezivanju EventSource šalje Last-Event-ID, pa se propušteni komentari šalju prvi.
+     */
+    @GetMapping(value = "/{id}/comments/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamComments(@PathVariable Long id,
+                                                     @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        if (!videoPostService.existsById(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        try {
+            List<CommentDTO> backlog = new ArrayList<>();
+            if (lastEventId != null && !lastEventId.isBlank()) {
+                backlog = commentService.getCommentsAfter(id, lastEventId.trim(), SSE_BACKLOG_LIMIT);
+            }
+            return ResponseEntity.ok()
+                    .header("X-Accel-Buffering", "no")
+                    .body(commentStreamService.subscribe(id, backlog));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+
     /**
      * Vraća komentare za video na osnovu filename-a koji se koristi u stream URL-u
      * GET /api/videos/stream/{filename}/comments
@@ -160,8 +308,8 @@ public class VideoPostController {
                                                    @RequestParam(value = "page", required = false, defaultValue = "0") int page,
                                                    @RequestParam(value = "size", required = false, defaultValue = "20") int size) {
         try {
-            VideoPost vp = videoPostService.getVideoPostByVideoPath(filename);
-            List<CommentDTO> comments = commentService.getCommentsForVideo(vp.getId(), page, size);
+            Long videoId = videoPostService.resolveVideoIdByPath(filename);
+            List<CommentDTO> comments = commentService.getCommentsForVideo(videoId, page, size);
             return ResponseEntity.ok(comments);
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
@@ -169,15 +317,232 @@ public class VideoPostController {
     }
 
     /**
-     * 📋 Vraća sve video objave
-     * GET /api/videos
+     * 📋 Vraća sve video objave (ili jednu stranicu ako je zadat page)
+     * GET /api/videos?page=0&size=20
+     * Prve stranice se služe iz unapred serijalizovanog snapshot-a (gzip ako klijent podržava).
      */
     @GetMapping
-    public ResponseEntity<List<VideoPostDTO>> getAllVideos(Principal principal) {
-        List<VideoPostDTO> videos = videoPostService.getAllVideoPosts(principal != null);
+    public ResponseEntity<?> getAllVideos(@RequestParam(value = "page", required = false) Integer page,
+                                          @RequestParam(value = "size", required = false) Integer size,
+                                          @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                          Principal principal) {
+        boolean authenticated = principal != null;
+        FeedSnapshotService.EncodedFeed encoded =
+                videoPostService.getEncodedFeed(page, size, authenticated, acceptsGzip(acceptEncoding));
+        if (encoded != null) {
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            if (encoded.isGzip()) {
+                response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+            }
+            return response.body(encoded.getBytes());
+        }
+
+        List<VideoPostDTO> videos = page == null
+                ? videoPostService.getAllVideoPosts(authenticated)
+                : videoPostService.getVideoPostsPage(page, size != null ? size : 20, authenticated);
         return ResponseEntity.ok(videos);
     }
 
+    /**
+     * 🏷️ Pretraga po više tagova (in-memory indeks)
+     * GET /api/videos/tags/search?all=a,b&any=c,d&none=e&sort=recent|popular&page=0&size=20
+     * Ukupan broj pogodaka se vraća u X-Total-Count header-u.
+     */
+    @GetMapping("/tags/search")
+    public ResponseEntity<?> searchByTags(@RequestParam(value = "all", required = false) Set<String> all,
+                                          @RequestParam(value = "any", required = false) Set<String> any,
+                                          @RequestParam(value = "none", required = false) Set<String> none,
+                                          @RequestParam(value = "sort", required = false, defaultValue = "recent") String sort,
+                                          @RequestParam(value = "page", required = false, defaultValue = "0") int page,
+                                          @RequestParam(value = "size", required = false, defaultValue = "20") int size,
+                                          Principal principal) {
+        try {
+            TagIndexService.SortOrder order = "popular".equalsIgnoreCase(sort)
+                    ? TagIndexService.SortOrder.POPULAR
+                    : TagIndexService.SortOrder.RECENT;
+            TagIndexService.TagQueryResult result = tagIndexService.query(all, any, none, order, page, Math.min(size, 100));
+            List<VideoPostDTO> videos = videoPostService.getVideoPostsByIds(result.getVideoIds(), principal != null);
+            return ResponseEntity.ok()
+                    .header("X-Total-Count", String.valueOf(result.getTotal()))
+                    .body(videos);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * 🔎 Full-text pretraga po naslovu, opisu i tagovima (BM25)
+     * GET /api/videos/search?q=...&page=0&size=20
+     * Ukupan broj pogodaka se vraća u X-Total-Count header-u.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<?> search(@RequestParam("q") String query,
+                                    @RequestParam(value = "page", required = false, defaultValue = "0") int page,
+                                    @RequestParam(value = "size", required = false, defaultValue = "20") int size,
+                                    Principal principal) {
+        try {
+            FullTextIndex.SearchResult result = searchIndexService.search(query, page, Math.min(size, 100));
+            List<VideoPostDTO> videos = videoPostService.getVideoPostsByIds(result.getIds(), principal != null);
+            return ResponseEntity.ok()
+                    .header("X-Total-Count", String.valueOf(result.getTotalHits()))
+                    .body(videos);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * 🔥 Trending video snimci (opadajuća popularnost), iz unapred spremljene liste — bez upita u bazu
+     * GET /api/videos/trending?limit=20
+     */
+    @GetMapping("/trending")
+    public ResponseEntity<List<VideoPostDTO>> getTrending(
+            @RequestParam(value = "limit", required = false, defaultValue = "20") int limit,
+            Principal principal) {
+        return ResponseEntity.ok(trendingService.getTrending(Math.min(limit, 100), principal != null));
+    }
+
+    /**
+     * 🏠 Home timeline prijavljenog korisnika (objave praćenih autora, najnovije prvo)
+     * GET /api/videos/timeline?page=0&size=20
+     */
+    @GetMapping("/timeline")
+    public ResponseEntity<?> getTimeline(@RequestParam(value = "page", required = false, defaultValue = "0") int page,
+                                         @RequestParam(value = "size", required = false, defaultValue = "20") int size,
+                                         Principal principal) {
+        if (principal == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Morate biti prijavljeni.");
+        }
+        try {
+            Long userId = userService.findByEmail(principal.getName()).getId();
+            List<Long> ids = timelineService.getTimelineIds(userId, page, Math.min(size, 100));
+            return ResponseEntity.ok(videoPostService.getVideoPostsByIds(ids, true));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * 📈 Trending skor i broj pregleda/lajkova/komentara u poslednja 24 sata za jedan video
+     */
+    @GetMapping("/{id}/trending")
+    public ResponseEntity<Map<String, Object>> getTrendingStats(@PathVariable Long id) {
+        return ResponseEntity.ok(trendingService.getStats(id));
+    }
+
+    /**
+     * 📊 Vremenska serija pregleda za video (satno ili dnevno)
+     * GET /api/videos/{id}/analytics/views?granularity=hour&from=2025-01-01T00:00&to=2025-01-02T00:00
+     * GET /api/videos/{id}/analytics/views?granularity=day&from=2025-01-01&to=2025-01-31
+     * Bez from/to: poslednja 24 sata (hour) odnosno poslednjih 30 dana (day).
+     */
+    @GetMapping("/{id}/analytics/views")
+    public ResponseEntity<?> getViewAnalytics(@PathVariable Long id,
+                                              @RequestParam(value = "granularity", required = false, defaultValue = "hour") String granularity,
+                                              @RequestParam(value = "from", required = false) String from,
+                                              @RequestParam(value = "to", required = false) String to) {
+        try {
+            List<Map<String, Object>> points = new ArrayList<>();
+            if ("day".equalsIgnoreCase(granularity)) {
+                LocalDate end = to != null ? LocalDate.parse(to) : LocalDate.now();
+                LocalDate start = from != null ? LocalDate.parse(from) : end.minusDays(29);
+                viewAnalyticsService.getDailySeries(id, start, end)
+                        .forEach((day, views) -> points.add(Map.of("time", day.toString(), "views", views)));
+            } else if ("hour".equalsIgnoreCase(granularity)) {
+                LocalDateTime end = to != null ? LocalDateTime.parse(to) : LocalDateTime.now().plusHours(1);
+                LocalDateTime start = from != null ? LocalDateTime.parse(from) : end.minusHours(24);
+                viewAnalyticsService.getHourlySeries(id, start, end)
+                        .forEach((hour, views) -> points.add(Map.of("time", hour.toString(), "views", views)));
+            } else {
+                return ResponseEntity.badRequest().body("Granularnost mora biti 'hour' ili 'day'");
+            }
+            return ResponseEntity.ok(points);
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().body("Neispravan format datuma: " + e.getParsedString());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * 👥 Približan broj jedinstvenih gledalaca (HyperLogLog) po danu i za ceo opseg
+     * GET /api/videos/{id}/analytics/unique-viewers?from=2025-01-01&to=2025-01-31
+     * Bez from/to: za ceo životni vek videa.
+     */
+    @GetMapping("/{id}/analytics/unique-viewers")
+    public ResponseEntity<?> getUniqueViewers(@PathVariable Long id,
+                                              @RequestParam(value = "from", required = false) String from,
+                                              @RequestParam(value = "to", required = false) String to) {
+        try {
+            return ResponseEntity.ok(uniqueViewerService.getUniqueViewers(id,
+                    from != null ? LocalDate.parse(from) : null,
+                    to != null ? LocalDate.parse(to) : null));
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().body("Neispravan format datuma: " + e.getParsedString());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * ⌨️ Predlozi za polje za pretragu (tagovi i reči iz naslova)
+     * GET /api/videos/autocomplete?q=...&limit=10
+     */
+    @GetMapping("/autocomplete")
+    public ResponseEntity<List<String>> autocomplete(@RequestParam("q") String query,
+                                                     @RequestParam(value = "limit", required = false, defaultValue = "10") int limit) {
+        return ResponseEntity.ok(autocompleteService.suggest(query, limit));
+    }
+
+    /**
+     * Veličina autocomplete indeksa (broj termina, čvorova i procenjena memorija)
+     */
+    @GetMapping("/autocomplete/stats")
+    public ResponseEntity<?> autocompleteStats() {
+        return ResponseEntity.ok(autocompleteService.getStats());
+    }
+
+    /**
+     * 📍 Video objave u krugu oko date tačke, najbliže prve
+     * GET /api/videos/nearby?lat=44.8&lon=20.46&radiusKm=10&page=0&size=20
+     */
+    @GetMapping("/nearby")
+    public ResponseEntity<?> nearby(@RequestParam("lat") double lat,
+                                    @RequestParam("lon") double lon,
+                                    @RequestParam(value = "radiusKm", required = false, defaultValue = "10") double radiusKm,
+                                    @RequestParam(value = "page", required = false, defaultValue = "0") int page,
+                                    @RequestParam(value = "size", required = false, defaultValue = "20") int size,
+                                    Principal principal) {
+        try {
+            GeoGridIndex.GeoResult result = geoIndexService.nearby(lat, lon, radiusKm, page, Math.min(size, 100));
+            return geoResponse(result, principal);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * 🗺️ Video objave unutar pravougaonika (npr. vidljivi deo mape), najbliže centru prve
+     * GET /api/videos/within?minLat=..&minLon=..&maxLat=..&maxLon=..&page=0&size=20
+     */
+    @GetMapping("/within")
+    public ResponseEntity<?> within(@RequestParam("minLat") double minLat,
+                                    @RequestParam("minLon") double minLon,
+                                    @RequestParam("maxLat") double maxLat,
+                                    @RequestParam("maxLon") double maxLon,
+                                    @RequestParam(value = "page", required = false, defaultValue = "0") int page,
+                                    @RequestParam(value = "size", required = false, defaultValue = "20") int size,
+                                    Principal principal) {
+        try {
+            GeoGridIndex.GeoResult result = geoIndexService.within(minLat, minLon, maxLat, maxLon, page, Math.min(size, 100));
+            return geoResponse(result, principal);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     /**
      * 🎥 Vraća jednu video objavu po ID-u
      */
@@ -191,6 +556,34 @@ public class VideoPostController {
         }
     }
 
+    /**
+     * 📄 Cela stranica videa u jednom odgovoru: video, prva stranica komentara, autor i srodni snimci.
+     * Delovi koji ne stignu na vreme izostaju i navedeni su u "missing".
+     * GET /api/videos/{id}/page
+     */
+    @GetMapping("/{id}/page")
+    public ResponseEntity<?> getVideoPage(@PathVariable Long id, Principal principal) {
+        try {
+            return ResponseEntity.ok(videoPageService.getVideoPage(id, principal != null));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body(e.getMessage());
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        }
+    }
+
+    /**
+     * ⏭️ Srodni video snimci ("sledeće za gledanje") iz unapred izračunatog modela
+     * GET /api/videos/{id}/related?limit=10
+     */
+    @GetMapping("/{id}/related")
+    public ResponseEntity<List<VideoPostDTO>> getRelatedVideos(@PathVariable Long id,
+                                                               @RequestParam(value = "limit", required = false, defaultValue = "10") int limit,
+                                                               Principal principal) {
+        List<Long> ids = relatedVideosService.getRelatedIds(id, Math.min(limit, 50));
+        return ResponseEntity.ok(videoPostService.getVideoPostsByIds(ids, principal != null));
+    }
+
     /**
      * 🖼️ Vraća thumbnail sliku
      */
@@ -225,7 +618,10 @@ public class VideoPostController {
             String range = request.getHeader("Range");
             if (range == null || range.startsWith("bytes=0-")) {
                 // filename here is the stored unique filename (videoPath)
-                videoPostService.incrementViewCountByPath(filename);
+                Principal viewer = request.getUserPrincipal();
+                String viewerKey = UniqueViewerService.viewerKey(viewer != null ? viewer.getName() : null,
+                        request.getRemoteAddr(), request.getHeader("User-Agent"));
+                videoPostService.incrementViewCountByPath(filename, viewerKey);
             }
 
             Path filePath = Paths.get(videoUploadDir).resolve(filename).normalize();
@@ -245,4 +641,22 @@ public class VideoPostController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
+
+    private boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) return false;
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.trim().split(";");
+            if (!tokens[0].trim().equalsIgnoreCase("gzip")) continue;
+            // gzip;q=0 znači da klijent eksplicitno odbija gzip
+            return tokens.length < 2 || !tokens[1].trim().replace(" ", "").matches("q=0(\\.0*)?");
+        }
+        return false;
+    }
+
+    private ResponseEntity<?> geoResponse(GeoGridIndex.GeoResult result, Principal principal) {
+        List<VideoPostDTO> videos = videoPostService.getVideoPostsByIds(result.getIds(), principal != null);
+        return ResponseEntity.ok()
+                .header("X-Total-Count", String.valueOf(result.getTotal()))
+                .body(videos);
+    }
 }
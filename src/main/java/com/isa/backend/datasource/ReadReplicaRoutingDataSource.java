@@ -0,0 +1,138 @@
+package com.isa.backend.datasource;
+
+import com.isa.backend.util.TransactionHooks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Usmerava konekcije na primarnu bazu ili na replike.
+ *
+ * Read-only transakcije (@Transactional(readOnly = true), uključujući podrazumevane transakcije Spring Data
+ * find metoda) idu na replike redom (round-robin), osim za korisnika koji je upisivao u poslednjih
+ * read-your-writes-ms (ReadYourWritesTracker). Sve ostalo — upisi i rad bez transakcije — ide na primarnu.
+ * Ako replika nije dostupna, konekcija se uzima sa primarne.
+ *
+ * Izuzeci se označavaju unutar transakcije: readFromPrimary() za read-only metode čiji rezultat ide u deljeni
+ * keš (ne sme se keširati stanje replike koja kasni), skipReadYourWrites() za upise koji menjaju samo brojače.
+ *
+ * Mora biti omotan u LazyConnectionDataSourceProxy: transakcija se označava kao read-only tek posle
+ * otvaranja, pa se stvarna konekcija sme uzeti tek pri prvom upitu.
+ */
+public class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReadReplicaRoutingDataSource.class);
+
+    private static final String PRIMARY = "primary";
+    private static final String REPLICA = "replica-";
+
+    // Oznake tekuće transakcije (resursi vezani za nit do kraja transakcije)
+    private static final String PRIMARY_READ_MARKER = ReadReplicaRoutingDataSource.class.getName() + ".primaryRead";
+    private static final String SKIP_RYW_MARKER = ReadReplicaRoutingDataSource.class.getName() + ".skipReadYourWrites";
+
+    private final DataSource primary;
+    private final List<DataSource> replicas;
+    private final ReadYourWritesTracker tracker;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    public ReadReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, ReadYourWritesTracker tracker) {
+        this.primary = primary;
+        this.replicas = new ArrayList<>(replicas);
+        this.tracker = tracker;
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < this.replicas.size(); i++) {
+            targets.put(REPLICA + i, this.replicas.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) return PRIMARY;
+        String user = ReadYourWritesTracker.currentUserKey();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            // Prozor se računa od commit-a, kada izmena tek kreće ka replikama
+            // Oznaka se proverava tek pri commit-u, pa skipReadYourWrites() važi i ako je pozvan posle prvog upita
+            if (user != null) TransactionHooks.afterCommit(() -> {
+                if (!TransactionSynchronizationManager.hasResource(SKIP_RYW_MARKER)) tracker.recordWrite(user);
+            });
+            return PRIMARY;
+        }
+        if (replicas.isEmpty() || TransactionSynchronizationManager.hasResource(PRIMARY_READ_MARKER)
+                || tracker.isSticky(user)) {
+            return PRIMARY;
+        }
+        return REPLICA + Math.floorMod(nextReplica.getAndIncrement(), replicas.size());
+    }
+
+    /**
+     * Read-only transakcija čita sa primarne baze. Poziva se pre prvog upita — za metode koje pune deljeni keš
+     * koji se briše pri upisu, jer bi replika koja kasni vratila stanje bez tog upisa i ono bi ostalo u kešu.
+     */
+    public static void readFromPrimary() {
+        mark(PRIMARY_READ_MARKER);
+    }
+
+    /**
+     * Commit tekuće transakcije ne pokreće read-your-writes prozor za korisnika — za upise koji menjaju samo
+     * brojače (npr. pregledi pri gledanju videa), koje korisnik ne očekuje da odmah vidi.
+     */
+    public static void skipReadYourWrites() {
+        mark(SKIP_RYW_MARKER);
+    }
+
+    private static void mark(String marker) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(marker)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(marker, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(marker);
+            }
+        });
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        DataSource target = determineTargetDataSource();
+        try {
+            return target.getConnection();
+        } catch (SQLException e) {
+            if (target == primary) throw e;
+            logger.warn("Replika nije dostupna, čitanje ide na primarnu bazu: {}", e.getMessage());
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return determineTargetDataSource().getConnection(username, password);
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (DataSource replica : replicas) {
+            if (replica instanceof Closeable closeable) closeable.close();
+        }
+        if (primary instanceof Closeable closeable) closeable.close();
+    }
+}
@@ -0,0 +1,65 @@
+package com.isa.backend.datasource;
+
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Pamti kada je korisnik poslednji put upisao nešto u bazu. Dok ne prođe window (duže od očekivanog
+ * kašnjenja replika), njegova čitanja idu na primarnu bazu, pa odmah vidi sopstvene izmene.
+ *
+ * Stanje je u memoriji instance — kod više instanci iza load balancer-a potreban je sticky session.
+ */
+public class ReadYourWritesTracker {
+
+    private final long windowMillis;
+    private final LongSupplier clock;
+    // korisnik (email iz JWT-a) -> vreme poslednjeg upisa
+    private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+    private volatile long nextPurge;
+
+    public ReadYourWritesTracker(long windowMillis) {
+        this(windowMillis, System::currentTimeMillis);
+    }
+
+    ReadYourWritesTracker(long windowMillis, LongSupplier clock) {
+        this.windowMillis = windowMillis;
+        this.clock = clock;
+    }
+
+    public void recordWrite(String userKey) {
+        if (userKey == null || windowMillis <= 0) return;
+        long now = clock.getAsLong();
+        lastWrites.put(userKey, now);
+        if (now >= nextPurge) {
+            // Najviše jednom po prozoru: uklanja korisnike čiji je prozor istekao, a nisu ponovo čitali
+            nextPurge = now + windowMillis;
+            lastWrites.values().removeIf(writtenAt -> now - writtenAt >= windowMillis);
+        }
+    }
+
+    public boolean isSticky(String userKey) {
+        if (userKey == null) return false;
+        Long writtenAt = lastWrites.get(userKey);
+        if (writtenAt == null) return false;
+        if (clock.getAsLong() - writtenAt < windowMillis) return true;
+        lastWrites.remove(userKey, writtenAt);
+        return false;
+    }
+
+    /**
+     * Ključ prijavljenog korisnika tekućeg zahteva, ili null za anonimne zahteve i pozadinske niti.
+     */
+    public static String currentUserKey() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
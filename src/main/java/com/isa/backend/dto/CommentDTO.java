@@ -9,6 +9,9 @@ public class CommentDTO {
     private String username;
     private Long videoPostId;
     private LocalDateTime createdAt;
+    private Long parentId;
+    private int depth;
+    private int replyCount;
 
     public CommentDTO() {}
 
@@ -59,4 +62,28 @@ public class CommentDTO {
     public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
     }
+
+    public Long getParentId() {
+        return parentId;
+    }
+
+    public void setParentId(Long parentId) {
+        this.parentId = parentId;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public void setDepth(int depth) {
+        this.depth = depth;
+    }
+
+    public int getReplyCount() {
+        return replyCount;
+    }
+
+    public void setReplyCount(int replyCount) {
+        this.replyCount = replyCount;
+    }
 }
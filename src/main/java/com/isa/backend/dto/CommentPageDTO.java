@@ -0,0 +1,44 @@
+package com.isa.backend.dto;
+
+import java.util.List;
+
+/**
+ * Stranica komentara za kursorsku paginaciju. nextCursor je null kada nema starijih komentara.
+ */
+public class CommentPageDTO {
+    private List<CommentDTO> comments;
+    private String nextCursor;
+    private boolean hasNext;
+
+    public CommentPageDTO() {}
+
+    public CommentPageDTO(List<CommentDTO> comments, String nextCursor, boolean hasNext) {
+        this.comments = comments;
+        this.nextCursor = nextCursor;
+        this.hasNext = hasNext;
+    }
+
+    public List<CommentDTO> getComments() {
+        return comments;
+    }
+
+    public void setComments(List<CommentDTO> comments) {
+        this.comments = comments;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public void setHasNext(boolean hasNext) {
+        this.hasNext = hasNext;
+    }
+}
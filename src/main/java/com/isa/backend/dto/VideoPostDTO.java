@@ -23,6 +23,8 @@ public class VideoPostDTO {
     private Long videoSize;
     private LocalDateTime createdAt;
     private String location;
+    private Double latitude;
+    private Double longitude;
     private Long userId;
     private Integer viewCount;
     private Integer likeCount;
@@ -108,6 +110,22 @@ public class VideoPostDTO {
         this.location = location;
     }
 
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+
     public Long getUserId() {
         return userId;
     }
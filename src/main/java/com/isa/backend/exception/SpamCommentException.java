@@ -0,0 +1,7 @@
+package com.isa.backend.exception;
+
+public class SpamCommentException extends RuntimeException {
+    public SpamCommentException(String message) {
+        super(message);
+    }
+}
@@ -6,11 +6,20 @@ import org.hibernate.annotations.CreationTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "comments")
+@Table(name = "comments", indexes = {
+        // Keyset paginacija: WHERE video_post_id = ? AND (created_at, id) < (?, ?) ORDER BY created_at DESC, id DESC
+        @Index(name = "idx_comments_video_created_id", columnList = "videoPostId, createdAt, id"),
+        // Podstablo odgovora je opseg putanja (vidi CommentPaths)
+        @Index(name = "idx_comments_path", columnList = "path"),
+        // Stranično proširivanje direktnih odgovora
+        @Index(name = "idx_comments_parent_id", columnList = "parentId, id")
+})
 public class Comment {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled sekvenca (blok od 50 id-jeva po nextval-u) — insert-i se mogu batch-ovati, vidi User
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "comments_seq")
+    @SequenceGenerator(name = "comments_seq", sequenceName = "comments_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, columnDefinition = "TEXT")
@@ -26,6 +35,20 @@ public class Comment {
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
+    // Komentar na koji se odgovara (null za komentar najvišeg nivoa)
+    private Long parentId;
+
+    // Materijalizovana putanja od korena niti (CommentPaths); COLLATE "C" da bi opseg pratio bajt poredak
+    @Column(columnDefinition = "varchar(255) COLLATE \"C\"")
+    private String path;
+
+    @Column(columnDefinition = "integer default 0")
+    private Integer depth = 0;
+
+    // Broj svih odgovora u podstablu (ažurira se atomski za sve pretke pri novom odgovoru)
+    @Column(columnDefinition = "integer default 0")
+    private Integer replyCount = 0;
+
     public Comment() {}
 
     public Long getId() {
@@ -67,5 +90,36 @@ public class Comment {
     public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
     }
-}
 
+    public Long getParentId() {
+        return parentId;
+    }
+
+    public void setParentId(Long parentId) {
+        this.parentId = parentId;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    public Integer getDepth() {
+        return depth;
+    }
+
+    public void setDepth(Integer depth) {
+        this.depth = depth;
+    }
+
+    public Integer getReplyCount() {
+        return replyCount;
+    }
+
+    public void setReplyCount(Integer replyCount) {
+        this.replyCount = replyCount;
+    }
+}
@@ -0,0 +1,104 @@
+package com.isa.backend.model;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Brojači jednog videa (pregledi, lajkovi, komentari) u uskoj tabeli odvojenoj od video_posts.
+ *
+ * Uvećanje brojača u Postgres-u piše novu verziju celog reda; ovde je red mali i bez indeksa na
+ * brojačima, pa su izmene HOT i ne naduvavaju video_posts koji čitaju feed upiti. Video može imati
+ * više redova (slot 0..app.counters.slots-1) da istovremena uvećanja popularnog videa ne čekaju na
+ * isti red — vrednost brojača je zbir svih slotova (vidi VideoPost i VideoCounterService).
+ */
+@Entity
+@Table(name = "video_counters")
+@IdClass(VideoCounter.Key.class)
+public class VideoCounter {
+
+    @Id
+    @Column(name = "video_id", nullable = false)
+    private Long videoId;
+
+    @Id
+    @Column(name = "slot", nullable = false)
+    private int slot;
+
+    @Column(name = "view_count", nullable = false)
+    private long viewCount;
+
+    @Column(name = "like_count", nullable = false)
+    private long likeCount;
+
+    @Column(name = "comment_count", nullable = false)
+    private long commentCount;
+
+    public VideoCounter() {}
+
+    public Long getVideoId() {
+        return videoId;
+    }
+
+    public void setVideoId(Long videoId) {
+        this.videoId = videoId;
+    }
+
+    public int getSlot() {
+        return slot;
+    }
+
+    public void setSlot(int slot) {
+        this.slot = slot;
+    }
+
+    public long getViewCount() {
+        return viewCount;
+    }
+
+    public void setViewCount(long viewCount) {
+        this.viewCount = viewCount;
+    }
+
+    public long getLikeCount() {
+        return likeCount;
+    }
+
+    public void setLikeCount(long likeCount) {
+        this.likeCount = likeCount;
+    }
+
+    public long getCommentCount() {
+        return commentCount;
+    }
+
+    public void setCommentCount(long commentCount) {
+        this.commentCount = commentCount;
+    }
+
+    public static class Key implements Serializable {
+        private Long videoId;
+        private int slot;
+
+        public Key() {}
+
+        public Key(Long videoId, int slot) {
+            this.videoId = videoId;
+            this.slot = slot;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return slot == key.slot && Objects.equals(videoId, key.videoId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(videoId, slot);
+        }
+    }
+}
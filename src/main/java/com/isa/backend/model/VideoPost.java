@@ -2,17 +2,25 @@ package com.isa.backend.model;
 
 import jakarta.persistence.*;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.Formula;
 
 import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "video_posts")
+@Table(name = "video_posts", indexes = {
+        // Stream i komentari po filename-u traže video po videoPath-u (keš promašaji idu u bazu)
+        @Index(name = "idx_video_posts_video_path", columnList = "videoPath", unique = true),
+        // Home timeline se gradi iz najnovijih objava praćenih autora
+        @Index(name = "idx_video_posts_user_id", columnList = "userId, id")
+})
 public class VideoPost {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled sekvenca (blok od 50 id-jeva po nextval-u) — insert-i se mogu batch-ovati, vidi User
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "video_posts_seq")
+    @SequenceGenerator(name = "video_posts_seq", sequenceName = "video_posts_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -41,16 +49,23 @@ public class VideoPost {
 
     private String location;
 
+    // Opcione koordinate lokacije (indeksiraju se u GeoIndexService)
+    private Double latitude;
+
+    private Double longitude;
+
     @Column(nullable = false)
     private Long userId;
 
-    @Column(columnDefinition = "integer default 0")
+    // Brojači se čuvaju u video_counters (VideoCounter) i sabiraju po slotovima pri čitanju; polja su samo za čitanje,
+    // uvećava ih VideoCounterService
+    @Formula("(SELECT COALESCE(SUM(c.view_count), 0) FROM video_counters c WHERE c.video_id = id)")
     private Integer viewCount = 0;
 
-    @Column(columnDefinition = "integer default 0")
+    @Formula("(SELECT COALESCE(SUM(c.like_count), 0) FROM video_counters c WHERE c.video_id = id)")
     private Integer likeCount = 0;
 
-    @Column(columnDefinition = "integer default 0")
+    @Formula("(SELECT COALESCE(SUM(c.comment_count), 0) FROM video_counters c WHERE c.video_id = id)")
     private Integer commentCount = 0;
 
     // Constructors
@@ -129,6 +144,22 @@ public class VideoPost {
         this.location = location;
     }
 
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+
     public Long getUserId() {
         return userId;
     }
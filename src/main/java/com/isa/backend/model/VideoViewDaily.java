@@ -0,0 +1,78 @@
+package com.isa.backend.model;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Broj pregleda jednog videa u jednom danu, sabran iz satnih rollup-ova (video_view_hourly).
+ */
+@Entity
+@Table(name = "video_view_daily")
+@IdClass(VideoViewDaily.Key.class)
+public class VideoViewDaily {
+
+    @Id
+    @Column(name = "video_id", nullable = false)
+    private Long videoId;
+
+    @Id
+    @Column(name = "view_day", nullable = false)
+    private LocalDate day;
+
+    @Column(nullable = false)
+    private long views;
+
+    public VideoViewDaily() {}
+
+    public Long getVideoId() {
+        return videoId;
+    }
+
+    public void setVideoId(Long videoId) {
+        this.videoId = videoId;
+    }
+
+    public LocalDate getDay() {
+        return day;
+    }
+
+    public void setDay(LocalDate day) {
+        this.day = day;
+    }
+
+    public long getViews() {
+        return views;
+    }
+
+    public void setViews(long views) {
+        this.views = views;
+    }
+
+    public static class Key implements Serializable {
+        private Long videoId;
+        private LocalDate day;
+
+        public Key() {}
+
+        public Key(Long videoId, LocalDate day) {
+            this.videoId = videoId;
+            this.day = day;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return Objects.equals(videoId, key.videoId) && Objects.equals(day, key.day);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(videoId, day);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.isa.backend.model;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Broj pregleda jednog videa u jednom satu (rollup). Upisuje ga ViewAnalyticsService batch upsert-om.
+ */
+@Entity
+@Table(name = "video_view_hourly")
+@IdClass(VideoViewHourly.Key.class)
+public class VideoViewHourly {
+
+    @Id
+    @Column(name = "video_id", nullable = false)
+    private Long videoId;
+
+    // Početak sata (minuti i sekunde su 0)
+    @Id
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(nullable = false)
+    private long views;
+
+    public VideoViewHourly() {}
+
+    public Long getVideoId() {
+        return videoId;
+    }
+
+    public void setVideoId(Long videoId) {
+        this.videoId = videoId;
+    }
+
+    public LocalDateTime getBucketStart() {
+        return bucketStart;
+    }
+
+    public void setBucketStart(LocalDateTime bucketStart) {
+        this.bucketStart = bucketStart;
+    }
+
+    public long getViews() {
+        return views;
+    }
+
+    public void setViews(long views) {
+        this.views = views;
+    }
+
+    public static class Key implements Serializable {
+        private Long videoId;
+        private LocalDateTime bucketStart;
+
+        public Key() {}
+
+        public Key(Long videoId, LocalDateTime bucketStart) {
+            this.videoId = videoId;
+            this.bucketStart = bucketStart;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return Objects.equals(videoId, key.videoId) && Objects.equals(bucketStart, key.bucketStart);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(videoId, bucketStart);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.isa.backend.model;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Serijalizovana HyperLogLog skica jedinstvenih gledalaca jednog videa za jedan dan.
+ */
+@Entity
+@Table(name = "video_viewer_sketch")
+@IdClass(VideoViewerSketch.Key.class)
+public class VideoViewerSketch {
+
+    @Id
+    @Column(name = "video_id", nullable = false)
+    private Long videoId;
+
+    @Id
+    @Column(name = "view_day", nullable = false)
+    private LocalDate day;
+
+    // Retki (nekoliko bajtova po gledaocu) ili gusti oblik (najviše 12289 bajtova), vidi HyperLogLog.toBytes()
+    @Column(nullable = false)
+    private byte[] sketch;
+
+    public VideoViewerSketch() {}
+
+    public Long getVideoId() {
+        return videoId;
+    }
+
+    public void setVideoId(Long videoId) {
+        this.videoId = videoId;
+    }
+
+    public LocalDate getDay() {
+        return day;
+    }
+
+    public void setDay(LocalDate day) {
+        this.day = day;
+    }
+
+    public byte[] getSketch() {
+        return sketch;
+    }
+
+    public void setSketch(byte[] sketch) {
+        this.sketch = sketch;
+    }
+
+    public static class Key implements Serializable {
+        private Long videoId;
+        private LocalDate day;
+
+        public Key() {}
+
+        public Key(Long videoId, LocalDate day) {
+            this.videoId = videoId;
+            this.day = day;
+        }
+
+        public Long getVideoId() {
+            return videoId;
+        }
+
+        public LocalDate getDay() {
+            return day;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return Objects.equals(videoId, key.videoId) && Objects.equals(day, key.day);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(videoId, day);
+        }
+    }
+}
@@ -1,17 +1,69 @@
 package com.isa.backend.repository;
 
 import com.isa.backend.model.Comment;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
-    List<Comment> findByVideoPostIdOrderByCreatedAtDesc(Long videoPostId);
+    // Komentari najvišeg nivoa (odgovori se učitavaju kroz niti)
+    List<Comment> findByVideoPostIdAndParentIdIsNullOrderByCreatedAtDesc(Long videoPostId);
 
-    // Pageable variant to support pagination for large comment sets
-    Page<Comment> findByVideoPostIdOrderByCreatedAtDesc(Long videoPostId, Pageable pageable);
+    // Pageable variant to support pagination for large comment sets (Slice: bez count upita)
+    Slice<Comment> findByVideoPostIdAndParentIdIsNullOrderByCreatedAtDescIdDesc(Long videoPostId, Pageable pageable);
+
+    // Keyset paginacija — prva stranica (limit = veličina stranice + 1 da bi se znalo da li ima još)
+    @Query(value = "SELECT * FROM comments WHERE video_post_id = :videoPostId AND parent_id IS NULL " +
+            "ORDER BY created_at DESC, id DESC LIMIT :limit", nativeQuery = true)
+    List<Comment> findNewestByVideoPostId(@Param("videoPostId") Long videoPostId, @Param("limit") int limit);
+
+    // Keyset paginacija — komentari stariji od pozicije kursora; poređenje reda koristi indeks (video_post_id, created_at, id)
+    @Query(value = "SELECT * FROM comments WHERE video_post_id = :videoPostId AND parent_id IS NULL " +
+            "AND (created_at, id) < (:createdAt, :id) " +
+            "ORDER BY created_at DESC, id DESC LIMIT :limit", nativeQuery = true)
+    List<Comment> findOlderByVideoPostId(@Param("videoPostId") Long videoPostId,
+                                         @Param("createdAt") LocalDateTime createdAt,
+                                         @Param("id") Long id,
+                                         @Param("limit") int limit);
+
+    // Komentari posle pozicije (createdAt, id), najstariji prvi — nastavak SSE strima posle Last-Event-ID.
+    // Ne po id-ju: id-jevi se dodeljuju u blokovima, pa kasnije upisan komentar može imati manji id
+    @Query(value = "SELECT * FROM comments WHERE video_post_id = :videoPostId " +
+            "AND (created_at, id) > (:createdAt, :id) " +
+            "ORDER BY created_at, id LIMIT :limit", nativeQuery = true)
+    List<Comment> findNewerByVideoPostId(@Param("videoPostId") Long videoPostId,
+                                         @Param("createdAt") LocalDateTime createdAt,
+                                         @Param("id") Long id,
+                                         @Param("limit") int limit);
+
+    // Podstablo komentara do date dubine jednim opsežnim upitom po putanji, u DFS poretku
+    @Query(value = "SELECT * FROM comments WHERE path >= :path AND path < :upperBound AND depth <= :maxDepth " +
+            "ORDER BY path LIMIT :limit", nativeQuery = true)
+    List<Comment> findSubtree(@Param("path") String path,
+                              @Param("upperBound") String upperBound,
+                              @Param("maxDepth") int maxDepth,
+                              @Param("limit") int limit);
+
+    // Direktni odgovori posle datog id-ja (keyset), najstariji prvi
+    List<Comment> findByParentIdAndIdGreaterThanOrderByIdAsc(Long parentId, Long id, Pageable pageable);
+
+    // Atomski inkrement broja odgovora za sve pretke novog odgovora
+    @Modifying
+    @Query("UPDATE Comment c SET c.replyCount = c.replyCount + 1 WHERE c.id IN :ids")
+    int incrementReplyCounts(@Param("ids") Collection<Long> ids);
+
+    // Putanje za komentare nastale pre uvođenja niti (svi su najvišeg nivoa)
+    @Modifying
+    @Query(value = "UPDATE comments SET path = lpad(CAST(id AS text), 10, '0'), depth = 0, reply_count = coalesce(reply_count, 0) " +
+            "WHERE path IS NULL AND parent_id IS NULL", nativeQuery = true)
+    int backfillRootPaths();
 }
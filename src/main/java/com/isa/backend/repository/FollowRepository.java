@@ -0,0 +1,37 @@
+package com.isa.backend.repository;
+
+import com.isa.backend.model.Follow;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface FollowRepository extends JpaRepository<Follow, Long> {
+
+    boolean existsByFollowerIdAndFolloweeId(Long followerId, Long followeeId);
+
+    @Modifying
+    @Query("DELETE FROM Follow f WHERE f.followerId = :followerId AND f.followeeId = :followeeId")
+    int deleteByFollowerIdAndFolloweeId(@Param("followerId") Long followerId, @Param("followeeId") Long followeeId);
+
+    long countByFolloweeId(Long followeeId);
+
+    long countByFollowerId(Long followerId);
+
+    // Id-jevi pratilaca autora (fan-out pri upload-u)
+    @Query("SELECT f.followerId FROM Follow f WHERE f.followeeId = :followeeId")
+    List<Long> findFollowerIds(@Param("followeeId") Long followeeId);
+
+    // Id-jevi korisnika koje korisnik prati (izgradnja home timeline-a)
+    @Query("SELECT f.followeeId FROM Follow f WHERE f.followerId = :followerId")
+    List<Long> findFolloweeIds(@Param("followerId") Long followerId);
+
+    // Parovi (followeeId, broj pratilaca) za više korisnika odjednom
+    @Query("SELECT f.followeeId, COUNT(f) FROM Follow f WHERE f.followeeId IN :followeeIds GROUP BY f.followeeId")
+    List<Object[]> countFollowersByFolloweeIds(@Param("followeeIds") Collection<Long> followeeIds);
+}
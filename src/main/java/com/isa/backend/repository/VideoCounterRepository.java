@@ -0,0 +1,29 @@
+package com.isa.backend.repository;
+
+import com.isa.backend.model.VideoCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface VideoCounterRepository extends JpaRepository<VideoCounter, VideoCounter.Key> {
+
+    // Atomsko uvećanje postojećeg slota (čest slučaj; 0 ako slot još ne postoji)
+    @Modifying
+    @Query(value = "UPDATE video_counters SET view_count = view_count + :views, like_count = like_count + :likes, " +
+            "comment_count = comment_count + :comments WHERE video_id = :videoId AND slot = :slot", nativeQuery = true)
+    int addToSlot(@Param("videoId") Long videoId, @Param("slot") int slot,
+                  @Param("views") long views, @Param("likes") long likes, @Param("comments") long comments);
+
+    // Kreira ili uvećava slot; 0 samo ako video ne postoji
+    @Modifying
+    @Query(value = "INSERT INTO video_counters (video_id, slot, view_count, like_count, comment_count) " +
+            "SELECT v.id, :slot, :views, :likes, :comments FROM video_posts v WHERE v.id = :videoId " +
+            "ON CONFLICT (video_id, slot) DO UPDATE SET view_count = video_counters.view_count + EXCLUDED.view_count, " +
+            "like_count = video_counters.like_count + EXCLUDED.like_count, " +
+            "comment_count = video_counters.comment_count + EXCLUDED.comment_count", nativeQuery = true)
+    int upsertSlot(@Param("videoId") Long videoId, @Param("slot") int slot,
+                   @Param("views") long views, @Param("likes") long likes, @Param("comments") long comments);
+}
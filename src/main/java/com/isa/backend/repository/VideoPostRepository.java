@@ -1,12 +1,13 @@
 package com.isa.backend.repository;
 
 import com.isa.backend.model.VideoPost;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,22 +17,49 @@ public interface VideoPostRepository extends JpaRepository<VideoPost, Long> {
     // Pronađi sve video objave od određenog korisnika
     List<VideoPost> findByUserId(Long userId);
 
-    // Pronađi video objave po tag-u
-    List<VideoPost> findByTagsContaining(String tag);
+    // Pronađi video objave po tag-u (join umesto MEMBER OF podupita, da bi se koristio indeks video_tags.tag)
+    @Query("SELECT v FROM VideoPost v JOIN v.tags t WHERE t = :tag")
+    List<VideoPost> findByTagsContaining(@Param("tag") String tag);
 
     // Pronađi najnovije video objave (sortirane po datumu kreiranja)
     List<VideoPost> findAllByOrderByCreatedAtDesc();
 
-    // Pronađi video post po putanji fajla (koristi se za inkrement viewCount pri stream-u)
-    Optional<VideoPost> findByVideoPath(String videoPath);
+    // Stranična varijanta (koristi se za feed snapshot i stranice feed-a)
+    List<VideoPost> findAllByOrderByCreatedAtDesc(Pageable pageable);
+
+    // Parovi (videoId, tag) za izgradnju in-memory indeksa tagova
+    @Query("SELECT v.id, t FROM VideoPost v JOIN v.tags t")
+    List<Object[]> findAllIdTagPairs();
+
+    // Metapodaci za indekse: id, createdAt, viewCount, likeCount, commentCount (brojači sabrani iz video_counters jednim join-om)
+    @Query("SELECT v.id, v.createdAt, COALESCE(SUM(c.viewCount), 0), COALESCE(SUM(c.likeCount), 0), COALESCE(SUM(c.commentCount), 0) " +
+            "FROM VideoPost v LEFT JOIN VideoCounter c ON c.videoId = v.id GROUP BY v.id, v.createdAt")
+    List<Object[]> findAllIndexMetadata();
+
+    // Tekstualna polja za izgradnju full-text indeksa: id, title, description
+    @Query("SELECT v.id, v.title, v.description FROM VideoPost v")
+    List<Object[]> findAllSearchDocuments();
+
+    // Koordinate za izgradnju geo indeksa: id, latitude, longitude
+    @Query("SELECT v.id, v.latitude, v.longitude FROM VideoPost v WHERE v.latitude IS NOT NULL AND v.longitude IS NOT NULL")
+    List<Object[]> findAllCoordinates();
 
-    // Atomski inkrement view count-a na nivou baze podataka (thread-safe)
-    @Modifying
-    @Query("UPDATE VideoPost v SET v.viewCount = v.viewCount + 1 WHERE v.id = :id")
-    int incrementViewCountById(@Param("id") Long id);
+    // Samo id videa za dati videoPath (bez učitavanja celog entiteta)
+    @Query("SELECT v.id FROM VideoPost v WHERE v.videoPath = :videoPath")
+    Optional<Long> findIdByVideoPath(@Param("videoPath") String videoPath);
 
-    // Atomski inkrement view count-a na osnovu videoPath (thread-safe)
-    @Modifying
-    @Query("UPDATE VideoPost v SET v.viewCount = v.viewCount + 1 WHERE v.videoPath = :videoPath")
-    int incrementViewCountByVideoPath(@Param("videoPath") String videoPath);
-}
\ No newline at end of file
+    // Parovi (videoPath, id), najnovije prvo — za popunjavanje keša videoPath -> id
+    @Query("SELECT v.videoPath, v.id FROM VideoPost v ORDER BY v.createdAt DESC")
+    List<Object[]> findVideoPathIds(Pageable pageable);
+
+    // Najnoviji id-jevi videa datih autora — izgradnja home timeline-a (indeks user_id, id; bez join-a)
+    @Query("SELECT v.id FROM VideoPost v WHERE v.userId IN :userIds ORDER BY v.id DESC")
+    List<Long> findIdsByUserIdIn(@Param("userIds") Collection<Long> userIds, Pageable pageable);
+
+    // Koji od datih id-jeva postoje (jedan upit za celu grupu komentara)
+    @Query("SELECT v.id FROM VideoPost v WHERE v.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    // Pronađi video post po putanji fajla
+    Optional<VideoPost> findByVideoPath(String videoPath);
+}
@@ -0,0 +1,15 @@
+package com.isa.backend.repository;
+
+import com.isa.backend.model.VideoViewDaily;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface VideoViewDailyRepository extends JpaRepository<VideoViewDaily, VideoViewDaily.Key> {
+
+    // Dnevni rollup-ovi jednog videa u opsegu [from, to], hronološki
+    List<VideoViewDaily> findByVideoIdAndDayBetweenOrderByDayAsc(Long videoId, LocalDate from, LocalDate to);
+}
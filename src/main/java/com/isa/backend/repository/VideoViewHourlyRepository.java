@@ -0,0 +1,16 @@
+package com.isa.backend.repository;
+
+import com.isa.backend.model.VideoViewHourly;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface VideoViewHourlyRepository extends JpaRepository<VideoViewHourly, VideoViewHourly.Key> {
+
+    // Satni rollup-ovi jednog videa u opsegu [from, to), hronološki (koristi primarni ključ video_id, bucket_start)
+    List<VideoViewHourly> findByVideoIdAndBucketStartGreaterThanEqualAndBucketStartLessThanOrderByBucketStartAsc(
+            Long videoId, LocalDateTime from, LocalDateTime to);
+}
@@ -0,0 +1,16 @@
+package com.isa.backend.repository;
+
+import com.isa.backend.model.VideoViewerSketch;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface VideoViewerSketchRepository extends JpaRepository<VideoViewerSketch, VideoViewerSketch.Key> {
+
+    List<VideoViewerSketch> findByVideoIdAndDayBetween(Long videoId, LocalDate from, LocalDate to);
+
+    List<VideoViewerSketch> findByVideoId(Long videoId);
+}
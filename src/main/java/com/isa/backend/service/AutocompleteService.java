@@ -0,0 +1,142 @@
+package com.isa.backend.service;
+
+import com.isa.backend.repository.VideoPostRepository;
+import com.isa.backend.util.PrefixTrie;
+import com.isa.backend.util.TextAnalyzer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Autocomplete za polje za pretragu: predlozi se prave od tagova i reči iz naslova,
+ * rangirani po učestalosti (tag vredi više od reči iz naslova).
+ *
+ * Trie se gradi pri startu aplikacije i dopunjuje nakon commit-a nove objave.
+ */
+@Service
+public class AutocompleteService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AutocompleteService.class);
+
+    private static final int TOP_K = 10;
+    private static final long TAG_WEIGHT = 3;
+    private static final long TITLE_TERM_WEIGHT = 1;
+
+    @Autowired
+    private VideoPostRepository videoPostRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private PrefixTrie trie = new PrefixTrie(TOP_K);
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            logger.error("Neuspešna izgradnja autocomplete indeksa pri startu:", e);
+        }
+    }
+
+    public void rebuild() {
+        PrefixTrie fresh = new PrefixTrie(TOP_K);
+        for (Object[] row : videoPostRepository.findAllIdTagPairs()) {
+            addTag(fresh, (String) row[1]);
+        }
+        for (Object[] row : videoPostRepository.findAllSearchDocuments()) {
+            addTitle(fresh, (String) row[1]);
+        }
+        lock.writeLock().lock();
+        try {
+            trie = fresh;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Autocomplete indeks izgrađen: {} termina, {} čvorova, ~{} KB",
+                fresh.termCount(), fresh.nodeCount(), fresh.estimatedBytes() / 1024);
+    }
+
+    public void onVideoPostCreated(String title, Collection<String> tags) {
+        lock.writeLock().lock();
+        try {
+            addTitle(trie, title);
+            if (tags != null) {
+                for (String tag : tags) addTag(trie, tag);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Vraća predloge za upit; dopunjuje se poslednja reč, a prethodne reči se zadržavaju.
+     */
+    public List<String> suggest(String query, int limit) {
+        String normalized = TextAnalyzer.normalizeTerm(query);
+        List<String> result = new ArrayList<>();
+        if (normalized.isEmpty()) return result;
+
+        int limitClamped = Math.max(1, Math.min(limit, TOP_K));
+        List<String> completions;
+        lock.readLock().lock();
+        try {
+            // Ceo upit kao prefiks (pokriva tagove od više reči, npr. "novi sa" -> "novi sad")
+            completions = new ArrayList<>(trie.complete(normalized, limitClamped));
+            int lastSpace = normalized.lastIndexOf(' ');
+            if (completions.size() < limitClamped && lastSpace >= 0) {
+                String head = query.trim().substring(0, Math.max(0, query.trim().lastIndexOf(' ') + 1));
+                for (String word : trie.complete(normalized.substring(lastSpace + 1), limitClamped)) {
+                    completions.add(head + word);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        // Uklanjamo duplikate uz očuvanje redosleda
+        Map<String, String> unique = new LinkedHashMap<>();
+        for (String c : completions) {
+            unique.putIfAbsent(TextAnalyzer.normalizeTerm(c), c);
+        }
+        for (String c : unique.values()) {
+            if (result.size() >= limitClamped) break;
+            result.add(c);
+        }
+        return result;
+    }
+
+    public Map<String, Object> getStats() {
+        lock.readLock().lock();
+        try {
+            Map<String, Object> stats = new HashMap<>();
+            stats.put("terms", trie.termCount());
+            stats.put("nodes", trie.nodeCount());
+            stats.put("estimatedBytes", trie.estimatedBytes());
+            return stats;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static void addTag(PrefixTrie target, String tag) {
+        String key = TextAnalyzer.normalizeTerm(tag);
+        if (!key.isEmpty()) target.add(key, tag.trim().toLowerCase(Locale.ROOT), TAG_WEIGHT);
+    }
+
+    private static void addTitle(PrefixTrie target, String title) {
+        for (String term : TextAnalyzer.tokenize(title)) {
+            target.add(term, term, TITLE_TERM_WEIGHT);
+        }
+    }
+}
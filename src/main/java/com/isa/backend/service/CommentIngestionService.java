@@ -0,0 +1,274 @@
+package com.isa.backend.service;
+
+import com.isa.backend.dto.CommentDTO;
+import com.isa.backend.model.User;
+import com.isa.backend.repository.UserRepository;
+import com.isa.backend.repository.VideoPostRepository;
+import com.isa.backend.util.CommentPaths;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Baferisan upis komentara (app.comments.ingest.buffered=true) za špiceve tokom live događaja.
+ *
+ * Validirani komentari idu u ograničen red. Jedna nit ih skuplja u male grupe (do batch-size komentara
+ * ili max-delay-ms od prvog u grupi) i upisuje ih u jednoj transakciji: id-jevi se uzimaju iz sekvence
+ * comments_seq u blokovima jednim upitom, insert je JDBC batch, a brojač komentara
+ * (video_counters) se uvećava jednim upsert-om po videu.
+ * Pozivalac dobija CompletableFuture koji se završava tek posle commit-a (trajna potvrda sa id-jem),
+ * ili izuzetkom ako upis nije uspeo.
+ */
+@Service
+public class CommentIngestionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CommentIngestionService.class);
+
+    // Ista sekvenca i veličina bloka kao @SequenceGenerator u Comment (pooled-lo: nextval v rezerviše [v, v + 50))
+    private static final int ID_BLOCK_SIZE = 50;
+
+    private static final String NEXT_ID_BLOCKS =
+            "SELECT nextval('comments_seq') FROM generate_series(1, ?)";
+
+    private static final String INSERT_COMMENT =
+            "INSERT INTO comments (id, text, user_id, video_post_id, created_at, parent_id, path, depth, reply_count) " +
+            "VALUES (?, ?, ?, ?, ?, NULL, ?, 0, 0)";
+
+    // Video je već proveren u istoj transakciji, pa je dovoljan upsert bez join-a sa video_posts
+    private static final String ADD_COMMENT_COUNT =
+            "INSERT INTO video_counters (video_id, slot, view_count, like_count, comment_count) VALUES (?, ?, 0, 0, ?) " +
+            "ON CONFLICT (video_id, slot) DO UPDATE SET comment_count = video_counters.comment_count + EXCLUDED.comment_count";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private VideoPostRepository videoPostRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private VideoCounterService videoCounterService;
+
+    @Value("${app.comments.ingest.buffered:false}")
+    private boolean enabled;
+
+    @Value("${app.comments.ingest.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${app.comments.ingest.batch-size:200}")
+    private int batchSize;
+
+    @Value("${app.comments.ingest.max-delay-ms:20}")
+    private long maxDelayMs;
+
+    private BlockingQueue<PendingComment> queue;
+    private Thread worker;
+    private volatile boolean running;
+    // Post-commit obrada (indeksi, SSE, brojači) — registruje je CommentService
+    private volatile Consumer<CommentDTO> committedListener = dto -> {};
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) return;
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        running = true;
+        worker = new Thread(this::run, "comment-ingest");
+        worker.setDaemon(true);
+        worker.start();
+        logger.info("Baferisan upis komentara uključen (grupe do {} komentara / {} ms)", batchSize, maxDelayMs);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (worker == null) return;
+        running = false;
+        try {
+            // Nit prazni red pre izlaska, pa komentari primljeni pre gašenja ne nestaju
+            worker.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setCommittedListener(Consumer<CommentDTO> listener) {
+        this.committedListener = listener;
+    }
+
+    /**
+     * Stavlja već validiran komentar najvišeg nivoa u red. Baca IllegalStateException ako je red pun.
+     */
+    public CompletableFuture<CommentDTO> submit(Long videoId, Long userId, String text) {
+        if (!running) throw new IllegalStateException("Baferisan upis komentara nije aktivan");
+        PendingComment pending = new PendingComment(videoId, userId, text, LocalDateTime.now());
+        if (!queue.offer(pending)) {
+            throw new IllegalStateException("Server je trenutno preopterećen, pokušajte ponovo");
+        }
+        return pending.ack;
+    }
+
+    private void run() {
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingComment first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                List<PendingComment> batch = new ArrayList<>(batchSize);
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxDelayMs);
+                while (batch.size() < batchSize) {
+                    long wait = deadline - System.nanoTime();
+                    if (wait <= 0) break;
+                    PendingComment next = queue.poll(wait, TimeUnit.NANOSECONDS);
+                    if (next == null) break;
+                    batch.add(next);
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+    }
+
+    private void flush(List<PendingComment> batch) {
+        List<CommentDTO> committed;
+        try {
+            committed = transactionTemplate.execute(status -> write(batch));
+        } catch (RuntimeException e) {
+            logger.error("Neuspešan upis grupe od {} komentara:", batch.size(), e);
+            for (PendingComment pending : batch) {
+                if (!pending.ack.isDone()) pending.ack.completeExceptionally(e);
+            }
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            CommentDTO dto = committed.get(i);
+            if (dto == null) continue;
+            try {
+                committedListener.accept(dto);
+            } catch (RuntimeException e) {
+                logger.warn("Greška u post-commit obradi komentara {}: {}", dto.getId(), e.getMessage());
+            }
+            batch.get(i).ack.complete(dto);
+        }
+    }
+
+    // Izvršava se u transakciji; vraća DTO po komentaru iz grupe (null za odbijene)
+    private List<CommentDTO> write(List<PendingComment> batch) {
+        Set<Long> videoIds = new HashSet<>();
+        Set<Long> userIds = new HashSet<>();
+        for (PendingComment pending : batch) {
+            videoIds.add(pending.videoId);
+            userIds.add(pending.userId);
+        }
+        Set<Long> existing = new HashSet<>(videoPostRepository.findExistingIds(videoIds));
+
+        List<PendingComment> accepted = new ArrayList<>(batch.size());
+        for (PendingComment pending : batch) {
+            if (existing.contains(pending.videoId)) {
+                accepted.add(pending);
+            } else {
+                pending.ack.completeExceptionally(new RuntimeException("Video objava nije pronađena!"));
+            }
+        }
+        List<CommentDTO> result = new ArrayList<>(batch.size());
+        if (accepted.isEmpty()) {
+            batch.forEach(p -> result.add(null));
+            return result;
+        }
+
+        List<Long> ids = allocateIds(accepted.size());
+        List<Object[]> rows = new ArrayList<>(accepted.size());
+        Map<Long, Integer> countsByVideo = new LinkedHashMap<>();
+        for (int i = 0; i < accepted.size(); i++) {
+            PendingComment pending = accepted.get(i);
+            pending.id = ids.get(i);
+            rows.add(new Object[]{pending.id, pending.text, pending.userId, pending.videoId,
+                    Timestamp.valueOf(pending.createdAt), CommentPaths.segment(pending.id)});
+            countsByVideo.merge(pending.videoId, 1, Integer::sum);
+        }
+        jdbcTemplate.batchUpdate(INSERT_COMMENT, rows);
+
+        List<Object[]> counterRows = new ArrayList<>(countsByVideo.size());
+        countsByVideo.forEach((videoId, count) -> counterRows.add(new Object[]{videoId, videoCounterService.nextSlot(), count}));
+        jdbcTemplate.batchUpdate(ADD_COMMENT_COUNT, counterRows);
+
+        Map<Long, String> usernames = new HashMap<>();
+        for (User user : userRepository.findAllById(userIds)) {
+            usernames.put(user.getId(), user.getUsername());
+        }
+        for (PendingComment pending : batch) {
+            if (pending.id == null) {
+                result.add(null);
+                continue;
+            }
+            CommentDTO dto = new CommentDTO();
+            dto.setId(pending.id);
+            dto.setText(pending.text);
+            dto.setUserId(pending.userId);
+            dto.setUsername(usernames.get(pending.userId));
+            dto.setVideoPostId(pending.videoId);
+            dto.setCreatedAt(pending.createdAt);
+            result.add(dto);
+        }
+        logger.debug("Upisano {} komentara za {} videa", accepted.size(), countsByVideo.size());
+        return result;
+    }
+
+    // Rezerviše id-jeve u blokovima kao Hibernate pooled-lo optimizator, pa se ne preklapaju sa id-jevima iz JPA upisa
+    private List<Long> allocateIds(int count) {
+        int blocks = (count + ID_BLOCK_SIZE - 1) / ID_BLOCK_SIZE;
+        List<Long> ids = new ArrayList<>(blocks * ID_BLOCK_SIZE);
+        for (Long lo : jdbcTemplate.queryForList(NEXT_ID_BLOCKS, Long.class, blocks)) {
+            for (long id = lo; id < lo + ID_BLOCK_SIZE; id++) {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+
+    private static final class PendingComment {
+        final Long videoId;
+        final Long userId;
+        final String text;
+        final LocalDateTime createdAt;
+        final CompletableFuture<CommentDTO> ack = new CompletableFuture<>();
+        Long id;
+
+        PendingComment(Long videoId, Long userId, String text, LocalDateTime createdAt) {
+            this.videoId = videoId;
+            this.userId = userId;
+            this.text = text;
+            this.createdAt = createdAt;
+        }
+    }
+}
@@ -1,44 +1,173 @@
 package com.isa.backend.service;
 
+import com.isa.backend.datasource.ReadReplicaRoutingDataSource;
+import com.isa.backend.datasource.ReadYourWritesTracker;
 import com.isa.backend.dto.CommentDTO;
+import com.isa.backend.dto.CommentPageDTO;
 import com.isa.backend.exception.RateLimitExceededException;
 import com.isa.backend.model.Comment;
 import com.isa.backend.model.User;
-import com.isa.backend.model.VideoPost;
 import com.isa.backend.repository.CommentRepository;
 import com.isa.backend.repository.VideoPostRepository;
+import com.isa.backend.util.CommentCursor;
+import com.isa.backend.util.CommentPaths;
+import com.isa.backend.util.TransactionHooks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
 @Service
 public class CommentService {
 
+    private static final Logger logger = LoggerFactory.getLogger(CommentService.class);
+
     @Autowired
     private CommentRepository commentRepository;
 
     @Autowired
     private VideoPostRepository videoPostRepository;
 
+    @Autowired
+    private VideoCounterService videoCounterService;
+
     @Autowired
     private UserService userService;
 
     @Autowired
     private CommentRateLimitService commentRateLimitService;
 
+    @Autowired
+    private FeedSnapshotService feedSnapshotService;
+
+    @Autowired
+    private TagIndexService tagIndexService;
+
+    @Autowired
+    private TrendingService trendingService;
+
+    @Autowired
+    private CommentStreamService commentStreamService;
+
+    @Autowired
+    private LiveCounterService liveCounterService;
+
+    @Autowired
+    private CommentIngestionService commentIngestionService;
+
+    @Autowired
+    private CommentSpamFilterService commentSpamFilterService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ReadYourWritesTracker readYourWritesTracker;
+
+    @Value("${app.comments.ingest.ack-timeout-ms:5000}")
+    private long ingestAckTimeoutMs;
+
     private static final int MAX_COMMENT_LENGTH = 2000;
+    // Najveća dubina niti (koren je na dubini 0); putanja tada ima najviše 20 segmenata
+    private static final int MAX_DEPTH = 19;
+    // Najviše komentara koji se vraćaju u jednom učitavanju niti
+    private static final int MAX_THREAD_SIZE = 500;
+
+    @PostConstruct
+    public void registerIngestionListener() {
+        commentIngestionService.setCommittedListener(this::afterCommentCommitted);
+    }
 
+    @EventListener(ApplicationReadyEvent.class)
     @Transactional
+    public void backfillThreadPaths() {
+        int updated = commentRepository.backfillRootPaths();
+        if (updated > 0) {
+            logger.info("Dodeljene putanje za {} postojećih komentara", updated);
+        }
+    }
+
     @CacheEvict(value = "videoComments", allEntries = true)
     public CommentDTO addComment(Long videoId, Long userId, String text) {
+        return addComment(videoId, userId, text, null);
+    }
+
+    /**
+     * Dodaje komentar ili odgovor (parentId != null) na komentar istog videa.
+     * Kada je uključen baferisan upis, komentari najvišeg nivoa idu kroz CommentIngestionService
+     * (grupni upis), a metoda se vraća tek posle commit-a grupe. Transakcija se otvara samo za direktan
+     * upis, da pozivalac koji čeka potvrdu grupe ne drži konekciju iz pool-a.
+     */
+    @CacheEvict(value = "videoComments", allEntries = true)
+    public CommentDTO addComment(Long videoId, Long userId, String text, Long parentId) {
+        String trimmed = validate(userId, text);
+        if (parentId == null && commentIngestionService.isEnabled()) {
+            return awaitIngested(commentIngestionService.submit(videoId, userId, trimmed));
+        }
+        return transactionTemplate.execute(status -> insertComment(videoId, userId, trimmed, parentId));
+    }
+
+    private CommentDTO insertComment(Long videoId, Long userId, String trimmed, Long parentId) {
+        if (!videoPostRepository.existsById(videoId)) {
+            throw new RuntimeException("Video objava nije pronađena!");
+        }
+
+        Comment parent = null;
+        if (parentId != null) {
+            parent = commentRepository.findById(parentId)
+                    .orElseThrow(() -> new IllegalArgumentException("Komentar na koji odgovarate ne postoji"));
+            if (!parent.getVideoPostId().equals(videoId)) {
+                throw new IllegalArgumentException("Komentar na koji odgovarate ne pripada ovom videu");
+            }
+            if (parent.getDepth() >= MAX_DEPTH) {
+                throw new IllegalArgumentException("Dostignuta je maksimalna dubina odgovora");
+            }
+        }
+
+        Comment c = new Comment();
+        c.setText(trimmed);
+        c.setUserId(userId);
+        c.setVideoPostId(videoId);
+        c.setParentId(parentId);
+        c.setDepth(parent != null ? parent.getDepth() + 1 : 0);
+
+        Comment saved = commentRepository.save(c);
+        // Id dodeljuje sekvenca pri persist-u; putanja zavisi od id-ja, pa se upisuje pri flush-u u istoj transakciji
+        String parentPath = parent == null ? null
+                : parent.getPath() != null ? parent.getPath() : CommentPaths.segment(parent.getId());
+        saved.setPath(CommentPaths.child(parentPath, saved.getId()));
+        if (parent != null) {
+            commentRepository.incrementReplyCounts(CommentPaths.ancestorIds(saved.getPath()));
+        }
+
+        // increment comment count on video
+        videoCounterService.addComments(videoId, 1);
+        CommentDTO dto = toDTO(saved);
+        TransactionHooks.afterCommit(() -> afterCommentCommitted(dto));
+
+        return dto;
+    }
+
+    private String validate(Long userId, String text) {
         if (text == null || text.trim().isEmpty()) {
             throw new IllegalArgumentException("Komentar ne može biti prazan");
         }
@@ -53,39 +182,148 @@ public class CommentService {
             throw new RateLimitExceededException("Prekoračen broj komentara (maks. 60 po satu)");
         }
 
-        VideoPost vp = videoPostRepository.findById(videoId)
-                .orElseThrow(() -> new RuntimeException("Video objava nije pronađena!"));
-
-        Comment c = new Comment();
-        c.setText(trimmed);
-        c.setUserId(userId);
-        c.setVideoPostId(videoId);
-
-        Comment saved = commentRepository.save(c);
+        // Isti spam tekst sa više naloga (posle rate limit-a, da se i odbijeni pokušaji računaju)
+        commentSpamFilterService.check(userId, trimmed);
+        return trimmed;
+    }
 
-        // increment comment count on video
-        vp.setCommentCount(vp.getCommentCount() + 1);
-        videoPostRepository.save(vp);
+    // Čeka trajnu potvrdu grupnog upisa; po isteku roka ishod nije poznat (komentar može kasnije biti upisan)
+    private CommentDTO awaitIngested(CompletableFuture<CommentDTO> ack) {
+        try {
+            CommentDTO dto = ack.get(ingestAckTimeoutMs, TimeUnit.MILLISECONDS);
+            // Upis je commit-ovala nit za baferisan upis — autor ipak treba da čita svoj komentar sa primarne baze
+            readYourWritesTracker.recordWrite(ReadYourWritesTracker.currentUserKey());
+            return dto;
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Upis komentara nije potvrđen na vreme, proverite da li je objavljen");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Upis komentara je prekinut");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw new RuntimeException("Greška pri upisu komentara", e.getCause());
+        }
+    }
 
-        return toDTO(saved);
+    // Post-commit ažuriranje in-memory struktura i live kanala za novi komentar
+    private void afterCommentCommitted(CommentDTO dto) {
+        Long videoId = dto.getVideoPostId();
+        feedSnapshotService.markCountersDirty();
+        tagIndexService.recordComment(videoId);
+        trendingService.recordComment(videoId);
+        commentStreamService.publish(dto);
+        liveCounterService.recordComment(videoId);
     }
 
     /**
      * Returns paginated comments for a video, newest first.
      * Results are cached per videoId for faster repeated reads.
      */
-    @Cacheable(value = "videoComments", key = "#videoId + '_' + #page + '_' + #size")
+    @Cacheable(value = "videoComments", key = "#videoId + '_' + #page + '_' + #size", sync = true)
+    @Transactional(readOnly = true)
     public List<CommentDTO> getCommentsForVideo(Long videoId, int page, int size) {
+        // Keš se briše pri svakom novom komentaru i nema TTL: replika koja kasni bi ponovo upisala listu bez njega
+        ReadReplicaRoutingDataSource.readFromPrimary();
         Pageable pageable = PageRequest.of(page, size);
-        Page<Comment> commentsPage = commentRepository.findByVideoPostIdOrderByCreatedAtDesc(videoId, pageable);
+        Slice<Comment> commentsPage = commentRepository.findByVideoPostIdAndParentIdIsNullOrderByCreatedAtDescIdDesc(videoId, pageable);
         return commentsPage.stream()
                 .map(this::toDTO)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Keyset paginacija: stranica komentara najvišeg nivoa starijih od kursora (ili najnovijih ako kursor
+     * nije zadat). Traži size + 1 redova umesto count upita. Sastav stranice za dati kursor se ne menja kada
+     * stignu novi komentari, pa se kešira bez brisanja pri addComment (replyCount može kasniti do isteka TTL-a);
+     * prva stranica se ne kešira ovde.
+     */
+    @Cacheable(value = "commentCursorPages", key = "#videoId + '_' + #cursor + '_' + #size", condition = "#cursor != null", sync = true)
+    @Transactional(readOnly = true)
+    public CommentPageDTO getCommentsPage(Long videoId, String cursor, int size) {
+        if (size <= 0) throw new IllegalArgumentException("Veličina stranice mora biti pozitivna");
+        List<Comment> rows;
+        if (cursor == null) {
+            rows = commentRepository.findNewestByVideoPostId(videoId, size + 1);
+        } else {
+            CommentCursor position = CommentCursor.decode(cursor);
+            rows = commentRepository.findOlderByVideoPostId(videoId, position.getCreatedAt(), position.getId(), size + 1);
+        }
+        boolean hasNext = rows.size() > size;
+        if (hasNext) rows = rows.subList(0, size);
+        String nextCursor = null;
+        if (hasNext) {
+            Comment last = rows.get(rows.size() - 1);
+            nextCursor = new CommentCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        List<CommentDTO> comments = rows.stream().map(this::toDTO).collect(Collectors.toList());
+        return new CommentPageDTO(comments, nextCursor, hasNext);
+    }
+
+    /**
+     * Nit ispod komentara do maxLevels nivoa ispod njega (uključujući sam komentar), jednim upitom
+     * po opsegu putanja. Lista je u DFS poretku; klijent gradi stablo po parentId/depth.
+     */
+    @Transactional(readOnly = true)
+    public List<CommentDTO> getThread(Long videoId, Long commentId, int maxLevels) {
+        if (maxLevels < 0) throw new IllegalArgumentException("Broj nivoa ne može biti negativan");
+        Comment root = findInVideo(videoId, commentId);
+        String path = root.getPath() != null ? root.getPath() : CommentPaths.segment(root.getId());
+        int maxDepth = (int) Math.min((long) root.getDepth() + maxLevels, Integer.MAX_VALUE);
+        return commentRepository.findSubtree(path, CommentPaths.subtreeUpperBound(path), maxDepth, MAX_THREAD_SIZE)
+                .stream()
+                .map(this::toDTO)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Stranica direktnih odgovora na komentar (najstariji prvi); afterId je id poslednjeg odgovora
+     * sa prethodne stranice, ili null za prvu stranicu.
+     */
+    @Transactional(readOnly = true)
+    public List<CommentDTO> getReplies(Long videoId, Long commentId, Long afterId, int size) {
+        if (size <= 0) throw new IllegalArgumentException("Veličina stranice mora biti pozitivna");
+        findInVideo(videoId, commentId);
+        return commentRepository.findByParentIdAndIdGreaterThanOrderByIdAsc(commentId, afterId != null ? afterId : 0L,
+                        PageRequest.of(0, size))
+                .stream()
+                .map(this::toDTO)
+                .collect(Collectors.toList());
+    }
+
+    private Comment findInVideo(Long videoId, Long commentId) {
+        Comment comment = commentRepository.findById(commentId)
+                .orElseThrow(() -> new RuntimeException("Komentar nije pronađen"));
+        if (!comment.getVideoPostId().equals(videoId)) {
+            throw new RuntimeException("Komentar nije pronađen");
+        }
+        return comment;
+    }
+
     // Backwards-compatible method used by controllers that don't pass pagination
+    @Transactional(readOnly = true)
     public List<CommentDTO> getCommentsForVideo(Long videoId) {
-        return commentRepository.findByVideoPostIdOrderByCreatedAtDesc(videoId)
+        return commentRepository.findByVideoPostIdAndParentIdIsNullOrderByCreatedAtDesc(videoId)
+                .stream()
+                .map(this::toDTO)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Komentari posle poslednjeg primljenog SSE događaja (najstariji prvi, najviše limit) — za nastavak strima.
+     * lastEventId je kursor (createdAt, id) iz id-ja događaja; goli id komentara (stariji klijenti) se
+     * prevodi u kursor čitanjem tog komentara. Baca IllegalArgumentException za neispravan id događaja.
+     */
+    @Transactional(readOnly = true)
+    public List<CommentDTO> getCommentsAfter(Long videoId, String lastEventId, int limit) {
+        CommentCursor position;
+        if (lastEventId.chars().allMatch(Character::isDigit)) {
+            Comment last = commentRepository.findById(Long.parseLong(lastEventId)).orElse(null);
+            if (last == null) return new ArrayList<>();
+            position = new CommentCursor(last.getCreatedAt(), last.getId());
+        } else {
+            position = CommentCursor.decode(lastEventId);
+        }
+        return commentRepository.findNewerByVideoPostId(videoId, position.getCreatedAt(), position.getId(), limit)
                 .stream()
                 .map(this::toDTO)
                 .collect(Collectors.toList());
@@ -104,6 +342,9 @@ public class CommentService {
         }
         dto.setVideoPostId(c.getVideoPostId());
         dto.setCreatedAt(c.getCreatedAt());
+        dto.setParentId(c.getParentId());
+        dto.setDepth(c.getDepth() != null ? c.getDepth() : 0);
+        dto.setReplyCount(c.getReplyCount() != null ? c.getReplyCount() : 0);
         return dto;
     }
 }
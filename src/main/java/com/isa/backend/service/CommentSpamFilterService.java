@@ -0,0 +1,83 @@
+package com.isa.backend.service;
+
+import com.isa.backend.exception.SpamCommentException;
+import com.isa.backend.util.NearDuplicateIndex;
+import com.isa.backend.util.SimHash;
+import com.isa.backend.util.TextAnalyzer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Filter skoro istih komentara (isti spam tekst sa više naloga) pre upisa.
+ *
+ * Za normalizovan tekst se računa SimHash otisak i traže se slični otisci iz poslednjih window-minutes
+ * minuta u LSH indeksu (NearDuplicateIndex). Komentar sa max-duplicates ili više sličnih prethodnika
+ * se odbija (action=reject) ili samo evidentira (action=log). Kratki komentari ("bravo", "prvi")
+ * se ne proveravaju jer se prirodno ponavljaju.
+ */
+@Service
+public class CommentSpamFilterService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CommentSpamFilterService.class);
+
+    @Value("${app.comments.spam.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.comments.spam.action:reject}")
+    private String action;
+
+    @Value("${app.comments.spam.window-minutes:10}")
+    private int windowMinutes;
+
+    @Value("${app.comments.spam.max-distance:3}")
+    private int maxDistance;
+
+    @Value("${app.comments.spam.max-duplicates:3}")
+    private int maxDuplicates;
+
+    @Value("${app.comments.spam.min-tokens:4}")
+    private int minTokens;
+
+    @Value("${app.comments.spam.max-entries-per-slot:20000}")
+    private int maxEntriesPerSlot;
+
+    private NearDuplicateIndex index;
+    private final LongAdder flagged = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        // Prozor od 5 slotova: istekli deo se briše u koracima od window / 5
+        index = new NearDuplicateIndex(TimeUnit.MINUTES.toMillis(windowMinutes), 5, maxDistance,
+                maxEntriesPerSlot, Math.max(16, maxDuplicates * 4));
+    }
+
+    /**
+     * Baca SpamCommentException ako je tekst skoro isti kao dovoljno nedavnih komentara.
+     */
+    public void check(Long userId, String text) {
+        if (!enabled) return;
+        List<String> tokens = TextAnalyzer.tokenize(text);
+        if (tokens.size() < minTokens) return;
+        long fingerprint = SimHash.fingerprint(tokens);
+        int duplicates = index.countAndAdd(fingerprint, System.currentTimeMillis(), maxDuplicates);
+        if (duplicates < maxDuplicates) return;
+
+        flagged.increment();
+        if ("reject".equalsIgnoreCase(action)) {
+            throw new SpamCommentException("Komentar je odbijen: isti ili vrlo sličan tekst je nedavno objavljen više puta");
+        }
+        logger.warn("Komentar korisnika {} označen kao mogući spam ({} sličnih u poslednjih {} min)",
+                userId, duplicates, windowMinutes);
+    }
+
+    public long getFlaggedCount() {
+        return flagged.sum();
+    }
+}
@@ -0,0 +1,221 @@
+package com.isa.backend.service;
+
+import com.isa.backend.dto.CommentDTO;
+import com.isa.backend.util.CommentCursor;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Live komentari preko Server-Sent Events, registar pretplatnika po videu.
+ *
+ * Svaki klijent ima ograničen red događaja. Objava komentara (nakon commit-a) samo stavlja DTO u redove
+ * i nikada ne čeka na mrežu; slanje radi virtuelna nit po klijentu, i to samo dok klijent ima šta da primi.
+ * Klijent čiji je red pun (spor ili mrtav) se odbacuje — EventSource se ponovo povezuje i preko
+ * Last-Event-ID (kursor createdAt, id poslednjeg događaja) dobija propuštene komentare iz baze.
+ * Neaktivne konekcije ne drže nit (async servlet), pa je cena po klijentu samo red i emitter.
+ */
+@Service
+public class CommentStreamService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CommentStreamService.class);
+
+    // Oznaka za heartbeat u redu klijenta (šalje se kao SSE komentar)
+    private static final Object HEARTBEAT = new Object();
+
+    @Value("${app.comments.stream.buffer-size:64}")
+    private int bufferSize;
+
+    @Value("${app.comments.stream.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${app.comments.stream.max-subscribers:50000}")
+    private int maxSubscribers;
+
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final ExecutorService sender = Executors.newVirtualThreadPerTaskExecutor();
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+        subscribers.values().forEach(set -> set.forEach(s -> s.emitter.complete()));
+    }
+
+    /**
+     * Registruje klijenta za video i odmah mu šalje propuštene komentare (najstariji prvi).
+     * Baca IllegalStateException ako je dostignut maksimalan broj konekcija.
+     */
+    public SseEmitter subscribe(Long videoId, List<CommentDTO> backlog) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new IllegalStateException("Previše otvorenih konekcija, pokušajte kasnije");
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(videoId, emitter, bufferSize);
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(e -> unsubscribe(subscriber));
+        // Registracija pre slanja backlog-a: komentar objavljen u međuvremenu čeka u redu, a duplikati se preskaču po id-ju.
+        // Dodavanje je unutar compute: unsubscribe (computeIfPresent) ne može da ukloni skup između pronalaženja i dodavanja
+        subscribers.compute(videoId, (id, set) -> {
+            if (set == null) set = ConcurrentHashMap.newKeySet();
+            set.add(subscriber);
+            return set;
+        });
+
+        try {
+            // Pre povratka iz kontrolera emitter samo baferuje događaje, pa ovo ne čeka na mrežu
+            for (CommentDTO dto : backlog) {
+                subscriber.sendBacklog(dto);
+            }
+        } catch (IOException e) {
+            unsubscribe(subscriber);
+            emitter.completeWithError(e);
+            return emitter;
+        }
+        subscriber.ready = true;
+        schedule(subscriber);
+        return emitter;
+    }
+
+    /**
+     * Šalje novi komentar svim pretplatnicima videa (poziva se nakon commit-a). Ne blokira.
+     */
+    public void publish(CommentDTO comment) {
+        Set<Subscriber> set = subscribers.get(comment.getVideoPostId());
+        if (set == null) return;
+        for (Subscriber subscriber : set) {
+            enqueue(subscriber, comment);
+        }
+    }
+
+    /**
+     * Periodični heartbeat: održava proxy konekcije živim i otkriva klijente koji su se odvezali.
+     */
+    @Scheduled(fixedDelayString = "${app.comments.stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        for (Set<Subscriber> set : subscribers.values()) {
+            for (Subscriber subscriber : set) {
+                enqueue(subscriber, HEARTBEAT);
+            }
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    private void enqueue(Subscriber subscriber, Object event) {
+        if (!subscriber.queue.offer(event)) {
+            logger.debug("Spor klijent za video {} odbačen (pun red)", subscriber.videoId);
+            unsubscribe(subscriber);
+            subscriber.emitter.complete();
+            return;
+        }
+        schedule(subscriber);
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (!subscriber.ready || subscriber.queue.isEmpty()) return;
+        if (subscriber.draining.compareAndSet(false, true)) {
+            try {
+                sender.execute(() -> drain(subscriber));
+            } catch (RuntimeException e) {
+                // Executor je ugašen (gašenje aplikacije)
+                subscriber.draining.set(false);
+            }
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            Object event;
+            while ((event = subscriber.queue.poll()) != null) {
+                if (event == HEARTBEAT) {
+                    subscriber.emitter.send(SseEmitter.event().comment("ping"));
+                } else {
+                    subscriber.send((CommentDTO) event);
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Klijent se odvezao ili je emitter već završen
+            unsubscribe(subscriber);
+            subscriber.emitter.completeWithError(e);
+            return;
+        } finally {
+            subscriber.draining.set(false);
+        }
+        // Događaj stigao između poslednjeg poll-a i oslobađanja zastavice
+        schedule(subscriber);
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        if (!subscriber.removed.compareAndSet(false, true)) return;
+        subscriberCount.decrementAndGet();
+        subscribers.computeIfPresent(subscriber.videoId, (id, set) -> {
+            set.remove(subscriber);
+            return set.isEmpty() ? null : set;
+        });
+        subscriber.queue.clear();
+    }
+
+    // Id događaja je kursor (createdAt, id): klijent ga vraća kao Last-Event-ID, a nastavak ide po istom ključu
+    private static String eventId(CommentDTO comment) {
+        if (comment.getCreatedAt() == null) return String.valueOf(comment.getId());
+        return new CommentCursor(comment.getCreatedAt(), comment.getId()).encode();
+    }
+
+    private static final class Subscriber {
+        final Long videoId;
+        final SseEmitter emitter;
+        final BlockingQueue<Object> queue;
+        final AtomicBoolean draining = new AtomicBoolean();
+        final AtomicBoolean removed = new AtomicBoolean();
+        volatile boolean ready;
+        // Id-jevi poslati iz backlog-a — live događaj se može preklopiti sa njima. Ne poredi se po najvećem id-ju:
+        // id-jevi se dodeljuju u blokovima iz sekvence, pa kasnije upisan komentar može imati manji id
+        final Set<Long> backlogIds = new HashSet<>();
+
+        Subscriber(Long videoId, SseEmitter emitter, int bufferSize) {
+            this.videoId = videoId;
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+        // Poziva samo jedna nit u jednom trenutku (subscribe, pa drain pod zastavicom draining)
+        void sendBacklog(CommentDTO comment) throws IOException {
+            if (comment.getId() != null) backlogIds.add(comment.getId());
+            emit(comment);
+        }
+
+        void send(CommentDTO comment) throws IOException {
+            if (!backlogIds.isEmpty() && backlogIds.remove(comment.getId())) return;
+            emit(comment);
+        }
+
+        private void emit(CommentDTO comment) throws IOException {
+            emitter.send(SseEmitter.event()
+                    .id(eventId(comment))
+                    .name("comment")
+                    .data(comment));
+        }
+    }
+}
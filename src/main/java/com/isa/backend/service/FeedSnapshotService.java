@@ -0,0 +1,280 @@
+package com.isa.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.isa.backend.dto.VideoPostDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Drži unapred serijalizovane JSON stranice feed-a (prvih N stranica) zajedno sa gzip varijantama,
+ * tako da GET /api/videos ne mora svaki put da konvertuje entitete i pokreće Jackson.
+ *
+ * Snapshot se gradi iz baze samo kada ne postoji ili kada su se brojači promenili (najviše jednom
+ * u max-staleness intervalu). Novi upload se dodaje inkrementalno: serijalizuje se samo nova objava,
+ * a stranice se ponovo sklapaju iz već serijalizovanih elemenata.
+ */
+@Service
+public class FeedSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FeedSnapshotService.class);
+
+    private static final int ANONYMOUS = 0;
+    private static final int AUTHENTICATED = 1;
+
+    @Value("${app.feed.snapshot.pages:5}")
+    private int snapshotPages;
+
+    @Value("${app.feed.snapshot.page-size:20}")
+    private int pageSize;
+
+    @Value("${app.feed.snapshot.max-staleness-ms:5000}")
+    private long maxStalenessMs;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    private volatile Snapshot snapshot;
+
+    // Postavlja se kada se promeni view/like/comment brojač nekog videa
+    private volatile boolean countersDirty = false;
+
+    public int getCapacity() {
+        return snapshotPages * pageSize;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public void markCountersDirty() {
+        countersDirty = true;
+    }
+
+    public void invalidate() {
+        snapshot = null;
+    }
+
+    public boolean needsRebuild() {
+        Snapshot s = snapshot;
+        if (s == null) return true;
+        return countersDirty && System.currentTimeMillis() - s.builtAt >= maxStalenessMs;
+    }
+
+    /**
+     * Ponovo gradi snapshot iz prvih getCapacity() + 1 objava koje vrati loader (anonimna varijanta DTO-a).
+     * Ako snapshot već postoji a drugi thread ga upravo gradi, ovaj poziv odmah vraća i nastavlja se sa starim.
+     */
+    public void rebuild(Supplier<List<VideoPostDTO>> loader) {
+        if (snapshot == null) {
+            rebuildLock.lock();
+        } else if (!rebuildLock.tryLock()) {
+            return;
+        }
+        try {
+            if (!needsRebuild()) return;
+            // Resetujemo pre učitavanja, tako da promene tokom učitavanja ponovo označe snapshot
+            countersDirty = false;
+            List<VideoPostDTO> head = loader.get();
+            boolean complete = head.size() <= getCapacity();
+            List<VideoPostDTO> kept = complete ? head : head.subList(0, getCapacity());
+
+            List<Long> ids = new ArrayList<>(kept.size());
+            List<List<byte[]>> elements = List.of(new ArrayList<>(), new ArrayList<>());
+            for (VideoPostDTO dto : kept) {
+                byte[][] encoded = encodeElement(dto);
+                ids.add(dto.getId());
+                elements.get(ANONYMOUS).add(encoded[ANONYMOUS]);
+                elements.get(AUTHENTICATED).add(encoded[AUTHENTICATED]);
+            }
+            snapshot = assemble(ids, elements, complete);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * Inkrementalno dodaje novu objavu na početak snapshot-a (poziva se nakon commit-a createVideoPost).
+     * Preskače objavu koju snapshot već sadrži (izgrađen iz baze između commit-a i ovog poziva).
+     */
+    public void onVideoPostCreated(VideoPostDTO dto) {
+        rebuildLock.lock();
+        try {
+            Snapshot current = snapshot;
+            if (current == null || current.ids.contains(dto.getId())) return;
+
+            byte[][] encoded = encodeElement(dto);
+            List<Long> ids = new ArrayList<>(current.ids.size() + 1);
+            ids.add(dto.getId());
+            ids.addAll(current.ids);
+            List<List<byte[]>> elements = List.of(new ArrayList<>(), new ArrayList<>());
+            for (int variant = ANONYMOUS; variant <= AUTHENTICATED; variant++) {
+                elements.get(variant).add(encoded[variant]);
+                elements.get(variant).addAll(current.elements.get(variant));
+            }
+
+            boolean complete = current.complete;
+            if (elements.get(ANONYMOUS).size() > getCapacity()) {
+                complete = false;
+                ids.subList(getCapacity(), ids.size()).clear();
+                for (List<byte[]> list : elements) {
+                    list.subList(getCapacity(), list.size()).clear();
+                }
+            }
+            snapshot = assemble(ids, elements, complete, current.builtAt);
+        } catch (RuntimeException e) {
+            // Snapshot je samo optimizacija — u slučaju greške ga odbacujemo i gradimo iz baze pri sledećem čitanju
+            logger.warn("Neuspešno inkrementalno ažuriranje feed snapshot-a: {}", e.getMessage());
+            snapshot = null;
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * Vraća unapred serijalizovanu stranicu feed-a ili null ako tražena stranica nije pokrivena snapshot-om.
+     * page == null znači ceo feed (dostupno samo ako snapshot sadrži sve objave).
+     */
+    public EncodedFeed lookup(Integer page, Integer size, boolean authenticated, boolean gzip) {
+        Snapshot s = snapshot;
+        if (s == null) return null;
+        int variant = authenticated ? AUTHENTICATED : ANONYMOUS;
+
+        if (page == null) {
+            if (!s.complete) return null;
+            return new EncodedFeed(gzip ? s.fullGzip[variant] : s.fullJson[variant], gzip);
+        }
+        int effectiveSize = size != null ? size : pageSize;
+        if (effectiveSize != pageSize || page < 0 || page >= snapshotPages) return null;
+        if (page >= s.pageJson[variant].length) {
+            // Stranica posle kraja feed-a je validna samo ako znamo da je feed kompletan
+            return s.complete ? new EncodedFeed(gzip ? s.emptyGzip : s.emptyJson, gzip) : null;
+        }
+        return new EncodedFeed(gzip ? s.pageGzip[variant][page] : s.pageJson[variant][page], gzip);
+    }
+
+    private byte[][] encodeElement(VideoPostDTO dto) {
+        try {
+            ObjectNode node = objectMapper.valueToTree(dto);
+            node.put("canLike", false);
+            node.put("canComment", false);
+            byte[] anonymous = objectMapper.writeValueAsBytes(node);
+            node.put("canLike", true);
+            node.put("canComment", true);
+            byte[] authenticated = objectMapper.writeValueAsBytes(node);
+            return new byte[][]{anonymous, authenticated};
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Snapshot assemble(List<Long> ids, List<List<byte[]>> elements, boolean complete) {
+        return assemble(ids, elements, complete, System.currentTimeMillis());
+    }
+
+    private Snapshot assemble(List<Long> ids, List<List<byte[]>> elements, boolean complete, long builtAt) {
+        Snapshot s = new Snapshot(ids, elements, complete, builtAt);
+        int count = elements.get(ANONYMOUS).size();
+        int pages = (count + pageSize - 1) / pageSize;
+        for (int variant = ANONYMOUS; variant <= AUTHENTICATED; variant++) {
+            List<byte[]> list = elements.get(variant);
+            s.pageJson[variant] = new byte[pages][];
+            s.pageGzip[variant] = new byte[pages][];
+            for (int p = 0; p < pages; p++) {
+                byte[] json = joinArray(list.subList(p * pageSize, Math.min(count, (p + 1) * pageSize)));
+                s.pageJson[variant][p] = json;
+                s.pageGzip[variant][p] = gzip(json);
+            }
+            if (complete) {
+                s.fullJson[variant] = joinArray(list);
+                s.fullGzip[variant] = gzip(s.fullJson[variant]);
+            }
+        }
+        s.emptyJson = joinArray(List.of());
+        s.emptyGzip = gzip(s.emptyJson);
+        return s;
+    }
+
+    private static byte[] joinArray(List<byte[]> elements) {
+        int length = 2 + Math.max(0, elements.size() - 1);
+        for (byte[] e : elements) length += e.length;
+        byte[] out = new byte[length];
+        int pos = 0;
+        out[pos++] = '[';
+        for (int i = 0; i < elements.size(); i++) {
+            if (i > 0) out[pos++] = ',';
+            byte[] e = elements.get(i);
+            System.arraycopy(e, 0, out, pos, e.length);
+            pos += e.length;
+        }
+        out[pos] = ']';
+        return out;
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+        try (GZIPOutputStream gz = new GZIPOutputStream(bos)) {
+            gz.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bos.toByteArray();
+    }
+
+    private static final class Snapshot {
+        // Id-jevi objava u redosledu elemenata (najviše getCapacity(), linearna provera je dovoljna)
+        final List<Long> ids;
+        final List<List<byte[]>> elements;
+        final boolean complete;
+        final long builtAt;
+        final byte[][][] pageJson = new byte[2][][];
+        final byte[][][] pageGzip = new byte[2][][];
+        final byte[][] fullJson = new byte[2][];
+        final byte[][] fullGzip = new byte[2][];
+        byte[] emptyJson;
+        byte[] emptyGzip;
+
+        Snapshot(List<Long> ids, List<List<byte[]>> elements, boolean complete, long builtAt) {
+            this.ids = ids;
+            this.elements = elements;
+            this.complete = complete;
+            this.builtAt = builtAt;
+        }
+    }
+
+    /**
+     * Serijalizovan odgovor spreman za upis u response, sa informacijom da li je gzip-ovan.
+     */
+    public static final class EncodedFeed {
+        private final byte[] bytes;
+        private final boolean gzip;
+
+        public EncodedFeed(byte[] bytes, boolean gzip) {
+            this.bytes = bytes;
+            this.gzip = gzip;
+        }
+
+        public byte[] getBytes() {
+            return bytes;
+        }
+
+        public boolean isGzip() {
+            return gzip;
+        }
+    }
+}
@@ -182,7 +182,7 @@ public class FileStorageService {
     }
 
     // New: cached thumbnail bytes
-    @Cacheable(value = "thumbnails", key = "#filename")
+    @Cacheable(value = "thumbnails", key = "#filename", sync = true)
     public byte[] getThumbnailBytes(String filename) throws IOException {
         Path path = Paths.get(thumbnailUploadDir).resolve(filename);
         return Files.readAllBytes(path);
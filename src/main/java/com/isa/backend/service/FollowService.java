@@ -0,0 +1,70 @@
+package com.isa.backend.service;
+
+import com.isa.backend.model.Follow;
+import com.isa.backend.repository.FollowRepository;
+import com.isa.backend.repository.UserRepository;
+import com.isa.backend.util.TransactionHooks;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Praćenje korisnika. Nakon commit-a izmene obaveštava TimelineService (keš timeline-ova i broja pratilaca).
+ */
+@Service
+public class FollowService {
+
+    @Autowired
+    private FollowRepository followRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TimelineService timelineService;
+
+    /**
+     * Vraća true ako je praćenje kreirano, false ako korisnik već prati datog korisnika.
+     */
+    @Transactional
+    public boolean follow(Long followerId, Long followeeId) {
+        if (followerId.equals(followeeId)) {
+            throw new IllegalArgumentException("Ne možete pratiti sami sebe");
+        }
+        if (!userRepository.existsById(followeeId)) {
+            throw new RuntimeException("Korisnik nije pronađen");
+        }
+        if (followRepository.existsByFollowerIdAndFolloweeId(followerId, followeeId)) {
+            return false;
+        }
+        followRepository.save(new Follow(followerId, followeeId));
+        TransactionHooks.afterCommit(() -> timelineService.onFollowChanged(followerId, followeeId, 1));
+        return true;
+    }
+
+    /**
+     * Vraća true ako je praćenje uklonjeno, false ako nije ni postojalo.
+     */
+    @Transactional
+    public boolean unfollow(Long followerId, Long followeeId) {
+        if (followRepository.deleteByFollowerIdAndFolloweeId(followerId, followeeId) == 0) {
+            return false;
+        }
+        TransactionHooks.afterCommit(() -> timelineService.onFollowChanged(followerId, followeeId, -1));
+        return true;
+    }
+
+    public Map<String, Object> getFollowStats(Long userId, Long viewerId) {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("userId", userId);
+        stats.put("followers", timelineService.getFollowerCount(userId));
+        stats.put("following", followRepository.countByFollowerId(userId));
+        if (viewerId != null) {
+            stats.put("followedByMe", followRepository.existsByFollowerIdAndFolloweeId(viewerId, userId));
+        }
+        return stats;
+    }
+}
@@ -0,0 +1,88 @@
+package com.isa.backend.service;
+
+import com.isa.backend.repository.VideoPostRepository;
+import com.isa.backend.util.GeoGridIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Prostorni indeks video objava sa koordinatama ("videi u blizini").
+ * Gradi se iz baze pri startu, a nove objave se dodaju nakon commit-a u VideoPostService.
+ */
+@Service
+public class GeoIndexService {
+
+    private static final Logger logger = LoggerFactory.getLogger(GeoIndexService.class);
+
+    private static final double MAX_RADIUS_KM = 2000;
+
+    @Autowired
+    private VideoPostRepository videoPostRepository;
+
+    private volatile GeoGridIndex index = new GeoGridIndex();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            logger.error("Neuspešna izgradnja geo indeksa pri startu:", e);
+        }
+    }
+
+    public void rebuild() {
+        GeoGridIndex fresh = new GeoGridIndex();
+        List<Object[]> rows = videoPostRepository.findAllCoordinates();
+        for (Object[] row : rows) {
+            try {
+                fresh.put((Long) row[0], (Double) row[1], (Double) row[2]);
+            } catch (IllegalArgumentException e) {
+                logger.warn("Preskočene neispravne koordinate za video {}: {}", row[0], e.getMessage());
+            }
+        }
+        index = fresh;
+        logger.info("Geo indeks izgrađen: {} objava sa koordinatama", fresh.size());
+    }
+
+    public void onVideoPostCreated(Long videoId, Double latitude, Double longitude) {
+        if (videoId != null && latitude != null && longitude != null) {
+            index.put(videoId, latitude, longitude);
+        }
+    }
+
+    public void onVideoPostDeleted(Long videoId) {
+        index.remove(videoId);
+    }
+
+    public GeoGridIndex.GeoResult nearby(double lat, double lon, double radiusKm, int page, int size) {
+        if (radiusKm > MAX_RADIUS_KM) {
+            throw new IllegalArgumentException("Poluprečnik ne može biti veći od " + (int) MAX_RADIUS_KM + " km");
+        }
+        return index.nearby(lat, lon, radiusKm, page, size);
+    }
+
+    public GeoGridIndex.GeoResult within(double minLat, double minLon, double maxLat, double maxLon, int page, int size) {
+        return index.within(minLat, minLon, maxLat, maxLon, page, size);
+    }
+
+    /**
+     * Proverava da su koordinate pri upload-u ili obe zadate ili obe izostavljene, i da su u opsegu.
+     */
+    public static void validateCoordinates(Double latitude, Double longitude) {
+        if ((latitude == null) != (longitude == null)) {
+            throw new IllegalArgumentException("Geografska širina i dužina moraju biti zadate zajedno");
+        }
+        if (latitude != null && (latitude.isNaN() || latitude < -90 || latitude > 90)) {
+            throw new IllegalArgumentException("Geografska širina mora biti između -90 i 90");
+        }
+        if (longitude != null && (longitude.isNaN() || longitude < -180 || longitude > 180)) {
+            throw new IllegalArgumentException("Geografska dužina mora biti između -180 i 180");
+        }
+    }
+}
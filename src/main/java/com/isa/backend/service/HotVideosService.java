@@ -0,0 +1,74 @@
+package com.isa.backend.service;
+
+import com.isa.backend.util.SlidingTopK;
+import com.isa.backend.util.SpaceSaving;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * "Šta se trenutno gleda": najgledaniji video snimci u poslednjem minutu, satu i danu.
+ *
+ * Svaki pregled iz stream putanje ulazi u tri klizna prozora (SlidingTopK, Space-Saving po slotu).
+ * Memorija je fiksna — određena brojem slotova i kapacitetom po slotu — bez obzira na broj videa.
+ */
+@Service
+public class HotVideosService {
+
+    public enum Window {
+        MINUTE(60_000L, 6),
+        HOUR(3_600_000L, 60),
+        DAY(86_400_000L, 24);
+
+        private final long millis;
+        private final int slots;
+
+        Window(long millis, int slots) {
+            this.millis = millis;
+            this.slots = slots;
+        }
+    }
+
+    private final Map<Window, SlidingTopK> windows = new LinkedHashMap<>();
+
+    public HotVideosService(@Value("${app.hot-videos.capacity-per-slot:512}") int capacityPerSlot) {
+        for (Window window : Window.values()) {
+            windows.put(window, new SlidingTopK(window.millis, window.slots, capacityPerSlot));
+        }
+    }
+
+    public void recordView(Long videoId) {
+        if (videoId == null) return;
+        long now = System.currentTimeMillis();
+        for (SlidingTopK window : windows.values()) {
+            window.offer(videoId, now);
+        }
+    }
+
+    /**
+     * Top-K za prozor: procena (gornja granica), donja granica i greška po videu.
+     */
+    public Map<String, Object> getTop(Window window, int k) {
+        SlidingTopK.WindowResult result = windows.get(window).top(k, System.currentTimeMillis());
+        List<Map<String, Object>> top = new ArrayList<>();
+        for (SpaceSaving.Counter c : result.getTop()) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("videoId", c.getKey());
+            entry.put("views", c.getCount());
+            entry.put("minViews", c.getLowerBound());
+            entry.put("error", c.getError());
+            top.add(entry);
+        }
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("window", window.name().toLowerCase());
+        response.put("totalViews", result.getTotal());
+        // Nijedan video van liste nije imao više od ovoliko pregleda u prozoru
+        response.put("maxUntrackedViews", result.getMaxUntrackedCount());
+        response.put("top", top);
+        return response;
+    }
+}
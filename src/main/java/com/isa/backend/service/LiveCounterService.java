@@ -0,0 +1,264 @@
+package com.isa.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Live brojači (pregledi, lajkovi, komentari) preko WebSocket-a (/ws/counters).
+ *
+ * Događaji se ne šalju pojedinačno: promene se sabiraju po videu, a na svaki tick (500 ms) svaki klijent
+ * dobija najviše jedan okvir sa priraštajima za videe na koje je pretplaćen, npr.
+ * {"t":42,"d":{"12":[3,1,0]}} — [pregledi, lajkovi, komentari] od prethodnog okvira.
+ *
+ * Backpressure: dok klijentu prethodni okvir nije poslat, novi priraštaji se spajaju sa neposlatim,
+ * pa se ništa ne gubi, a poruke se ne gomilaju. Klijent koji zaostaje duže od max-lag-ticks se zatvara.
+ */
+@Service
+public class LiveCounterService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LiveCounterService.class);
+
+    private static final int VIEWS = 0;
+    private static final int LIKES = 1;
+    private static final int COMMENTS = 2;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.live-counters.max-subscriptions:200}")
+    private int maxSubscriptions;
+
+    @Value("${app.live-counters.max-lag-ticks:20}")
+    private int maxLagTicks;
+
+    @Value("${app.live-counters.send-time-limit-ms:5000}")
+    private int sendTimeLimitMs;
+
+    @Value("${app.live-counters.buffer-size-limit:65536}")
+    private int bufferSizeLimit;
+
+    // Priraštaji od poslednjeg tick-a (samo za videe koji imaju pretplatnike)
+    private final Map<Long, long[]> pending = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Client>> byVideo = new ConcurrentHashMap<>();
+    private final Map<String, Client> clients = new ConcurrentHashMap<>();
+    // Klijenti sa neposlatim priraštajima koji nisu mogli da prime okvir u prethodnom tick-u
+    private final Set<Client> waiting = ConcurrentHashMap.newKeySet();
+    private final AtomicLong tick = new AtomicLong();
+    private final ExecutorService sender = Executors.newVirtualThreadPerTaskExecutor();
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+    }
+
+    public void recordView(Long videoId) {
+        record(videoId, VIEWS);
+    }
+
+    public void recordLike(Long videoId) {
+        record(videoId, LIKES);
+    }
+
+    public void recordComment(Long videoId) {
+        record(videoId, COMMENTS);
+    }
+
+    private void record(Long videoId, int counter) {
+        if (!byVideo.containsKey(videoId)) return;
+        pending.compute(videoId, (id, delta) -> {
+            if (delta == null) delta = new long[3];
+            delta[counter]++;
+            return delta;
+        });
+    }
+
+    public void register(WebSocketSession session) {
+        WebSocketSession concurrent = new ConcurrentWebSocketSessionDecorator(session, sendTimeLimitMs, bufferSizeLimit,
+                ConcurrentWebSocketSessionDecorator.OverflowStrategy.TERMINATE);
+        clients.put(session.getId(), new Client(concurrent));
+    }
+
+    public void unregister(WebSocketSession session) {
+        Client client = clients.remove(session.getId());
+        if (client == null) return;
+        synchronized (client) {
+            for (Long videoId : client.videos) {
+                removeFromVideo(videoId, client);
+            }
+            client.videos.clear();
+            client.unsent.clear();
+        }
+    }
+
+    /**
+     * Dodaje pretplate; baca IllegalArgumentException ako bi klijent prešao max-subscriptions.
+     */
+    public int subscribe(WebSocketSession session, Collection<Long> videoIds) {
+        Client client = clients.get(session.getId());
+        if (client == null) throw new IllegalStateException("Sesija nije registrovana");
+        synchronized (client) {
+            Set<Long> added = new HashSet<>(videoIds);
+            added.removeAll(client.videos);
+            if (client.videos.size() + added.size() > maxSubscriptions) {
+                throw new IllegalArgumentException("Najviše " + maxSubscriptions + " pretplata po konekciji");
+            }
+            for (Long videoId : added) {
+                client.videos.add(videoId);
+                // Dodavanje unutar compute: removeFromVideo drugog klijenta ne može da ukloni skup u međuvremenu
+                byVideo.compute(videoId, (id, set) -> {
+                    if (set == null) set = ConcurrentHashMap.newKeySet();
+                    set.add(client);
+                    return set;
+                });
+            }
+            return client.videos.size();
+        }
+    }
+
+    public int unsubscribe(WebSocketSession session, Collection<Long> videoIds) {
+        Client client = clients.get(session.getId());
+        if (client == null) return 0;
+        synchronized (client) {
+            for (Long videoId : videoIds) {
+                if (client.videos.remove(videoId)) {
+                    removeFromVideo(videoId, client);
+                    client.unsent.remove(videoId);
+                }
+            }
+            return client.videos.size();
+        }
+    }
+
+    public void sendError(WebSocketSession session, String message) {
+        Client client = clients.get(session.getId());
+        if (client == null) return;
+        try {
+            client.session.sendMessage(new TextMessage(objectMapper.writeValueAsString(Map.of("error", message))));
+        } catch (IOException | RuntimeException e) {
+            logger.debug("Neuspešno slanje greške klijentu {}: {}", session.getId(), e.getMessage());
+        }
+    }
+
+    public int getClientCount() {
+        return clients.size();
+    }
+
+    /**
+     * Raspodeljuje priraštaje od prethodnog tick-a klijentima i šalje po jedan okvir svakom klijentu sa promenama.
+     */
+    @Scheduled(fixedRateString = "${app.live-counters.tick-ms:500}")
+    public void tick() {
+        if (pending.isEmpty() && waiting.isEmpty()) return;
+        long t = tick.incrementAndGet();
+        Set<Client> touched = new HashSet<>();
+        for (Iterator<Client> w = waiting.iterator(); w.hasNext(); ) {
+            touched.add(w.next());
+            w.remove();
+        }
+        Iterator<Long> it = pending.keySet().iterator();
+        while (it.hasNext()) {
+            Long videoId = it.next();
+            // remove je atomičan sa compute u record(): priraštaj ide ili u ovaj ili u sledeći tick
+            long[] delta = pending.remove(videoId);
+            Set<Client> subscribed = byVideo.get(videoId);
+            if (delta == null || subscribed == null) continue;
+            for (Client client : subscribed) {
+                client.merge(videoId, delta);
+                touched.add(client);
+            }
+        }
+        for (Client client : touched) {
+            if (client.sending.compareAndSet(false, true)) {
+                client.lag = 0;
+                sender.execute(() -> flush(client, t));
+            } else if (++client.lag > maxLagTicks) {
+                logger.debug("Spor klijent {} zatvoren (zaostaje {} tick-ova)", client.session.getId(), client.lag);
+                close(client);
+            } else {
+                waiting.add(client);
+            }
+        }
+    }
+
+    private void flush(Client client, long t) {
+        try {
+            Map<Long, long[]> frame;
+            synchronized (client) {
+                if (client.unsent.isEmpty()) return;
+                frame = client.unsent;
+                client.unsent = new LinkedHashMap<>();
+            }
+            Map<String, Object> message = new HashMap<>(2);
+            message.put("t", t);
+            message.put("d", frame);
+            client.session.sendMessage(new TextMessage(objectMapper.writeValueAsString(message)));
+        } catch (IOException | RuntimeException e) {
+            // TERMINATE strategija zatvara sesiju kada se prekorači bafer ili vreme slanja
+            logger.debug("Neuspešno slanje okvira klijentu {}: {}", client.session.getId(), e.getMessage());
+            close(client);
+        } finally {
+            client.sending.set(false);
+        }
+    }
+
+    private void close(Client client) {
+        waiting.remove(client);
+        try {
+            client.session.close(CloseStatus.SESSION_NOT_RELIABLE);
+        } catch (IOException e) {
+            logger.debug("Greška pri zatvaranju sesije {}: {}", client.session.getId(), e.getMessage());
+        }
+        unregister(client.session);
+    }
+
+    private void removeFromVideo(Long videoId, Client client) {
+        byVideo.computeIfPresent(videoId, (id, set) -> {
+            set.remove(client);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    private static final class Client {
+        final WebSocketSession session;
+        final Set<Long> videos = new HashSet<>();
+        // Priraštaji koji još nisu poslati klijentu (spajaju se dok je prethodni okvir u slanju)
+        Map<Long, long[]> unsent = new LinkedHashMap<>();
+        final AtomicBoolean sending = new AtomicBoolean();
+        // Menja se samo iz tick niti
+        int lag;
+
+        Client(WebSocketSession session) {
+            this.session = session;
+        }
+
+        synchronized void merge(Long videoId, long[] delta) {
+            if (!videos.contains(videoId)) return;
+            long[] acc = unsent.computeIfAbsent(videoId, id -> new long[3]);
+            for (int i = 0; i < acc.length; i++) acc[i] += delta[i];
+        }
+    }
+}
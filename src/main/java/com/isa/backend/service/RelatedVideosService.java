@@ -0,0 +1,277 @@
+package com.isa.backend.service;
+
+import com.isa.backend.repository.VideoPostRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * "Sledeće za gledanje": unapred izračunatih top-N srodnih videa za svaki video.
+ *
+ * Model se periodično gradi u pozadini iz dva izvora:
+ *  - tagovi (video_tags): zajednički tag doprinosi idf(tag), pa retki tagovi više znače od čestih;
+ *    za svaki tag se razmatra najviše app.related.max-candidates-per-tag najnovijih videa,
+ *    da bi izgradnja ostala linearna i za vrlo česte tagove;
+ *  - zajednički pregledi (co-view): ako isti gledalac gleda A pa B, par (A, B) dobija poen.
+ *    Čuva se samo poslednjih nekoliko pregleda po gledaocu i ograničen broj parova po videu.
+ * Upit je jedno čitanje iz mape (O(1)). Novi video odmah dobija svoju listu iz tagova i ulazi u
+ * liste srodnih videa ako je jači od njihovog najslabijeg člana.
+ */
+@Service
+public class RelatedVideosService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RelatedVideosService.class);
+
+    private static final int RECENT_VIEWS_PER_VIEWER = 5;
+    private static final int MAX_COVIEW_PARTNERS = 64;
+    private static final double COVIEW_WEIGHT = 1.5;
+
+    @Autowired
+    private VideoPostRepository videoPostRepository;
+
+    @Value("${app.related.top-n:20}")
+    private int topN;
+
+    @Value("${app.related.max-candidates-per-tag:500}")
+    private int maxCandidatesPerTag;
+
+    @Value("${app.related.max-tracked-viewers:100000}")
+    private int maxTrackedViewers;
+
+    // Rezultat poslednje izgradnje; vrednosti su nepromenljive, zamenjuju se celom instancom
+    private volatile Map<Long, Related> related = new ConcurrentHashMap<>();
+
+    // Stanje potrebno za inkrementalno dodavanje (zaštićeno monitorom servisa)
+    private Map<String, List<Long>> videosByTag = new HashMap<>();
+    private Map<Long, List<String>> tagsByVideo = new HashMap<>();
+
+    // Co-view: poslednji pregledi po gledaocu i brojači parova
+    private final Map<String, ArrayDeque<Long>> recentByViewer = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<Long, Map<Long, Integer>> coViews = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            logger.error("Neuspešna izgradnja modela srodnih videa pri startu:", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.related.rebuild-ms:1800000}", initialDelayString = "${app.related.rebuild-ms:1800000}")
+    public void scheduledRebuild() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            logger.error("Neuspešna izgradnja modela srodnih videa:", e);
+        }
+    }
+
+    /**
+     * Gradi ceo model iz video_tags i prikupljenih zajedničkih pregleda.
+     */
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        Map<String, List<Long>> byTag = new HashMap<>();
+        Map<Long, List<String>> byVideo = new HashMap<>();
+        for (Object[] row : videoPostRepository.findAllIdTagPairs()) {
+            String tag = normalize((String) row[1]);
+            if (tag.isEmpty()) continue;
+            Long id = (Long) row[0];
+            byTag.computeIfAbsent(tag, t -> new ArrayList<>()).add(id);
+            byVideo.computeIfAbsent(id, v -> new ArrayList<>()).add(tag);
+        }
+        // Najnoviji (najveći id) prvi, da bi ograničenje kandidata po tagu zadržalo sveže videe
+        for (List<Long> ids : byTag.values()) {
+            ids.sort((a, b) -> Long.compare(b, a));
+        }
+
+        Map<Long, Related> fresh = new ConcurrentHashMap<>();
+        int videoCount = byVideo.size();
+        for (Long id : byVideo.keySet()) {
+            Related r = compute(id, byVideo.get(id), byTag, videoCount);
+            if (r.ids.length > 0) fresh.put(id, r);
+        }
+        // Videi bez tagova, ali sa zajedničkim pregledima
+        for (Long id : coViews.keySet()) {
+            if (!fresh.containsKey(id)) {
+                Related r = compute(id, List.of(), byTag, videoCount);
+                if (r.ids.length > 0) fresh.put(id, r);
+            }
+        }
+
+        synchronized (this) {
+            videosByTag = byTag;
+            tagsByVideo = byVideo;
+            related = fresh;
+        }
+        logger.info("Model srodnih videa izgrađen: {} videa, {} tagova za {} ms",
+                fresh.size(), byTag.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Do limit srodnih id-jeva za video, najsrodniji prvi.
+     */
+    public List<Long> getRelatedIds(Long videoId, int limit) {
+        Related r = related.get(videoId);
+        List<Long> result = new ArrayList<>();
+        if (r == null) return result;
+        for (int i = 0; i < r.ids.length && result.size() < limit; i++) {
+            result.add(r.ids[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Dodaje novu objavu u model (poziva se nakon commit-a createVideoPost).
+     */
+    public synchronized void onVideoPostCreated(Long videoId, Collection<String> tags) {
+        if (videoId == null || tags == null || tags.isEmpty()) return;
+        List<String> normalized = new ArrayList<>();
+        for (String raw : tags) {
+            String tag = normalize(raw);
+            if (!tag.isEmpty() && !normalized.contains(tag)) normalized.add(tag);
+        }
+        if (normalized.isEmpty()) return;
+
+        tagsByVideo.put(videoId, normalized);
+        for (String tag : normalized) {
+            // Najnoviji na početak liste
+            videosByTag.computeIfAbsent(tag, t -> new ArrayList<>()).add(0, videoId);
+        }
+        Related own = compute(videoId, normalized, videosByTag, tagsByVideo.size());
+        related.put(videoId, own);
+
+        // Novi video ulazi u liste svojih suseda ako je jači od njihovog najslabijeg člana
+        for (int i = 0; i < own.ids.length; i++) {
+            Related neighbour = related.get(own.ids[i]);
+            Related updated = neighbour == null
+                    ? new Related(new long[]{videoId}, new float[]{own.scores[i]})
+                    : neighbour.offer(videoId, own.scores[i], topN);
+            if (updated != neighbour) related.put(own.ids[i], updated);
+        }
+    }
+
+    /**
+     * Evidentira pregled za co-view model (gledalac je isti ključ kao kod brojanja jedinstvenih gledalaca).
+     */
+    public void recordView(String viewerKey, Long videoId) {
+        if (viewerKey == null || videoId == null) return;
+        Long[] previous;
+        synchronized (recentByViewer) {
+            ArrayDeque<Long> recent = recentByViewer.computeIfAbsent(viewerKey, k -> new ArrayDeque<>());
+            if (videoId.equals(recent.peekLast())) return;
+            previous = recent.toArray(new Long[0]);
+            recent.remove(videoId);
+            recent.addLast(videoId);
+            if (recent.size() > RECENT_VIEWS_PER_VIEWER) recent.removeFirst();
+            // Ograničen broj praćenih gledalaca: izbacuje se najduže neaktivan
+            if (recentByViewer.size() > maxTrackedViewers) {
+                Iterator<String> it = recentByViewer.keySet().iterator();
+                it.next();
+                it.remove();
+            }
+        }
+        for (Long other : previous) {
+            if (!other.equals(videoId)) {
+                incrementCoView(other, videoId);
+                incrementCoView(videoId, other);
+            }
+        }
+    }
+
+    private void incrementCoView(Long a, Long b) {
+        Map<Long, Integer> partners = coViews.computeIfAbsent(a, k -> new ConcurrentHashMap<>());
+        if (partners.size() >= MAX_COVIEW_PARTNERS && !partners.containsKey(b)) return;
+        partners.merge(b, 1, Integer::sum);
+    }
+
+    private Related compute(Long id, List<String> tags, Map<String, List<Long>> byTag, int videoCount) {
+        Map<Long, Double> scores = new HashMap<>();
+        for (String tag : tags) {
+            List<Long> ids = byTag.get(tag);
+            if (ids == null) continue;
+            double idf = Math.log(1 + (double) videoCount / ids.size());
+            int limit = Math.min(ids.size(), maxCandidatesPerTag);
+            for (int i = 0; i < limit; i++) {
+                Long other = ids.get(i);
+                if (!other.equals(id)) scores.merge(other, idf, Double::sum);
+            }
+        }
+        Map<Long, Integer> partners = coViews.get(id);
+        if (partners != null) {
+            for (Map.Entry<Long, Integer> e : partners.entrySet()) {
+                scores.merge(e.getKey(), COVIEW_WEIGHT * Math.log1p(e.getValue()), Double::sum);
+            }
+        }
+
+        PriorityQueue<Map.Entry<Long, Double>> heap = new PriorityQueue<>(Map.Entry.comparingByValue());
+        for (Map.Entry<Long, Double> e : scores.entrySet()) {
+            heap.offer(e);
+            if (heap.size() > topN) heap.poll();
+        }
+        int n = heap.size();
+        long[] ids = new long[n];
+        float[] values = new float[n];
+        for (int i = n - 1; i >= 0; i--) {
+            Map.Entry<Long, Double> e = heap.poll();
+            ids[i] = e.getKey();
+            values[i] = e.getValue().floatValue();
+        }
+        return new Related(ids, values);
+    }
+
+    private static String normalize(String tag) {
+        return tag == null ? "" : tag.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Nepromenljiva lista srodnih id-jeva sa skorovima, opadajuće.
+     */
+    private static final class Related {
+        final long[] ids;
+        final float[] scores;
+
+        Related(long[] ids, float[] scores) {
+            this.ids = ids;
+            this.scores = scores;
+        }
+
+        // Vraća novu listu sa ubačenim id-jem, ili istu ako id nije dovoljno jak
+        Related offer(long id, float score, int capacity) {
+            for (long existing : ids) {
+                if (existing == id) return this;
+            }
+            if (ids.length >= capacity && score <= scores[ids.length - 1]) return this;
+            int pos = 0;
+            while (pos < ids.length && scores[pos] >= score) pos++;
+            int length = Math.min(capacity, ids.length + 1);
+            long[] newIds = new long[length];
+            float[] newScores = new float[length];
+            System.arraycopy(ids, 0, newIds, 0, pos);
+            System.arraycopy(scores, 0, newScores, 0, pos);
+            newIds[pos] = id;
+            newScores[pos] = score;
+            System.arraycopy(ids, pos, newIds, pos + 1, length - pos - 1);
+            System.arraycopy(scores, pos, newScores, pos + 1, length - pos - 1);
+            return new Related(newIds, newScores);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.isa.backend.service;
+
+import com.isa.backend.repository.VideoPostRepository;
+import com.isa.backend.util.FullTextIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Full-text pretraga po naslovu, opisu i tagovima video objava (BM25, in-memory).
+ * Indeks se gradi iz baze pri startu, a nove objave se dodaju nakon commit-a u VideoPostService.
+ */
+@Service
+public class SearchIndexService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchIndexService.class);
+
+    @Autowired
+    private VideoPostRepository videoPostRepository;
+
+    private volatile FullTextIndex index = new FullTextIndex();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            logger.error("Neuspešna izgradnja indeksa za pretragu pri startu:", e);
+        }
+    }
+
+    /**
+     * Gradi novi indeks iz baze i atomski ga zamenjuje (upiti za to vreme koriste stari).
+     */
+    public void rebuild() {
+        Map<Long, List<String>> tagsById = new HashMap<>();
+        for (Object[] row : videoPostRepository.findAllIdTagPairs()) {
+            tagsById.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((String) row[1]);
+        }
+        FullTextIndex fresh = new FullTextIndex();
+        for (Object[] row : videoPostRepository.findAllSearchDocuments()) {
+            Long id = (Long) row[0];
+            fresh.index(id, (String) row[1], (String) row[2], tagsById.get(id));
+        }
+        index = fresh;
+        logger.info("Indeks za pretragu izgrađen: {} objava, {} termina", fresh.size(), fresh.termCount());
+    }
+
+    public void onVideoPostCreated(Long videoId, String title, String description, Collection<String> tags) {
+        index.index(videoId, title, description, tags);
+    }
+
+    public void onVideoPostDeleted(Long videoId) {
+        index.delete(videoId);
+    }
+
+    public FullTextIndex.SearchResult search(String query, int page, int size) {
+        return index.search(query, page, size);
+    }
+}
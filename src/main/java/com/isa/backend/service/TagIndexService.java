@@ -0,0 +1,308 @@
+package com.isa.backend.service;
+
+import com.isa.backend.repository.VideoPostRepository;
+import com.isa.backend.util.CompressedIdSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory invertovani indeks tagova: svaki tag je internovan u int id, a za svaki tag
+ * se čuva kompresovana lista id-jeva videa (CompressedIdSet). Podržava AND/OR/NOT upite
+ * preko više tagova, sortirane po datumu kreiranja ili popularnosti.
+ *
+ * Indeks se gradi iz baze pri startu aplikacije i ažurira nakon commit-a u VideoPostService.
+ */
+@Service
+public class TagIndexService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TagIndexService.class);
+
+    // Težine za popularnost (pregled, lajk, komentar)
+    private static final long VIEW_WEIGHT = 1;
+    private static final long LIKE_WEIGHT = 3;
+    private static final long COMMENT_WEIGHT = 5;
+
+    public enum SortOrder { RECENT, POPULAR }
+
+    @Autowired
+    private VideoPostRepository videoPostRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Sve ispod je zaštićeno lock-om
+    private final Map<String, Integer> tagIds = new HashMap<>();
+    private final List<String> tagNames = new ArrayList<>();
+    private final List<CompressedIdSet> postings = new ArrayList<>();
+    private CompressedIdSet allVideos = new CompressedIdSet();
+
+    // videoId -> vreme kreiranja (epoch millis) i popularnost; čitaju se bez lock-a
+    private final Map<Integer, Long> createdAt = new ConcurrentHashMap<>();
+    private final Map<Integer, AtomicLong> popularity = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            logger.error("Neuspešna izgradnja indeksa tagova pri startu:", e);
+        }
+    }
+
+    /**
+     * Ponovo gradi ceo indeks iz baze.
+     */
+    public void rebuild() {
+        List<Object[]> metadata = videoPostRepository.findAllIndexMetadata();
+        List<Object[]> pairs = videoPostRepository.findAllIdTagPairs();
+
+        lock.writeLock().lock();
+        try {
+            tagIds.clear();
+            tagNames.clear();
+            postings.clear();
+            allVideos = new CompressedIdSet();
+            createdAt.clear();
+            popularity.clear();
+
+            for (Object[] row : metadata) {
+                int id = toIntId((Long) row[0]);
+                allVideos.add(id);
+                createdAt.put(id, toEpochMillis((LocalDateTime) row[1]));
+                long score = VIEW_WEIGHT * intValue(row[2]) + LIKE_WEIGHT * intValue(row[3]) + COMMENT_WEIGHT * intValue(row[4]);
+                popularity.put(id, new AtomicLong(score));
+            }
+            for (Object[] row : pairs) {
+                String tag = normalize((String) row[1]);
+                if (tag.isEmpty()) continue;
+                postings.get(internTag(tag)).add(toIntId((Long) row[0]));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Indeks tagova izgrađen: {} videa, {} tagova", metadata.size(), tagNames.size());
+    }
+
+    /**
+     * Dodaje novu objavu u indeks (poziva se nakon commit-a createVideoPost).
+     */
+    public void onVideoPostCreated(Long videoId, Collection<String> tags, LocalDateTime created) {
+        int id = toIntId(videoId);
+        createdAt.put(id, toEpochMillis(created));
+        popularity.putIfAbsent(id, new AtomicLong());
+
+        lock.writeLock().lock();
+        try {
+            allVideos.add(id);
+            if (tags != null) {
+                for (String raw : tags) {
+                    String tag = normalize(raw);
+                    if (!tag.isEmpty()) postings.get(internTag(tag)).add(id);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Uklanja objavu iz indeksa.
+     */
+    public void onVideoPostDeleted(Long videoId) {
+        int id = toIntId(videoId);
+        lock.writeLock().lock();
+        try {
+            allVideos.remove(id);
+            for (CompressedIdSet set : postings) set.remove(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        createdAt.remove(id);
+        popularity.remove(id);
+    }
+
+    public void recordView(Long videoId) {
+        addPopularity(videoId, VIEW_WEIGHT);
+    }
+
+    public void recordLike(Long videoId) {
+        addPopularity(videoId, LIKE_WEIGHT);
+    }
+
+    public void recordComment(Long videoId) {
+        addPopularity(videoId, COMMENT_WEIGHT);
+    }
+
+    /**
+     * Izvršava boolean upit nad tagovima: (svi iz all) AND (bar jedan iz any) AND NOT (bilo koji iz none).
+     * Ako su all i any prazni, polazni skup su svi video snimci.
+     */
+    public TagQueryResult query(Collection<String> all, Collection<String> any, Collection<String> none,
+                                SortOrder order, int page, int size) {
+        if (page < 0 || size <= 0) {
+            throw new IllegalArgumentException("Neispravni parametri stranice");
+        }
+        CompressedIdSet result;
+        lock.readLock().lock();
+        try {
+            result = evaluate(all, any, none);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        int[] ids = result.toArray();
+        int limit = (int) Math.min((long) (page + 1) * size, ids.length);
+
+        // Skorovi se čitaju jednom po upitu: brojači popularnosti rastu dok traje sortiranje,
+        // a heap i sort zahtevaju poređenje koje se ne menja
+        long[] recency = new long[ids.length];
+        long[] score = order == SortOrder.POPULAR ? new long[ids.length] : recency;
+        for (int i = 0; i < ids.length; i++) {
+            recency[i] = createdAt.getOrDefault(ids[i], 0L);
+            if (order == SortOrder.POPULAR) {
+                AtomicLong p = popularity.get(ids[i]);
+                score[i] = p == null ? 0L : p.get();
+            }
+        }
+        Comparator<Integer> comparator = comparatorFor(ids, score, recency);
+
+        // Bounded heap pozicija u ids: čuvamo samo (page + 1) * size najboljih, ne sortiramo ceo rezultat
+        PriorityQueue<Integer> heap = new PriorityQueue<>(Math.max(1, limit), comparator.reversed());
+        for (int i = 0; i < ids.length; i++) {
+            heap.offer(i);
+            if (heap.size() > limit) heap.poll();
+        }
+        List<Integer> top = new ArrayList<>(heap);
+        top.sort(comparator);
+
+        List<Long> pageIds = new ArrayList<>();
+        for (int i = page * size; i < top.size(); i++) {
+            pageIds.add((long) ids[top.get(i)]);
+        }
+        return new TagQueryResult(pageIds, ids.length);
+    }
+
+    public int getTagCount() {
+        lock.readLock().lock();
+        try {
+            return tagNames.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private CompressedIdSet evaluate(Collection<String> all, Collection<String> any, Collection<String> none) {
+        CompressedIdSet result = null;
+        if (all != null) {
+            for (String tag : all) {
+                CompressedIdSet set = postingsFor(tag);
+                result = result == null ? set.copy() : CompressedIdSet.and(result, set);
+                if (result.isEmpty()) return result;
+            }
+        }
+        if (any != null && !any.isEmpty()) {
+            CompressedIdSet union = new CompressedIdSet();
+            for (String tag : any) {
+                union = CompressedIdSet.or(union, postingsFor(tag));
+            }
+            result = result == null ? union : CompressedIdSet.and(result, union);
+        }
+        if (result == null) {
+            result = allVideos.copy();
+        }
+        if (none != null) {
+            for (String tag : none) {
+                result = CompressedIdSet.andNot(result, postingsFor(tag));
+            }
+        }
+        return result;
+    }
+
+    private CompressedIdSet postingsFor(String rawTag) {
+        Integer tagId = tagIds.get(normalize(rawTag));
+        return tagId == null ? new CompressedIdSet() : postings.get(tagId);
+    }
+
+    private int internTag(String tag) {
+        Integer id = tagIds.get(tag);
+        if (id == null) {
+            id = tagNames.size();
+            tagIds.put(tag, id);
+            tagNames.add(tag);
+            postings.add(new CompressedIdSet());
+        }
+        return id;
+    }
+
+    // Poređenje pozicija u ids: veći skor, pa novije, pa veći id (potpun i stabilan poredak)
+    private static Comparator<Integer> comparatorFor(int[] ids, long[] score, long[] recency) {
+        return (a, b) -> {
+            int c = Long.compare(score[b], score[a]);
+            if (c == 0) c = Long.compare(recency[b], recency[a]);
+            return c != 0 ? c : Integer.compare(ids[b], ids[a]);
+        };
+    }
+
+    private void addPopularity(Long videoId, long weight) {
+        if (videoId == null) return;
+        AtomicLong p = popularity.get(toIntId(videoId));
+        if (p != null) p.addAndGet(weight);
+    }
+
+    private static String normalize(String tag) {
+        return tag == null ? "" : tag.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static int toIntId(Long id) {
+        if (id == null || id < 0 || id > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Video id van opsega indeksa: " + id);
+        }
+        return id.intValue();
+    }
+
+    private static long toEpochMillis(LocalDateTime time) {
+        return time == null ? 0L : time.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private static long intValue(Object value) {
+        return value == null ? 0L : ((Number) value).longValue();
+    }
+
+    /**
+     * Jedna stranica rezultata upita po tagovima (id-jevi u traženom redosledu) i ukupan broj pogodaka.
+     */
+    public static final class TagQueryResult {
+        private final List<Long> videoIds;
+        private final int total;
+
+        public TagQueryResult(List<Long> videoIds, int total) {
+            this.videoIds = videoIds;
+            this.total = total;
+        }
+
+        public List<Long> getVideoIds() {
+            return videoIds;
+        }
+
+        public int getTotal() {
+            return total;
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package com.isa.backend.service;
+
+import com.isa.backend.repository.FollowRepository;
+import com.isa.backend.repository.VideoPostRepository;
+import com.isa.backend.util.TimelineBuffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Home timeline-ovi korisnika kao ograničeni prstenovi id-jeva videa u memoriji.
+ *
+ * Fan-out-on-write: nakon commit-a upload-a id novog videa se upisuje u timeline svakog pratioca
+ * koji je materijalizovan (čitan od starta); ostali se grade iz baze pri prvom čitanju.
+ * Autori sa više od celebrity-threshold pratilaca se ne razašilju — njihove najnovije objave se drže
+ * u jednom prstenu po autoru i spajaju sa timeline-om pri čitanju (fan-out-on-read).
+ * Čitanje stranice ne radi upit ni join: prsten se čita direktno, a DTO-ovi se učitavaju po id-ju.
+ *
+ * Pretpostavlja jednu instancu aplikacije: timeline-ovi su lokalni za JVM, a poredak po id-ju je poredak
+ * objavljivanja samo dok id-jeve video objava dodeljuje jedan JVM.
+ */
+@Service
+public class TimelineService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TimelineService.class);
+
+    @Autowired
+    private FollowRepository followRepository;
+
+    @Autowired
+    private VideoPostRepository videoPostRepository;
+
+    @Value("${app.timeline.capacity:500}")
+    private int capacity;
+
+    @Value("${app.timeline.celebrity-threshold:10000}")
+    private long celebrityThreshold;
+
+    @Value("${app.timeline.max-cached:50000}")
+    private int maxCached;
+
+    // Materijalizovani home timeline-ovi (userId -> prsten id-jeva iz ne-slavnih praćenih autora)
+    private final Map<Long, Feed> timelines = new ConcurrentHashMap<>();
+    // Najnovije objave slavnih autora (authorId -> prsten), spajaju se pri čitanju
+    private final Map<Long, Feed> celebrityPosts = new ConcurrentHashMap<>();
+    // Keš broja pratilaca (ažurira se pri follow/unfollow)
+    private final Map<Long, Long> followerCounts = new ConcurrentHashMap<>();
+
+    /**
+     * Upisuje novi video u timeline-ove pratilaca autora (poziva se nakon commit-a upload-a).
+     */
+    public void onVideoPostCreated(Long videoId, Long authorId) {
+        if (videoId == null || authorId == null) return;
+        try {
+            if (isCelebrity(authorId)) {
+                Feed posts = celebrityPosts.get(authorId);
+                if (posts != null) posts.buffer.push(videoId);
+                return;
+            }
+            int pushed = 0;
+            for (Long followerId : followRepository.findFollowerIds(authorId)) {
+                Feed timeline = timelines.get(followerId);
+                if (timeline != null) {
+                    timeline.buffer.push(videoId);
+                    pushed++;
+                }
+            }
+            logger.debug("Video {} razaslat u {} timeline-ova", videoId, pushed);
+        } catch (RuntimeException e) {
+            // Timeline se dopunjava iz baze pri sledećoj izgradnji; upload je već commit-ovan
+            logger.warn("Neuspešan fan-out videa {} autora {}: {}", videoId, authorId, e.getMessage());
+        }
+    }
+
+    /**
+     * Ažurira keš nakon commit-a follow (delta = 1) ili unfollow (delta = -1).
+     */
+    public void onFollowChanged(Long followerId, Long followeeId, long delta) {
+        // Skup praćenih autora se promenio — timeline se gradi ponovo pri sledećem čitanju
+        timelines.remove(followerId);
+        Long before = followerCounts.get(followeeId);
+        if (before == null) return;
+        long after = followerCounts.merge(followeeId, delta, Long::sum);
+        boolean wasCelebrity = before > celebrityThreshold;
+        boolean celebrity = after > celebrityThreshold;
+        if (wasCelebrity != celebrity) {
+            // Promenio se način isporuke autorovih objava — timeline-ovi njegovih pratilaca se grade ponovo
+            timelines.keySet().removeAll(new HashSet<>(followRepository.findFollowerIds(followeeId)));
+            if (!celebrity) celebrityPosts.remove(followeeId);
+            logger.info("Korisnik {} {} prag slavnih ({} pratilaca)", followeeId,
+                    celebrity ? "prešao" : "pao ispod", after);
+        }
+    }
+
+    public long getFollowerCount(Long userId) {
+        Long cached = followerCounts.get(userId);
+        if (cached != null) return cached;
+        long count = followRepository.countByFolloweeId(userId);
+        Long existing = followerCounts.putIfAbsent(userId, count);
+        return existing != null ? existing : count;
+    }
+
+    public boolean isCelebrity(Long userId) {
+        return getFollowerCount(userId) > celebrityThreshold;
+    }
+
+    /**
+     * Stranica home timeline-a (id-jevi videa, najnoviji prvi). Pokriva najnovijih capacity objava
+     * ne-slavnih autora i najnovijih capacity objava svakog praćenog slavnog autora.
+     */
+    public List<Long> getTimelineIds(Long userId, int page, int size) {
+        if (page < 0 || size <= 0) throw new IllegalArgumentException("Neispravni parametri stranice");
+        long offsetLong = (long) page * size;
+        Feed timeline = timeline(userId);
+        long[] celebrities = timeline.celebrityIds;
+        if (offsetLong >= (long) capacity * (celebrities.length + 1)) return new ArrayList<>();
+        int offset = (int) offsetLong;
+
+        if (celebrities.length == 0) {
+            return distinct(timeline.buffer.page(offset, size));
+        }
+
+        // Fan-out-on-read: k-way spajanje prstena po id-ju. Id-jevi rastu sa vremenom objave samo dok video
+        // objave upisuje jedna instanca (pooled-lo blokovi se dele po JVM-u); to je ionako pretpostavka ovog
+        // servisa, jer fan-out stiže samo do timeline-ova u memoriji instance koja je primila upload
+        int needed = offset + size;
+        List<long[]> sources = new ArrayList<>(celebrities.length + 1);
+        sources.add(timeline.buffer.page(0, needed));
+        for (long celebrityId : celebrities) {
+            sources.add(celebrityFeed(celebrityId).buffer.page(0, needed));
+        }
+        int[] positions = new int[sources.size()];
+        PriorityQueue<Integer> heads = new PriorityQueue<>(
+                (a, b) -> Long.compare(sources.get(b)[positions[b]], sources.get(a)[positions[a]]));
+        for (int i = 0; i < sources.size(); i++) {
+            if (sources.get(i).length > 0) heads.add(i);
+        }
+        Set<Long> seen = new HashSet<>(needed * 2);
+        List<Long> result = new ArrayList<>(size);
+        while (!heads.isEmpty() && seen.size() < needed) {
+            int source = heads.poll();
+            long id = sources.get(source)[positions[source]++];
+            if (seen.add(id) && seen.size() > offset) result.add(id);
+            if (positions[source] < sources.get(source).length) heads.add(source);
+        }
+        return result;
+    }
+
+    private Feed timeline(Long userId) {
+        Feed timeline = timelines.get(userId);
+        if (timeline == null) {
+            // Izbacivanje van computeIfAbsent: ConcurrentHashMap ne dozvoljava izmenu mape iz mapping funkcije
+            evictIfFull();
+            timeline = timelines.computeIfAbsent(userId, id -> new Feed(capacity));
+        }
+        timeline.ensureLoaded(feed -> loadTimeline(userId, feed));
+        return timeline;
+    }
+
+    private Feed celebrityFeed(long authorId) {
+        Feed feed = celebrityPosts.computeIfAbsent(authorId, id -> new Feed(capacity));
+        feed.ensureLoaded(f -> videoPostRepository.findIdsByUserIdIn(List.of(authorId), PageRequest.of(0, capacity)));
+        return feed;
+    }
+
+    private List<Long> loadTimeline(Long userId, Feed feed) {
+        List<Long> followees = followRepository.findFolloweeIds(userId);
+        loadFollowerCounts(followees);
+        List<Long> regular = new ArrayList<>();
+        List<Long> celebrities = new ArrayList<>();
+        for (Long followeeId : followees) {
+            (isCelebrity(followeeId) ? celebrities : regular).add(followeeId);
+        }
+        feed.celebrityIds = celebrities.stream().mapToLong(Long::longValue).toArray();
+        if (regular.isEmpty()) return new ArrayList<>();
+        return videoPostRepository.findIdsByUserIdIn(regular, PageRequest.of(0, capacity));
+    }
+
+    // Učitava broj pratilaca za sve autore koji još nisu u kešu jednim upitom
+    private void loadFollowerCounts(List<Long> userIds) {
+        List<Long> missing = new ArrayList<>();
+        for (Long id : userIds) {
+            if (!followerCounts.containsKey(id)) missing.add(id);
+        }
+        if (missing.isEmpty()) return;
+        for (Long id : missing) followerCounts.putIfAbsent(id, 0L);
+        for (Object[] row : followRepository.countFollowersByFolloweeIds(missing)) {
+            followerCounts.put((Long) row[0], (Long) row[1]);
+        }
+    }
+
+    private void evictIfFull() {
+        if (timelines.size() < maxCached) return;
+        Iterator<Long> it = timelines.keySet().iterator();
+        if (it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    private static List<Long> distinct(long[] ids) {
+        List<Long> result = new ArrayList<>(ids.length);
+        Set<Long> seen = new HashSet<>(ids.length * 2);
+        for (long id : ids) {
+            if (seen.add(id)) result.add(id);
+        }
+        return result;
+    }
+
+    /**
+     * Prsten sa lenjim punjenjem iz baze. Upisi koji stignu pre ili tokom punjenja se ne gube:
+     * učitani (stariji) id-jevi se dodaju ispred njih.
+     */
+    private static final class Feed {
+        final TimelineBuffer buffer;
+        volatile long[] celebrityIds = new long[0];
+        private volatile boolean loaded;
+
+        Feed(int capacity) {
+            this.buffer = new TimelineBuffer(capacity);
+        }
+
+        void ensureLoaded(Function<Feed, List<Long>> loader) {
+            if (loaded) return;
+            synchronized (this) {
+                if (loaded) return;
+                buffer.prependOlder(loader.apply(this));
+                loaded = true;
+            }
+        }
+    }
+}
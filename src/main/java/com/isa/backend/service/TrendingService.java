@@ -0,0 +1,150 @@
+package com.isa.backend.service;
+
+import com.isa.backend.dto.VideoPostDTO;
+import com.isa.backend.repository.VideoPostRepository;
+import com.isa.backend.util.TrendingTopK;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Trending video snimci: inkrementalni skor sa opadanjem (TrendingTopK) i unapred spremljena lista DTO-ova.
+ *
+ * Pregledi, lajkovi i komentari se evidentiraju nakon commit-a. VideoPostService periodično
+ * (app.trending.refresh-ms) učitava DTO-ove za trenutni top-K i objavljuje ih ovde, pa
+ * GET /api/videos/trending samo vraća gotovu listu — O(K), bez pristupa bazi.
+ */
+@Service
+public class TrendingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrendingService.class);
+
+    @Autowired
+    private VideoPostRepository videoPostRepository;
+
+    @Value("${app.trending.top-k:100}")
+    private int topK;
+
+    @Value("${app.trending.half-life-hours:6}")
+    private double halfLifeHours;
+
+    private volatile TrendingTopK ranking;
+
+    // Poslednja objavljena lista (anonimna i autentifikovana varijanta se razlikuju u canLike/canComment)
+    private volatile List<VideoPostDTO> anonymousSnapshot = List.of();
+    private volatile List<VideoPostDTO> authenticatedSnapshot = List.of();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            logger.error("Neuspešna izgradnja trending liste pri startu:", e);
+        }
+    }
+
+    /**
+     * Gradi rang listu iz baze. Istorija događaja ne postoji, pa se ukupni brojači pripisuju
+     * datumu objave — stari snimci tako prirodno padaju, a novi događaji se dodaju uživo.
+     */
+    public void rebuild() {
+        long now = System.currentTimeMillis();
+        TrendingTopK fresh = new TrendingTopK(topK, halfLifeHours * 3_600_000L, now);
+        List<Object[]> metadata = videoPostRepository.findAllIndexMetadata();
+        for (Object[] row : metadata) {
+            double weight = TrendingTopK.Event.VIEW.getWeight() * longValue(row[2])
+                    + TrendingTopK.Event.LIKE.getWeight() * longValue(row[3])
+                    + TrendingTopK.Event.COMMENT.getWeight() * longValue(row[4]);
+            fresh.seed((Long) row[0], weight, toEpochMillis((LocalDateTime) row[1]), now);
+        }
+        ranking = fresh;
+        logger.info("Trending lista izgrađena iz {} objava", metadata.size());
+    }
+
+    public void recordView(Long videoId) {
+        record(videoId, TrendingTopK.Event.VIEW);
+    }
+
+    public void recordLike(Long videoId) {
+        record(videoId, TrendingTopK.Event.LIKE);
+    }
+
+    public void recordComment(Long videoId) {
+        record(videoId, TrendingTopK.Event.COMMENT);
+    }
+
+    /**
+     * Id-jevi trenutnog top-K, najpopularniji prvi.
+     */
+    public List<Long> getTopIds() {
+        TrendingTopK current = ranking;
+        return current == null ? new ArrayList<>() : current.top(topK);
+    }
+
+    /**
+     * Objavljuje DTO-ove (u redosledu rang liste) koje vraća trending endpoint.
+     */
+    public void publish(List<VideoPostDTO> anonymous, List<VideoPostDTO> authenticated) {
+        anonymousSnapshot = List.copyOf(anonymous);
+        authenticatedSnapshot = List.copyOf(authenticated);
+    }
+
+    public List<VideoPostDTO> getTrending(int limit, boolean authenticated) {
+        List<VideoPostDTO> snapshot = authenticated ? authenticatedSnapshot : anonymousSnapshot;
+        return snapshot.subList(0, Math.min(Math.max(0, limit), snapshot.size()));
+    }
+
+    /**
+     * Trenutni skor i broj događaja u poslednja 24 sata za jedan video.
+     */
+    public Map<String, Object> getStats(Long videoId) {
+        long now = System.currentTimeMillis();
+        Map<String, Object> stats = new HashMap<>();
+        TrendingTopK current = ranking;
+        if (current == null) return stats;
+        int[] counts = current.recentCounts(videoId, now);
+        stats.put("score", current.score(videoId, now));
+        stats.put("views24h", counts[TrendingTopK.Event.VIEW.ordinal()]);
+        stats.put("likes24h", counts[TrendingTopK.Event.LIKE.ordinal()]);
+        stats.put("comments24h", counts[TrendingTopK.Event.COMMENT.ordinal()]);
+        return stats;
+    }
+
+    /**
+     * Jednom na sat uklanja snimke sa zanemarljivim skorom i istekle satne brojače.
+     */
+    @Scheduled(fixedRate = 3_600_000L, initialDelay = 3_600_000L)
+    public void prune() {
+        TrendingTopK current = ranking;
+        if (current == null) return;
+        int removed = current.prune(System.currentTimeMillis());
+        logger.debug("Trending prune: uklonjeno {}, preostalo {}", removed, current.size());
+    }
+
+    private void record(Long videoId, TrendingTopK.Event event) {
+        TrendingTopK current = ranking;
+        if (videoId != null && current != null) {
+            current.record(videoId, event, System.currentTimeMillis());
+        }
+    }
+
+    private static long toEpochMillis(LocalDateTime time) {
+        return time == null ? 0L : time.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private static long longValue(Object value) {
+        return value == null ? 0L : ((Number) value).longValue();
+    }
+}
@@ -0,0 +1,219 @@
+package com.isa.backend.service;
+
+import com.isa.backend.model.VideoViewerSketch;
+import com.isa.backend.repository.VideoViewerSketchRepository;
+import com.isa.backend.util.HyperLogLog;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Približan broj jedinstvenih gledalaca po videu i danu (HyperLogLog, vidi util/HyperLogLog).
+ *
+ * Gledalac je prijavljeni korisnik ili, za anonimne, hash IP adrese i User-Agent-a. Skice za tekući
+ * dan se drže u memoriji i periodično upisuju upsert-om u video_viewer_sketch; pri prvom upisu se
+ * spajaju sa već sačuvanom skicom, pa baza ne mora da se čita na putanji pregleda.
+ * Opseg dana se računa spajanjem dnevnih skica (maksimum po registru).
+ */
+@Service
+public class UniqueViewerService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UniqueViewerService.class);
+
+    private static final String UPSERT_SKETCH =
+            "INSERT INTO video_viewer_sketch (video_id, view_day, sketch) VALUES (?, ?, ?) " +
+            "ON CONFLICT (video_id, view_day) DO UPDATE SET sketch = EXCLUDED.sketch";
+
+    // Skica koja se nije menjala ovoliko dugo izbacuje se iz memorije nakon upisa
+    private static final long IDLE_EVICT_MS = 10 * 60_000L;
+    private static final int MAX_RANGE_DAYS = 366;
+
+    @Autowired
+    private VideoViewerSketchRepository sketchRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final Map<VideoViewerSketch.Key, SketchEntry> sketches = new ConcurrentHashMap<>();
+
+    /**
+     * Ključ gledaoca: prijavljeni korisnik po imenu principala, anonimni po hash-u IP + User-Agent.
+     */
+    public static String viewerKey(String principalName, String remoteAddr, String userAgent) {
+        if (principalName != null && !principalName.isBlank()) {
+            return "u:" + principalName;
+        }
+        return "a:" + Long.toHexString(HyperLogLog.hash64(remoteAddr + '|' + (userAgent == null ? "" : userAgent)));
+    }
+
+    /**
+     * Evidentira gledaoca za današnji dan (poziva se nakon commit-a uvećanja viewCount-a).
+     */
+    public void recordViewer(Long videoId, String viewerKey) {
+        if (videoId == null || viewerKey == null) return;
+        long hash = HyperLogLog.hash64(viewerKey);
+        VideoViewerSketch.Key key = new VideoViewerSketch.Key(videoId, LocalDate.now());
+        while (true) {
+            SketchEntry entry = sketches.computeIfAbsent(key, k -> new SketchEntry());
+            synchronized (entry) {
+                if (entry.evicted) continue;
+                entry.hll.offerHash(hash);
+                entry.dirty = true;
+                entry.lastTouched = System.currentTimeMillis();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Upisuje izmenjene skice. Skice koje još nisu spojene sa sačuvanom verzijom učitavaju se jednim upitom.
+     */
+    @Scheduled(fixedDelayString = "${app.analytics.flush-ms:60000}", initialDelayString = "${app.analytics.flush-ms:60000}")
+    public synchronized void flush() {
+        List<VideoViewerSketch.Key> unloaded = new ArrayList<>();
+        for (Map.Entry<VideoViewerSketch.Key, SketchEntry> e : sketches.entrySet()) {
+            SketchEntry entry = e.getValue();
+            synchronized (entry) {
+                if (entry.dirty && !entry.loaded) unloaded.add(e.getKey());
+            }
+        }
+        if (!unloaded.isEmpty()) {
+            for (VideoViewerSketch stored : sketchRepository.findAllById(unloaded)) {
+                SketchEntry entry = sketches.get(new VideoViewerSketch.Key(stored.getVideoId(), stored.getDay()));
+                if (entry == null) continue;
+                HyperLogLog persisted = HyperLogLog.fromBytes(stored.getSketch());
+                synchronized (entry) {
+                    entry.hll.merge(persisted);
+                }
+            }
+        }
+
+        List<Object[]> rows = new ArrayList<>();
+        List<SketchEntry> written = new ArrayList<>();
+        for (Map.Entry<VideoViewerSketch.Key, SketchEntry> e : sketches.entrySet()) {
+            SketchEntry entry = e.getValue();
+            synchronized (entry) {
+                if (!entry.dirty) continue;
+                rows.add(new Object[]{e.getKey().getVideoId(), Date.valueOf(e.getKey().getDay()), entry.hll.toBytes()});
+                entry.dirty = false;
+                written.add(entry);
+            }
+        }
+        if (!rows.isEmpty()) {
+            try {
+                jdbcTemplate.batchUpdate(UPSERT_SKETCH, rows);
+                for (SketchEntry entry : written) {
+                    synchronized (entry) {
+                        entry.loaded = true;
+                    }
+                }
+            } catch (RuntimeException ex) {
+                logger.error("Neuspešan upis skica gledalaca, pokušaće se ponovo:", ex);
+                for (SketchEntry entry : written) {
+                    synchronized (entry) {
+                        entry.dirty = true;
+                    }
+                }
+                return;
+            }
+        }
+        evictIdle();
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            logger.warn("Neuspešan upis skica gledalaca pri gašenju: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Procena jedinstvenih gledalaca po danu i za ceo opseg [from, to]. Bez opsega: za ceo životni vek videa.
+     */
+    public Map<String, Object> getUniqueViewers(Long videoId, LocalDate from, LocalDate to) {
+        List<VideoViewerSketch> stored;
+        if (from == null && to == null) {
+            stored = sketchRepository.findByVideoId(videoId);
+        } else {
+            LocalDate end = to != null ? to : LocalDate.now();
+            LocalDate start = from != null ? from : end.minusDays(29);
+            if (end.isBefore(start)) {
+                throw new IllegalArgumentException("Početak opsega mora biti pre kraja");
+            }
+            if (start.plusDays(MAX_RANGE_DAYS).isBefore(end)) {
+                throw new IllegalArgumentException("Opseg ne može biti duži od " + MAX_RANGE_DAYS + " dana");
+            }
+            from = start;
+            to = end;
+            stored = sketchRepository.findByVideoIdAndDayBetween(videoId, start, end);
+        }
+
+        Map<LocalDate, HyperLogLog> byDay = new TreeMap<>();
+        for (VideoViewerSketch row : stored) {
+            byDay.put(row.getDay(), HyperLogLog.fromBytes(row.getSketch()));
+        }
+        // Spajanje je idempotentno, pa se memorijska skica može spojiti i ako je već upisana
+        for (Map.Entry<VideoViewerSketch.Key, SketchEntry> e : sketches.entrySet()) {
+            VideoViewerSketch.Key key = e.getKey();
+            LocalDate day = key.getDay();
+            if (!key.getVideoId().equals(videoId)) continue;
+            if ((from != null && day.isBefore(from)) || (to != null && day.isAfter(to))) continue;
+            synchronized (e.getValue()) {
+                byDay.computeIfAbsent(day, d -> new HyperLogLog()).merge(e.getValue().hll);
+            }
+        }
+
+        HyperLogLog total = new HyperLogLog();
+        Map<String, Long> perDay = new LinkedHashMap<>();
+        for (Map.Entry<LocalDate, HyperLogLog> e : byDay.entrySet()) {
+            perDay.put(e.getKey().toString(), e.getValue().estimate());
+            total.merge(e.getValue());
+        }
+        Map<String, Object> result = new HashMap<>();
+        result.put("videoId", videoId);
+        result.put("uniqueViewers", total.estimate());
+        result.put("perDay", perDay);
+        return result;
+    }
+
+    private void evictIdle() {
+        long now = System.currentTimeMillis();
+        LocalDate today = LocalDate.now();
+        sketches.entrySet().removeIf(e -> {
+            SketchEntry entry = e.getValue();
+            synchronized (entry) {
+                boolean stale = !e.getKey().getDay().equals(today) || now - entry.lastTouched > IDLE_EVICT_MS;
+                if (!entry.dirty && entry.loaded && stale) {
+                    entry.evicted = true;
+                    return true;
+                }
+                return false;
+            }
+        });
+    }
+
+    private static final class SketchEntry {
+        final HyperLogLog hll = new HyperLogLog();
+        boolean dirty;
+        // true kada je skica spojena sa verzijom iz baze (upisana bar jednom)
+        boolean loaded;
+        boolean evicted;
+        long lastTouched = System.currentTimeMillis();
+    }
+}
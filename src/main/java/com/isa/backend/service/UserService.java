@@ -1,6 +1,7 @@
 package com.isa.backend.service;
 
 import com.isa.backend.dto.RegisterRequest;
+import com.isa.backend.dto.UserProfileDTO;
 import com.isa.backend.model.User;
 import com.isa.backend.repository.UserRepository;
 import org.slf4j.Logger;
@@ -93,18 +94,49 @@ public class UserService {
         userRepository.save(user);
     }
 
+    @Transactional(readOnly = true)
     public User findByEmail(String email) {
         return userRepository.findByEmail(email)
                 .orElseThrow(() -> new RuntimeException("Korisnik nije pronađen"));
     }
 
+    /**
+     * Za prijavu: čita sa primarne baze, da nalog aktiviran pre nekoliko trenutaka može odmah da se prijavi
+     */
+    @Transactional
+    public User findByEmailForLogin(String email) {
+        return userRepository.findByEmail(email)
+                .orElseThrow(() -> new RuntimeException("Korisnik nije pronađen"));
+    }
+
+    @Transactional(readOnly = true)
     public User findById(Long id) {
         return userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Korisnik nije pronađen"));
     }
 
+    @Transactional(readOnly = true)
     public User findByUsername(String username) {
         return userRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("Korisnik nije pronađen"));
     }
-}
\ No newline at end of file
+
+    /**
+     * Javni profil korisnika (bez emaila i lozinke)
+     */
+    @Transactional(readOnly = true)
+    public UserProfileDTO getUserProfile(Long id) {
+        return toProfileDTO(findById(id));
+    }
+
+    public UserProfileDTO toProfileDTO(User user) {
+        UserProfileDTO dto = new UserProfileDTO();
+        dto.setId(user.getId());
+        dto.setUsername(user.getUsername());
+        dto.setFirstName(user.getFirstName());
+        dto.setLastName(user.getLastName());
+        dto.setAddress(user.getAddress());
+        dto.setCreatedAt(user.getCreatedAt());
+        return dto;
+    }
+}
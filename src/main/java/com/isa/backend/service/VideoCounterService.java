@@ -0,0 +1,57 @@
+package com.isa.backend.service;
+
+import com.isa.backend.repository.VideoCounterRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Uvećanja brojača videa u tabeli video_counters (vidi VideoCounter).
+ *
+ * Svako uvećanje ide u nasumičan slot, pa istovremena uvećanja istog videa najčešće ne čekaju na
+ * zaključavanje istog reda. Prvo se pokušava običan UPDATE; ako slot još ne postoji, upsert ga
+ * kreira (i usput proverava da video postoji). Metode učestvuju u transakciji pozivaoca.
+ */
+@Service
+public class VideoCounterService {
+
+    @Autowired
+    private VideoCounterRepository videoCounterRepository;
+
+    @Value("${app.counters.slots:1}")
+    private int slots;
+
+    /**
+     * Vraća false ako video ne postoji.
+     */
+    @Transactional
+    public boolean addViews(Long videoId, long views) {
+        return add(videoId, views, 0, 0);
+    }
+
+    @Transactional
+    public boolean addLikes(Long videoId, long likes) {
+        return add(videoId, 0, likes, 0);
+    }
+
+    @Transactional
+    public boolean addComments(Long videoId, long comments) {
+        return add(videoId, 0, 0, comments);
+    }
+
+    /**
+     * Slot za sledeće uvećanje (koristi i JDBC batch upis komentara).
+     */
+    public int nextSlot() {
+        return slots <= 1 ? 0 : ThreadLocalRandom.current().nextInt(slots);
+    }
+
+    private boolean add(Long videoId, long views, long likes, long comments) {
+        int slot = nextSlot();
+        if (videoCounterRepository.addToSlot(videoId, slot, views, likes, comments) > 0) return true;
+        return videoCounterRepository.upsertSlot(videoId, slot, views, likes, comments) > 0;
+    }
+}
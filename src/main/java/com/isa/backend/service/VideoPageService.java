@@ -0,0 +1,126 @@
+package com.isa.backend.service;
+
+import com.isa.backend.dto.CommentDTO;
+import com.isa.backend.dto.UserProfileDTO;
+import com.isa.backend.dto.VideoPostDTO;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Sklapa celu stranicu videa jednim pozivom: video, prva stranica komentara, profil autora i srodni video snimci.
+ *
+ * Delovi se dohvataju paralelno na virtuelnim nitima; autor kreće čim stigne video (potreban je userId). Svaki deo ima sopstveni timeout (app.video-page.part-timeout-ms):
+ * deo koji ne stigne na vreme ili ne uspe izostaje iz odgovora i navodi se u "missing", a ostatak
+ * stranice se vraća normalno. Bez samog videa stranica nema smisla, pa njegov neuspeh prekida zahtev.
+ */
+@Service
+public class VideoPageService {
+
+    private static final Logger logger = LoggerFactory.getLogger(VideoPageService.class);
+
+    @Autowired
+    private VideoPostService videoPostService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private RelatedVideosService relatedVideosService;
+
+    @Value("${app.video-page.part-timeout-ms:800}")
+    private long partTimeoutMs;
+
+    @Value("${app.video-page.comments-page-size:20}")
+    private int commentsPageSize;
+
+    @Value("${app.video-page.related-count:8}")
+    private int relatedCount;
+
+    // SecurityContext pozivaoca se prenosi na niti delova: read-your-writes rutiranje bira bazu po prijavljenom korisniku
+    private final ExecutorService executor =
+            new DelegatingSecurityContextExecutorService(Executors.newVirtualThreadPerTaskExecutor());
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Vraća delove stranice: video, comments, uploader, related i listu delova koji nedostaju (missing).
+     * Baca RuntimeException ako video ne postoji ili nije dohvaćen na vreme.
+     */
+    public Map<String, Object> getVideoPage(Long id, boolean authenticated) {
+        CompletableFuture<VideoPostDTO> video = part(() -> videoPostService.getVideoPostById(id, authenticated));
+        CompletableFuture<List<CommentDTO>> comments = part(() -> commentService.getCommentsForVideo(id, 0, commentsPageSize));
+        CompletableFuture<UserProfileDTO> uploader = video.thenComposeAsync(
+                v -> part(() -> userService.getUserProfile(v.getUserId())), executor);
+        CompletableFuture<List<VideoPostDTO>> related = part(() -> findRelated(id, authenticated));
+
+        Map<String, Object> page = new LinkedHashMap<>();
+        page.put("video", await(video, "video", true));
+        List<String> missing = new ArrayList<>();
+        page.put("comments", orMissing(comments, "comments", missing));
+        page.put("uploader", orMissing(uploader, "uploader", missing));
+        page.put("related", orMissing(related, "related", missing));
+        page.put("missing", missing);
+        return page;
+    }
+
+    private List<VideoPostDTO> findRelated(Long id, boolean authenticated) {
+        List<Long> ids = relatedVideosService.getRelatedIds(id, relatedCount);
+        return videoPostService.getVideoPostsByIds(ids, authenticated);
+    }
+
+    // Svaki deo ima sopstveni rok, računat od trenutka kada je deo pokrenut
+    private <T> CompletableFuture<T> part(Supplier<T> supplier) {
+        return CompletableFuture.supplyAsync(supplier, executor).orTimeout(partTimeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    private <T> T orMissing(CompletableFuture<T> future, String name, List<String> missing) {
+        T value = await(future, name, false);
+        if (value == null) missing.add(name);
+        return value;
+    }
+
+    private <T> T await(CompletableFuture<T> future, String name, boolean required) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Zahtev je prekinut");
+        } catch (ExecutionException | CompletionException e) {
+            Throwable cause = e.getCause() instanceof CompletionException && e.getCause().getCause() != null
+                    ? e.getCause().getCause() : e.getCause();
+            if (required) {
+                if (cause instanceof TimeoutException) {
+                    throw new IllegalStateException("Video nije učitan na vreme");
+                }
+                throw cause instanceof RuntimeException ? (RuntimeException) cause : new RuntimeException(cause);
+            }
+            logger.warn("Deo stranice videa '{}' nije dostupan: {}", name,
+                    cause instanceof TimeoutException ? "timeout" : String.valueOf(cause));
+            return null;
+        }
+    }
+}
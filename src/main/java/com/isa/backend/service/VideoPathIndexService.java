@@ -0,0 +1,101 @@
+package com.isa.backend.service;
+
+import com.isa.backend.repository.VideoPostRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ograničen keš videoPath -> id za stream i komentare po filename-u.
+ *
+ * Pri startu se unapred popunjava najnovijim objavama (do app.video-path-cache.max-entries), nove objave
+ * se dodaju nakon commit-a, a promašaji se jednom čitaju iz baze (samo id, preko indeksa na videoPath).
+ * Unos se ne proverava pri svakom čitanju: pozivalac koji za keširan id ne nađe video poziva refresh.
+ * Kada je keš pun, pri dodavanju se izbacuje proizvoljan unos.
+ */
+@Service
+public class VideoPathIndexService {
+
+    private static final Logger logger = LoggerFactory.getLogger(VideoPathIndexService.class);
+
+    @Autowired
+    private VideoPostRepository videoPostRepository;
+
+    @Value("${app.video-path-cache.max-entries:200000}")
+    private int maxEntries;
+
+    private final Map<String, Long> idByPath = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void preloadOnStartup() {
+        try {
+            List<Object[]> rows = videoPostRepository.findVideoPathIds(PageRequest.of(0, maxEntries));
+            for (Object[] row : rows) {
+                idByPath.put((String) row[0], (Long) row[1]);
+            }
+            logger.info("Keš videoPath -> id popunjen: {} unosa", idByPath.size());
+        } catch (RuntimeException e) {
+            logger.error("Neuspešno popunjavanje keša videoPath -> id pri startu:", e);
+        }
+    }
+
+    /**
+     * Vraća id videa za dati videoPath — iz memorije, a pri promašaju iz baze.
+     */
+    public Optional<Long> resolve(String videoPath) {
+        if (videoPath == null) return Optional.empty();
+        Long id = idByPath.get(videoPath);
+        if (id != null) return Optional.of(id);
+        return load(videoPath);
+    }
+
+    /**
+     * Poziva se kada keširan id nije pronađen u bazi (video obrisan, a putanja ponovo iskorišćena za novi video):
+     * uklanja unos ako i dalje pokazuje na zastareli id i ponovo čita id iz baze.
+     */
+    public Optional<Long> refresh(String videoPath, Long staleId) {
+        if (videoPath == null) return Optional.empty();
+        if (staleId != null) idByPath.remove(videoPath, staleId);
+        return load(videoPath);
+    }
+
+    public void onVideoPostCreated(String videoPath, Long videoId) {
+        if (videoPath != null && videoId != null) put(videoPath, videoId);
+    }
+
+    public void onVideoPostDeleted(String videoPath) {
+        if (videoPath != null) idByPath.remove(videoPath);
+    }
+
+    public int size() {
+        return idByPath.size();
+    }
+
+    private Optional<Long> load(String videoPath) {
+        Optional<Long> fromDb = videoPostRepository.findIdByVideoPath(videoPath);
+        fromDb.ifPresent(found -> put(videoPath, found));
+        return fromDb;
+    }
+
+    private void put(String videoPath, Long videoId) {
+        if (idByPath.size() >= maxEntries && !idByPath.containsKey(videoPath)) {
+            Iterator<String> it = idByPath.keySet().iterator();
+            if (it.hasNext()) {
+                it.next();
+                it.remove();
+            }
+        }
+        idByPath.put(videoPath, videoId);
+    }
+}
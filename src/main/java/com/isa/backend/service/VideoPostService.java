@@ -1,14 +1,19 @@
 package com.isa.backend.service;
 
+import com.isa.backend.datasource.ReadReplicaRoutingDataSource;
 import com.isa.backend.dto.VideoPostDTO;
 import com.isa.backend.model.VideoPost;
 import com.isa.backend.repository.VideoPostRepository;
-import jakarta.transaction.Transactional;
+import com.isa.backend.util.TransactionHooks;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.transaction.support.TransactionSynchronization;
 import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.multipart.MultipartFile;
@@ -20,6 +25,7 @@ import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -34,9 +40,51 @@ public class VideoPostService {
     @Autowired
     private VideoPostRepository videoPostRepository;
 
+    @Autowired
+    private VideoCounterService videoCounterService;
+
     @Autowired
     private FileStorageService fileStorageService;
 
+    @Autowired
+    private FeedSnapshotService feedSnapshotService;
+
+    @Autowired
+    private TagIndexService tagIndexService;
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private AutocompleteService autocompleteService;
+
+    @Autowired
+    private GeoIndexService geoIndexService;
+
+    @Autowired
+    private TrendingService trendingService;
+
+    @Autowired
+    private ViewAnalyticsService viewAnalyticsService;
+
+    @Autowired
+    private UniqueViewerService uniqueViewerService;
+
+    @Autowired
+    private VideoPathIndexService videoPathIndexService;
+
+    @Autowired
+    private HotVideosService hotVideosService;
+
+    @Autowired
+    private RelatedVideosService relatedVideosService;
+
+    @Autowired
+    private TimelineService timelineService;
+
+    @Autowired
+    private LiveCounterService liveCounterService;
+
     @Value("${file.upload.dir:uploads/videos}")
     private String videoUploadDir;
 
@@ -55,6 +103,8 @@ public class VideoPostService {
             MultipartFile thumbnail,
             MultipartFile video,
             String location,
+            Double latitude,
+            Double longitude,
             Long userId
     ) throws IOException {
 
@@ -67,6 +117,8 @@ public class VideoPostService {
             throw new IllegalArgumentException("Video mora biti pravi MP4 fajl!");
         }
 
+        GeoIndexService.validateCoordinates(latitude, longitude);
+
         // Generiši finalna jedinstvena imena (bez ekstenzije promenjene)
         String originalVideoName = video.getOriginalFilename();
         String videoExt = originalVideoName != null ? originalVideoName.substring(originalVideoName.lastIndexOf('.')) : "";
@@ -101,6 +153,8 @@ public class VideoPostService {
             videoPost.setVideoPath(finalVideoFilename);
             videoPost.setVideoSize(video.getSize());
             videoPost.setLocation(location);
+            videoPost.setLatitude(latitude);
+            videoPost.setLongitude(longitude);
             videoPost.setUserId(userId);
 
             // Sačuvaj u bazu (još uvek temp fajlovi postoje)
@@ -110,6 +164,7 @@ public class VideoPostService {
             final String tt = tempThumbName;
             final String fv = finalVideoFilename;
             final String ft = finalThumbFilename;
+            final VideoPostDTO createdDto = convertToDTO(savedPost, true);
             // Registruj transaction synchronization: na commit premestiti temp fajlove u finalne, na rollback obrisati temp fajlove
             TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
                 @Override
@@ -121,6 +176,18 @@ public class VideoPostService {
                         // Log error (ne možemo rollback-ovati ovde jer transakcija je već commit-ovana)
                         logger.error("Greška pri premještanju fajlova nakon commita:", e);
                     }
+                    // Svaki indeks se ažurira nezavisno: greška u jednom ne preskače ostale niti obara već sačuvan upload
+                    Long id = createdDto.getId();
+                    afterCommitUpdate("feed snapshot", id, () -> feedSnapshotService.onVideoPostCreated(createdDto));
+                    afterCommitUpdate("indeks tagova", id,
+                            () -> tagIndexService.onVideoPostCreated(id, createdDto.getTags(), createdDto.getCreatedAt()));
+                    afterCommitUpdate("full-text indeks", id,
+                            () -> searchIndexService.onVideoPostCreated(id, title, description, createdDto.getTags()));
+                    afterCommitUpdate("autocomplete", id, () -> autocompleteService.onVideoPostCreated(title, createdDto.getTags()));
+                    afterCommitUpdate("geo indeks", id, () -> geoIndexService.onVideoPostCreated(id, latitude, longitude));
+                    afterCommitUpdate("keš videoPath -> id", id, () -> videoPathIndexService.onVideoPostCreated(fv, id));
+                    afterCommitUpdate("srodni video snimci", id, () -> relatedVideosService.onVideoPostCreated(id, createdDto.getTags()));
+                    afterCommitUpdate("home timeline", id, () -> timelineService.onVideoPostCreated(id, userId));
                 }
 
                 @Override
@@ -136,7 +203,7 @@ public class VideoPostService {
                 }
             });
 
-            return convertToDTO(savedPost, true);
+            return createdDto;
 
         } catch (IOException e) {
             // cleanup temp files if any exist
@@ -151,6 +218,15 @@ public class VideoPostService {
         }
     }
 
+    // Indeksi su izvedeni iz baze, a upload je već commit-ovan: greška se samo loguje
+    private void afterCommitUpdate(String index, Long videoId, Runnable update) {
+        try {
+            update.run();
+        } catch (RuntimeException e) {
+            logger.warn("Neuspešno ažuriranje ({}) za video {}: {}", index, videoId, e.getMessage());
+        }
+    }
+
     /**
      * Vraća sve video objave
      */
@@ -158,6 +234,7 @@ public class VideoPostService {
         return getAllVideoPosts(false);
     }
 
+    @Transactional(readOnly = true)
     public List<VideoPostDTO> getAllVideoPosts(boolean authenticated) {
         return videoPostRepository.findAllByOrderByCreatedAtDesc()
                 .stream()
@@ -165,13 +242,92 @@ public class VideoPostService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Vraća jednu stranicu feed-a (najnovije prvo) direktno iz baze
+     */
+    @Transactional(readOnly = true)
+    public List<VideoPostDTO> getVideoPostsPage(int page, int size, boolean authenticated) {
+        return videoPostRepository.findAllByOrderByCreatedAtDesc(PageRequest.of(page, size))
+                .stream()
+                .map(vp -> convertToDTO(vp, authenticated))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Vraća unapred serijalizovan feed iz snapshot-a (gradi ga iz baze ako je potrebno).
+     * Vraća null ako tražena stranica nije pokrivena snapshot-om — tada se koristi obična putanja.
+     */
+    @Transactional(readOnly = true)
+    public FeedSnapshotService.EncodedFeed getEncodedFeed(Integer page, Integer size, boolean authenticated, boolean gzip) {
+        if (feedSnapshotService.needsRebuild()) {
+            // Snapshot je deljen i dugo živi: replika koja kasni bi ga izgradila bez upravo dodatog upload-a
+            ReadReplicaRoutingDataSource.readFromPrimary();
+            try {
+                feedSnapshotService.rebuild(() -> videoPostRepository
+                        .findAllByOrderByCreatedAtDesc(PageRequest.of(0, feedSnapshotService.getCapacity() + 1))
+                        .stream()
+                        .map(vp -> convertToDTO(vp, false))
+                        .collect(Collectors.toList()));
+            } catch (RuntimeException e) {
+                logger.warn("Neuspešna izgradnja feed snapshot-a, koristi se direktno čitanje: {}", e.getMessage());
+            }
+        }
+        return feedSnapshotService.lookup(page, size, authenticated, gzip);
+    }
+
+    /**
+     * Vraća DTO-ove za date id-jeve u istom redosledu (nepostojeći id-jevi se preskaču)
+     */
+    @Transactional(readOnly = true)
+    public List<VideoPostDTO> getVideoPostsByIds(List<Long> ids, boolean authenticated) {
+        if (ids.isEmpty()) return new ArrayList<>();
+        Map<Long, VideoPost> byId = new HashMap<>();
+        for (VideoPost vp : videoPostRepository.findAllById(ids)) {
+            byId.put(vp.getId(), vp);
+        }
+        List<VideoPostDTO> result = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            VideoPost vp = byId.get(id);
+            if (vp != null) result.add(convertToDTO(vp, authenticated));
+        }
+        return result;
+    }
+
+    /**
+     * Periodično učitava DTO-ove za trenutni trending top-K (jedan upit) i objavljuje ih u TrendingService.
+     * Transakcija (scheduler poziva metodu kroz proxy) drži sesiju otvorenom dok convertToDTO čita lazy tagove.
+     */
+    @Scheduled(fixedDelayString = "${app.trending.refresh-ms:30000}", initialDelayString = "${app.trending.refresh-ms:30000}")
+    @Transactional(readOnly = true)
+    public void refreshTrendingSnapshot() {
+        List<Long> ids = trendingService.getTopIds();
+        Map<Long, VideoPost> byId = new HashMap<>();
+        if (!ids.isEmpty()) {
+            for (VideoPost vp : videoPostRepository.findAllById(ids)) {
+                byId.put(vp.getId(), vp);
+            }
+        }
+        List<VideoPostDTO> anonymous = new ArrayList<>(ids.size());
+        List<VideoPostDTO> authenticated = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            VideoPost vp = byId.get(id);
+            if (vp == null) continue;
+            anonymous.add(convertToDTO(vp, false));
+            authenticated.add(convertToDTO(vp, true));
+        }
+        trendingService.publish(anonymous, authenticated);
+    }
+
     /**
      * Vraća video objavu po ID-u
      */
+    @Transactional(readOnly = true)
     public VideoPostDTO getVideoPostById(Long id) {
         return getVideoPostById(id, false);
     }
 
+    @Cacheable(value = "videoPosts", key = "#id + '_' + #authenticated", sync = true)
+    @Transactional(readOnly = true)
     public VideoPostDTO getVideoPostById(Long id, boolean authenticated) {
         VideoPost videoPost = videoPostRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Video objava nije pronađena!"));
@@ -180,13 +336,38 @@ public class VideoPostService {
 
     /**
      * Povećava broj pregleda za data videoPath (koristi se u stream endpoint-u)
-     * Thread-safe implementacija koristi atomski UPDATE na nivou baze podataka
+     * Thread-safe implementacija koristi atomski UPDATE na nivou baze podataka (tabela video_counters)
      */
     @Transactional
     public void incrementViewCountByPath(String videoPath) {
-        int updated = videoPostRepository.incrementViewCountByVideoPath(videoPath);
-        if (updated == 0) {
+        incrementViewCountByPath(videoPath, null);
+    }
+
+    /**
+     * Kao incrementViewCountByPath, uz evidentiranje gledaoca za brojanje jedinstvenih gledalaca
+     */
+    @Transactional
+    public void incrementViewCountByPath(String videoPath, String viewerKey) {
+        // Samo brojač — gledalac ne postaje "sticky" za čitanja sa primarne baze
+        ReadReplicaRoutingDataSource.skipReadYourWrites();
+        Long cached = videoPathIndexService.resolve(videoPath).orElse(null);
+        Long id = cached;
+        if (cached != null && !videoCounterService.addViews(cached, 1)) {
+            // Keširan id pripada obrisanom videu (putanja je možda ponovo iskorišćena) — id se ponovo čita iz baze
+            id = videoPathIndexService.refresh(videoPath, cached).orElse(null);
+            if (id != null && (id.equals(cached) || !videoCounterService.addViews(id, 1))) id = null;
+        }
+        if (id == null) {
             logger.warn("Video sa videoPath '{}' nije pronađen ili view count nije ažuriran.", videoPath);
+            return;
+        }
+        final Long videoId = id;
+        onViewCounted(videoId);
+        if (viewerKey != null) {
+            TransactionHooks.afterCommit(() -> {
+                uniqueViewerService.recordViewer(videoId, viewerKey);
+                relatedVideosService.recordView(viewerKey, videoId);
+            });
         }
     }
 
@@ -195,15 +376,42 @@ public class VideoPostService {
      */
     @Transactional
     public void incrementViewCountById(Long id) {
-        int updated = videoPostRepository.incrementViewCountById(id);
-        if (updated == 0) {
+        ReadReplicaRoutingDataSource.skipReadYourWrites();
+        if (!videoCounterService.addViews(id, 1)) {
             throw new RuntimeException("Video objava nije pronađena za dati id: " + id);
         }
+        onViewCounted(id);
+    }
+
+    // Post-commit ažuriranje in-memory struktura nakon evidentiranog pregleda
+    private void onViewCounted(Long id) {
+        TransactionHooks.afterCommit(() -> {
+            feedSnapshotService.markCountersDirty();
+            tagIndexService.recordView(id);
+            trendingService.recordView(id);
+            viewAnalyticsService.recordView(id);
+            hotVideosService.recordView(id);
+            liveCounterService.recordView(id);
+        });
+    }
+
+    @Transactional(readOnly = true)
+    public boolean existsById(Long id) {
+        return videoPostRepository.existsById(id);
+    }
+
+    /**
+     * Vraća id videa za sačuvani videoPath (iz keša VideoPathIndexService, bez učitavanja entiteta)
+     */
+    public Long resolveVideoIdByPath(String videoPath) {
+        return videoPathIndexService.resolve(videoPath)
+                .orElseThrow(() -> new RuntimeException("Video objava nije pronađena za dati filename: " + videoPath));
     }
 
     /**
      * Vraća VideoPost entitet na osnovu sačuvanog videoPath (koristi se za mapiranje filename -> videoId)
      */
+    @Transactional(readOnly = true)
     public VideoPost getVideoPostByVideoPath(String videoPath) {
         return videoPostRepository.findByVideoPath(videoPath)
                 .orElseThrow(() -> new RuntimeException("Video objava nije pronađena za dati filename: " + videoPath));
@@ -298,10 +506,15 @@ public class VideoPostService {
      */
     @Transactional
     public void incrementLikeCount(Long id) {
-        VideoPost videoPost = videoPostRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Video objava nije pronađena za dati id: " + id));
-        videoPost.setLikeCount(videoPost.getLikeCount() + 1);
-        videoPostRepository.save(videoPost);
+        if (!videoCounterService.addLikes(id, 1)) {
+            throw new RuntimeException("Video objava nije pronađena za dati id: " + id);
+        }
+        TransactionHooks.afterCommit(() -> {
+            feedSnapshotService.markCountersDirty();
+            tagIndexService.recordLike(id);
+            trendingService.recordLike(id);
+            liveCounterService.recordLike(id);
+        });
     }
 
     /**
@@ -312,12 +525,15 @@ public class VideoPostService {
         dto.setId(videoPost.getId());
         dto.setTitle(videoPost.getTitle());
         dto.setDescription(videoPost.getDescription());
-        dto.setTags(videoPost.getTags());
+        // Kopija, da DTO ne drži lazy Hibernate kolekciju (DTO se kešira i serijalizuje van sesije)
+        dto.setTags(videoPost.getTags() != null ? new HashSet<>(videoPost.getTags()) : new HashSet<>());
         dto.setThumbnailUrl("/api/videos/thumbnail/" + videoPost.getThumbnailPath());
         dto.setVideoUrl("/api/videos/stream/" + videoPost.getVideoPath());
         dto.setVideoSize(videoPost.getVideoSize());
         dto.setCreatedAt(videoPost.getCreatedAt());
         dto.setLocation(videoPost.getLocation());
+        dto.setLatitude(videoPost.getLatitude());
+        dto.setLongitude(videoPost.getLongitude());
         dto.setUserId(videoPost.getUserId());
         dto.setViewCount(videoPost.getViewCount());
         dto.setLikeCount(videoPost.getLikeCount());
@@ -0,0 +1,247 @@
+package com.isa.backend.service;
+
+import com.isa.backend.model.VideoViewDaily;
+import com.isa.backend.model.VideoViewHourly;
+import com.isa.backend.repository.VideoViewDailyRepository;
+import com.isa.backend.repository.VideoViewHourlyRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Vremenska statistika pregleda po videu.
+ *
+ * Pregledi se u memoriji sabiraju po (video, sat) i periodično upisuju jednim batch upsert-om u
+ * video_view_hourly, pa je broj upisa srazmeran broju aktivnih videa po satu, a ne broju pregleda.
+ * Jednom dnevno se satni rollup-ovi sabiraju u video_view_daily, a satni stariji od
+ * app.analytics.hourly-retention-days se brišu.
+ */
+@Service
+public class ViewAnalyticsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ViewAnalyticsService.class);
+
+    private static final String UPSERT_HOURLY =
+            "INSERT INTO video_view_hourly (video_id, bucket_start, views) VALUES (?, ?, ?) " +
+            "ON CONFLICT (video_id, bucket_start) DO UPDATE SET views = video_view_hourly.views + EXCLUDED.views";
+
+    // Idempotentno: dan se uvek preračunava iz satnih, pa ponovno pokretanje ne duplira brojeve
+    private static final String COMPACT_DAILY =
+            "INSERT INTO video_view_daily (video_id, view_day, views) " +
+            "SELECT video_id, CAST(bucket_start AS DATE), SUM(views) FROM video_view_hourly " +
+            "WHERE bucket_start >= ? AND bucket_start < ? GROUP BY video_id, CAST(bucket_start AS DATE) " +
+            "ON CONFLICT (video_id, view_day) DO UPDATE SET views = EXCLUDED.views";
+
+    private static final String DELETE_OLD_HOURLY = "DELETE FROM video_view_hourly WHERE bucket_start < ?";
+
+    private static final int MAX_RANGE_HOURS = 24 * 31;
+    private static final int MAX_RANGE_DAYS = 366 * 2;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private VideoViewHourlyRepository hourlyRepository;
+
+    @Autowired
+    private VideoViewDailyRepository dailyRepository;
+
+    @Value("${app.analytics.hourly-retention-days:14}")
+    private int hourlyRetentionDays;
+
+    // Pregledi koji još nisu upisani u bazu; zamena bafera pri flush-u ide pod write lock-om
+    private volatile ConcurrentHashMap<BucketKey, LongAdder> pending = new ConcurrentHashMap<>();
+    private final ReentrantReadWriteLock swapLock = new ReentrantReadWriteLock();
+
+    /**
+     * Evidentira jedan pregled (poziva se nakon commit-a uvećanja viewCount-a).
+     */
+    public void recordView(Long videoId) {
+        if (videoId == null) return;
+        BucketKey key = new BucketKey(videoId, LocalDateTime.now().truncatedTo(ChronoUnit.HOURS));
+        swapLock.readLock().lock();
+        try {
+            pending.computeIfAbsent(key, k -> new LongAdder()).increment();
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Upisuje nakupljene satne brojače jednim batch upsert-om. Ako upis ne uspe, brojači se vraćaju u bafer.
+     */
+    @Scheduled(fixedDelayString = "${app.analytics.flush-ms:60000}", initialDelayString = "${app.analytics.flush-ms:60000}")
+    public synchronized void flush() {
+        if (pending.isEmpty()) return;
+        ConcurrentHashMap<BucketKey, LongAdder> batch;
+        swapLock.writeLock().lock();
+        try {
+            batch = pending;
+            pending = new ConcurrentHashMap<>();
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+
+        List<Object[]> rows = new ArrayList<>(batch.size());
+        for (Map.Entry<BucketKey, LongAdder> e : batch.entrySet()) {
+            long views = e.getValue().sum();
+            if (views > 0) {
+                rows.add(new Object[]{e.getKey().videoId, Timestamp.valueOf(e.getKey().hour), views});
+            }
+        }
+        try {
+            jdbcTemplate.batchUpdate(UPSERT_HOURLY, rows);
+            logger.debug("Upisano {} satnih rollup-ova pregleda", rows.size());
+        } catch (RuntimeException e) {
+            logger.error("Neuspešan upis satnih rollup-ova, pokušaće se ponovo:", e);
+            swapLock.readLock().lock();
+            try {
+                for (Map.Entry<BucketKey, LongAdder> entry : batch.entrySet()) {
+                    pending.computeIfAbsent(entry.getKey(), k -> new LongAdder()).add(entry.getValue().sum());
+                }
+            } finally {
+                swapLock.readLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Sabira završene dane iz satnih rollup-ova u dnevne i briše stare satne (svaki dan u 00:10).
+     */
+    @Scheduled(cron = "${app.analytics.compaction-cron:0 10 0 * * *}")
+    public void compactDaily() {
+        flush();
+        LocalDate today = LocalDate.now();
+        LocalDateTime from = today.minusDays(hourlyRetentionDays).atStartOfDay();
+        LocalDateTime to = today.atStartOfDay();
+        int days = jdbcTemplate.update(COMPACT_DAILY, Timestamp.valueOf(from), Timestamp.valueOf(to));
+        int deleted = jdbcTemplate.update(DELETE_OLD_HOURLY, Timestamp.valueOf(from));
+        logger.info("Kompakcija pregleda: {} dnevnih rollup-ova, obrisano {} starih satnih", days, deleted);
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            logger.warn("Neuspešan upis pregleda pri gašenju: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Satna vremenska serija [from, to) — uključuje i pregledi koji još nisu upisani u bazu.
+     * Sati bez pregleda se vraćaju sa 0.
+     */
+    public Map<LocalDateTime, Long> getHourlySeries(Long videoId, LocalDateTime from, LocalDateTime to) {
+        LocalDateTime start = from.truncatedTo(ChronoUnit.HOURS);
+        LocalDateTime end = to.truncatedTo(ChronoUnit.HOURS);
+        if (!start.isBefore(end)) {
+            throw new IllegalArgumentException("Početak opsega mora biti pre kraja");
+        }
+        if (ChronoUnit.HOURS.between(start, end) > MAX_RANGE_HOURS) {
+            throw new IllegalArgumentException("Satni opseg ne može biti duži od " + MAX_RANGE_HOURS / 24 + " dana");
+        }
+
+        Map<LocalDateTime, Long> series = new LinkedHashMap<>();
+        for (LocalDateTime h = start; h.isBefore(end); h = h.plusHours(1)) {
+            series.put(h, 0L);
+        }
+        for (VideoViewHourly row : hourlyRepository
+                .findByVideoIdAndBucketStartGreaterThanEqualAndBucketStartLessThanOrderByBucketStartAsc(videoId, start, end)) {
+            series.merge(row.getBucketStart(), row.getViews(), Long::sum);
+        }
+        addPending(videoId, series, start, end, false);
+        return series;
+    }
+
+    /**
+     * Dnevna vremenska serija [from, to] (oba dana uključena). Dani koji su još u satnoj tabeli
+     * računaju se iz nje (sveže), a stariji iz dnevnih rollup-ova.
+     */
+    public Map<LocalDate, Long> getDailySeries(Long videoId, LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("Početak opsega mora biti pre kraja");
+        }
+        if (ChronoUnit.DAYS.between(from, to) > MAX_RANGE_DAYS) {
+            throw new IllegalArgumentException("Dnevni opseg ne može biti duži od " + MAX_RANGE_DAYS + " dana");
+        }
+
+        Map<LocalDate, Long> series = new TreeMap<>();
+        for (LocalDate d = from; !d.isAfter(to); d = d.plusDays(1)) {
+            series.put(d, 0L);
+        }
+        for (VideoViewDaily row : dailyRepository.findByVideoIdAndDayBetweenOrderByDayAsc(videoId, from, to)) {
+            series.put(row.getDay(), row.getViews());
+        }
+
+        // Satni rollup-ovi pokrivaju cele dane (brišu se po granici dana), pa zamenjuju dnevni zbir
+        LocalDateTime hourlyFrom = from.atStartOfDay();
+        LocalDateTime hourlyTo = to.plusDays(1).atStartOfDay();
+        Map<LocalDate, Long> fromHourly = new TreeMap<>();
+        for (VideoViewHourly row : hourlyRepository
+                .findByVideoIdAndBucketStartGreaterThanEqualAndBucketStartLessThanOrderByBucketStartAsc(videoId, hourlyFrom, hourlyTo)) {
+            fromHourly.merge(row.getBucketStart().toLocalDate(), row.getViews(), Long::sum);
+        }
+        series.putAll(fromHourly);
+
+        Map<LocalDateTime, Long> pendingHours = new TreeMap<>();
+        addPending(videoId, pendingHours, hourlyFrom, hourlyTo, true);
+        for (Map.Entry<LocalDateTime, Long> e : pendingHours.entrySet()) {
+            series.merge(e.getKey().toLocalDate(), e.getValue(), Long::sum);
+        }
+        return series;
+    }
+
+    private void addPending(Long videoId, Map<LocalDateTime, Long> series, LocalDateTime start, LocalDateTime end,
+                            boolean addMissing) {
+        for (Map.Entry<BucketKey, LongAdder> e : pending.entrySet()) {
+            BucketKey key = e.getKey();
+            if (!key.videoId.equals(videoId) || key.hour.isBefore(start) || !key.hour.isBefore(end)) continue;
+            if (addMissing || series.containsKey(key.hour)) {
+                series.merge(key.hour, e.getValue().sum(), Long::sum);
+            }
+        }
+    }
+
+    private static final class BucketKey {
+        final Long videoId;
+        final LocalDateTime hour;
+
+        BucketKey(Long videoId, LocalDateTime hour) {
+            this.videoId = videoId;
+            this.hour = hour;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof BucketKey)) return false;
+            BucketKey other = (BucketKey) o;
+            return videoId.equals(other.videoId) && hour.equals(other.hour);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(videoId, hour);
+        }
+    }
+}
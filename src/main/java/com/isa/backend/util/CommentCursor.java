@@ -0,0 +1,47 @@
+package com.isa.backend.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Neprozirni kursor za keyset paginaciju komentara: pozicija (createdAt, id) poslednjeg komentara na stranici.
+ * Kodira se kao base64url bez paddinga, pa je bezbedan u URL-u i isti kursor uvek daje istu stranicu.
+ */
+public final class CommentCursor {
+
+    private final LocalDateTime createdAt;
+    private final long id;
+
+    public CommentCursor(LocalDateTime createdAt, long id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String encode() {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static CommentCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            if (separator < 0) throw new IllegalArgumentException("Neispravan kursor");
+            return new CommentCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            // NumberFormatException je podklasa IllegalArgumentException
+            throw new IllegalArgumentException("Neispravan kursor");
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.isa.backend.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Materijalizovane putanje komentara: id-jevi predaka od korena do samog komentara, svaki kao segment
+ * od 10 cifara sa vodećim nulama, odvojeni tačkom (npr. "0000000042.0000000057").
+ *
+ * Zbog fiksne širine segmenata leksikografski poredak putanja je DFS poredak stabla (odgovori po id-ju),
+ * a celo podstablo komentara P je opseg [P, P + "/") — '/' je prvi znak posle '.', a manji od cifara.
+ * Kolona se poredi bajt po bajt (COLLATE "C"), pa opseg koristi običan btree indeks.
+ */
+public final class CommentPaths {
+
+    public static final int SEGMENT_LENGTH = 10;
+    private static final char SEPARATOR = '.';
+
+    private CommentPaths() {}
+
+    public static String segment(long id) {
+        if (id < 0 || id > 9_999_999_999L) {
+            throw new IllegalArgumentException("Id komentara van opsega putanje: " + id);
+        }
+        String digits = Long.toString(id);
+        return "0".repeat(SEGMENT_LENGTH - digits.length()) + digits;
+    }
+
+    public static String child(String parentPath, long id) {
+        return parentPath == null ? segment(id) : parentPath + SEPARATOR + segment(id);
+    }
+
+    /**
+     * Isključiva gornja granica opsega podstabla.
+     */
+    public static String subtreeUpperBound(String path) {
+        return path + '/';
+    }
+
+    /**
+     * Id-jevi svih predaka (bez samog komentara), od korena naniže.
+     */
+    public static List<Long> ancestorIds(String path) {
+        List<Long> ids = new ArrayList<>();
+        int start = 0;
+        while (true) {
+            int end = path.indexOf(SEPARATOR, start);
+            if (end < 0) break;
+            ids.add(Long.parseLong(path.substring(start, end)));
+            start = end + 1;
+        }
+        return ids;
+    }
+}
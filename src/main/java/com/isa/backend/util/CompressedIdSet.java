@@ -0,0 +1,475 @@
+package com.isa.backend.util;
+
+import java.util.Arrays;
+
+/**
+ * Kompresovan skup nenegativnih int id-jeva po uzoru na Roaring bitmape.
+ *
+ * Id se deli na gornjih 16 bitova (ključ kontejnera) i donjih 16 bitova (vrednost u kontejneru).
+ * Retki kontejneri su sortirani char nizovi (do 4096 elemenata, 2 bajta po id-ju), a gusti su
+ * bitmape od 8KB. AND/OR/ANDNOT se rade kontejner po kontejner, bez raspakivanja celog skupa.
+ *
+ * Klasa nije thread-safe; pozivalac obezbeđuje sinhronizaciju.
+ */
+public class CompressedIdSet {
+
+    private static final int ARRAY_MAX = 4096;
+    private static final int BITMAP_WORDS = 1024;
+
+    private char[] keys = new char[4];
+    private Container[] containers = new Container[4];
+    private int size = 0;
+
+    public static CompressedIdSet of(int... ids) {
+        CompressedIdSet set = new CompressedIdSet();
+        for (int id : ids) set.add(id);
+        return set;
+    }
+
+    public boolean add(int id) {
+        checkId(id);
+        char high = (char) (id >>> 16);
+        int i = indexOf(high);
+        if (i < 0) {
+            i = -i - 1;
+            insertContainer(i, high, new ArrayContainer());
+        }
+        Container c = containers[i];
+        boolean added = c.add((char) id);
+        if (c instanceof ArrayContainer && c.cardinality() > ARRAY_MAX) {
+            containers[i] = ((ArrayContainer) c).toBitmap();
+        }
+        return added;
+    }
+
+    public boolean remove(int id) {
+        if (id < 0) return false;
+        int i = indexOf((char) (id >>> 16));
+        if (i < 0) return false;
+        Container c = containers[i];
+        boolean removed = c.remove((char) id);
+        if (c.cardinality() == 0) {
+            removeContainer(i);
+        } else if (c instanceof BitmapContainer && c.cardinality() <= ARRAY_MAX) {
+            containers[i] = ((BitmapContainer) c).toArray();
+        }
+        return removed;
+    }
+
+    public boolean contains(int id) {
+        if (id < 0) return false;
+        int i = indexOf((char) (id >>> 16));
+        return i >= 0 && containers[i].contains((char) id);
+    }
+
+    public int cardinality() {
+        int total = 0;
+        for (int i = 0; i < size; i++) total += containers[i].cardinality();
+        return total;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Približna memorija koju zauzimaju kontejneri (u bajtovima), za metrike.
+     */
+    public long sizeInBytes() {
+        long bytes = keys.length * 2L + containers.length * 8L;
+        for (int i = 0; i < size; i++) bytes += containers[i].sizeInBytes();
+        return bytes;
+    }
+
+    /**
+     * Vraća sve id-jeve u rastućem redosledu.
+     */
+    public int[] toArray() {
+        int[] out = new int[cardinality()];
+        int pos = 0;
+        for (int i = 0; i < size; i++) {
+            pos = containers[i].fill(out, pos, keys[i] << 16);
+        }
+        return out;
+    }
+
+    public CompressedIdSet copy() {
+        CompressedIdSet copy = new CompressedIdSet();
+        copy.keys = Arrays.copyOf(keys, Math.max(4, size));
+        copy.containers = new Container[copy.keys.length];
+        for (int i = 0; i < size; i++) copy.containers[i] = containers[i].copy();
+        copy.size = size;
+        return copy;
+    }
+
+    public static CompressedIdSet and(CompressedIdSet a, CompressedIdSet b) {
+        CompressedIdSet out = new CompressedIdSet();
+        int i = 0, j = 0;
+        while (i < a.size && j < b.size) {
+            if (a.keys[i] < b.keys[j]) {
+                i++;
+            } else if (a.keys[i] > b.keys[j]) {
+                j++;
+            } else {
+                Container c = a.containers[i].and(b.containers[j]);
+                if (c.cardinality() > 0) out.appendContainer(a.keys[i], c);
+                i++;
+                j++;
+            }
+        }
+        return out;
+    }
+
+    public static CompressedIdSet or(CompressedIdSet a, CompressedIdSet b) {
+        CompressedIdSet out = new CompressedIdSet();
+        int i = 0, j = 0;
+        while (i < a.size || j < b.size) {
+            if (j >= b.size || (i < a.size && a.keys[i] < b.keys[j])) {
+                out.appendContainer(a.keys[i], a.containers[i].copy());
+                i++;
+            } else if (i >= a.size || a.keys[i] > b.keys[j]) {
+                out.appendContainer(b.keys[j], b.containers[j].copy());
+                j++;
+            } else {
+                out.appendContainer(a.keys[i], a.containers[i].or(b.containers[j]));
+                i++;
+                j++;
+            }
+        }
+        return out;
+    }
+
+    public static CompressedIdSet andNot(CompressedIdSet a, CompressedIdSet b) {
+        CompressedIdSet out = new CompressedIdSet();
+        int j = 0;
+        for (int i = 0; i < a.size; i++) {
+            while (j < b.size && b.keys[j] < a.keys[i]) j++;
+            Container c = (j < b.size && b.keys[j] == a.keys[i])
+                    ? a.containers[i].andNot(b.containers[j])
+                    : a.containers[i].copy();
+            if (c.cardinality() > 0) out.appendContainer(a.keys[i], c);
+        }
+        return out;
+    }
+
+    private static void checkId(int id) {
+        if (id < 0) throw new IllegalArgumentException("Id mora biti nenegativan: " + id);
+    }
+
+    private int indexOf(char high) {
+        return Arrays.binarySearch(keys, 0, size, high);
+    }
+
+    private void insertContainer(int index, char high, Container c) {
+        ensureCapacity(size + 1);
+        System.arraycopy(keys, index, keys, index + 1, size - index);
+        System.arraycopy(containers, index, containers, index + 1, size - index);
+        keys[index] = high;
+        containers[index] = c;
+        size++;
+    }
+
+    private void appendContainer(char high, Container c) {
+        ensureCapacity(size + 1);
+        keys[size] = high;
+        containers[size] = normalize(c);
+        size++;
+    }
+
+    private void removeContainer(int index) {
+        System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+        System.arraycopy(containers, index + 1, containers, index, size - index - 1);
+        size--;
+        containers[size] = null;
+    }
+
+    private void ensureCapacity(int needed) {
+        if (needed > keys.length) {
+            int newLength = Math.max(needed, keys.length * 2);
+            keys = Arrays.copyOf(keys, newLength);
+            containers = Arrays.copyOf(containers, newLength);
+        }
+    }
+
+    private static Container normalize(Container c) {
+        if (c instanceof BitmapContainer && c.cardinality() <= ARRAY_MAX) {
+            return ((BitmapContainer) c).toArray();
+        }
+        if (c instanceof ArrayContainer && c.cardinality() > ARRAY_MAX) {
+            return ((ArrayContainer) c).toBitmap();
+        }
+        return c;
+    }
+
+    private interface Container {
+        boolean add(char value);
+
+        boolean remove(char value);
+
+        boolean contains(char value);
+
+        int cardinality();
+
+        long sizeInBytes();
+
+        int fill(int[] out, int pos, int base);
+
+        Container copy();
+
+        Container and(Container other);
+
+        Container or(Container other);
+
+        Container andNot(Container other);
+
+        BitmapContainer asBitmap();
+    }
+
+    private static final class ArrayContainer implements Container {
+        char[] values;
+        int cardinality;
+
+        ArrayContainer() {
+            this(new char[4], 0);
+        }
+
+        ArrayContainer(char[] values, int cardinality) {
+            this.values = values;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        public boolean add(char value) {
+            int i = Arrays.binarySearch(values, 0, cardinality, value);
+            if (i >= 0) return false;
+            i = -i - 1;
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_MAX + 1, values.length * 2));
+            }
+            System.arraycopy(values, i, values, i + 1, cardinality - i);
+            values[i] = value;
+            cardinality++;
+            return true;
+        }
+
+        @Override
+        public boolean remove(char value) {
+            int i = Arrays.binarySearch(values, 0, cardinality, value);
+            if (i < 0) return false;
+            System.arraycopy(values, i + 1, values, i, cardinality - i - 1);
+            cardinality--;
+            return true;
+        }
+
+        @Override
+        public boolean contains(char value) {
+            return Arrays.binarySearch(values, 0, cardinality, value) >= 0;
+        }
+
+        @Override
+        public int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        public long sizeInBytes() {
+            return 16 + values.length * 2L;
+        }
+
+        @Override
+        public int fill(int[] out, int pos, int base) {
+            for (int i = 0; i < cardinality; i++) out[pos++] = base | values[i];
+            return pos;
+        }
+
+        @Override
+        public Container copy() {
+            return new ArrayContainer(Arrays.copyOf(values, Math.max(4, cardinality)), cardinality);
+        }
+
+        @Override
+        public Container and(Container other) {
+            if (other instanceof BitmapContainer) {
+                BitmapContainer b = (BitmapContainer) other;
+                char[] out = new char[cardinality];
+                int n = 0;
+                for (int i = 0; i < cardinality; i++) {
+                    if (b.contains(values[i])) out[n++] = values[i];
+                }
+                return new ArrayContainer(out, n);
+            }
+            ArrayContainer o = (ArrayContainer) other;
+            char[] out = new char[Math.min(cardinality, o.cardinality)];
+            int i = 0, j = 0, n = 0;
+            while (i < cardinality && j < o.cardinality) {
+                if (values[i] < o.values[j]) i++;
+                else if (values[i] > o.values[j]) j++;
+                else {
+                    out[n++] = values[i];
+                    i++;
+                    j++;
+                }
+            }
+            return new ArrayContainer(out, n);
+        }
+
+        @Override
+        public Container or(Container other) {
+            if (other instanceof BitmapContainer || cardinality + other.cardinality() > ARRAY_MAX) {
+                return asBitmap().or(other);
+            }
+            ArrayContainer o = (ArrayContainer) other;
+            char[] out = new char[cardinality + o.cardinality];
+            int i = 0, j = 0, n = 0;
+            while (i < cardinality || j < o.cardinality) {
+                if (j >= o.cardinality || (i < cardinality && values[i] < o.values[j])) out[n++] = values[i++];
+                else if (i >= cardinality || values[i] > o.values[j]) out[n++] = o.values[j++];
+                else {
+                    out[n++] = values[i];
+                    i++;
+                    j++;
+                }
+            }
+            return new ArrayContainer(out, n);
+        }
+
+        @Override
+        public Container andNot(Container other) {
+            char[] out = new char[cardinality];
+            int n = 0;
+            for (int i = 0; i < cardinality; i++) {
+                if (!other.contains(values[i])) out[n++] = values[i];
+            }
+            return new ArrayContainer(out, n);
+        }
+
+        @Override
+        public BitmapContainer asBitmap() {
+            BitmapContainer b = new BitmapContainer();
+            for (int i = 0; i < cardinality; i++) b.add(values[i]);
+            return b;
+        }
+
+        BitmapContainer toBitmap() {
+            return asBitmap();
+        }
+    }
+
+    private static final class BitmapContainer implements Container {
+        final long[] words;
+        int cardinality;
+
+        BitmapContainer() {
+            this(new long[BITMAP_WORDS], 0);
+        }
+
+        BitmapContainer(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        public boolean add(char value) {
+            long before = words[value >>> 6];
+            long after = before | (1L << value);
+            words[value >>> 6] = after;
+            if (before != after) {
+                cardinality++;
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public boolean remove(char value) {
+            long before = words[value >>> 6];
+            long after = before & ~(1L << value);
+            words[value >>> 6] = after;
+            if (before != after) {
+                cardinality--;
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public boolean contains(char value) {
+            return (words[value >>> 6] & (1L << value)) != 0;
+        }
+
+        @Override
+        public int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        public long sizeInBytes() {
+            return 16 + BITMAP_WORDS * 8L;
+        }
+
+        @Override
+        public int fill(int[] out, int pos, int base) {
+            for (int w = 0; w < BITMAP_WORDS; w++) {
+                long word = words[w];
+                while (word != 0) {
+                    out[pos++] = base | (w << 6) | Long.numberOfTrailingZeros(word);
+                    word &= word - 1;
+                }
+            }
+            return pos;
+        }
+
+        @Override
+        public Container copy() {
+            return new BitmapContainer(words.clone(), cardinality);
+        }
+
+        @Override
+        public Container and(Container other) {
+            if (other instanceof ArrayContainer) return other.and(this);
+            return combine(((BitmapContainer) other).words, 0);
+        }
+
+        @Override
+        public Container or(Container other) {
+            return combine(other.asBitmap().words, 1);
+        }
+
+        @Override
+        public Container andNot(Container other) {
+            return combine(other.asBitmap().words, 2);
+        }
+
+        @Override
+        public BitmapContainer asBitmap() {
+            return this;
+        }
+
+        private Container combine(long[] otherWords, int op) {
+            long[] out = new long[BITMAP_WORDS];
+            int card = 0;
+            for (int w = 0; w < BITMAP_WORDS; w++) {
+                long v;
+                if (op == 0) v = words[w] & otherWords[w];
+                else if (op == 1) v = words[w] | otherWords[w];
+                else v = words[w] & ~otherWords[w];
+                out[w] = v;
+                card += Long.bitCount(v);
+            }
+            return new BitmapContainer(out, card);
+        }
+
+        ArrayContainer toArray() {
+            char[] values = new char[Math.max(4, cardinality)];
+            int n = 0;
+            for (int w = 0; w < BITMAP_WORDS; w++) {
+                long word = words[w];
+                while (word != 0) {
+                    values[n++] = (char) ((w << 6) | Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+            return new ArrayContainer(values, n);
+        }
+    }
+}
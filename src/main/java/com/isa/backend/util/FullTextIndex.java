@@ -0,0 +1,278 @@
+package com.isa.backend.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Embedded full-text indeks sa BM25 rangiranjem, bez spoljnih zavisnosti.
+ *
+ * Svaki dokument (video) ima tri polja sa različitim težinama: naslov, tagove i opis. Težina se
+ * primenjuje na frekvenciju termina (BM25F-lite), pa pogodak u naslovu vredi više od pogotka u opisu.
+ * Postings liste su parovi (interni redni broj dokumenta, težinska frekvencija) u nizovima primitiva.
+ * Brisanje i ponovno indeksiranje označavaju stari dokument kao obrisan; obrisani se preskaču pri upitu.
+ *
+ * Thread-safe: upiti rade pod read lock-om, izmene pod write lock-om.
+ */
+public class FullTextIndex {
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+
+    private static final int TITLE_WEIGHT = 3;
+    private static final int TAG_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Postings> terms = new HashMap<>();
+    private final Map<Long, Integer> ordinalById = new HashMap<>();
+    private long[] externalIds = new long[1024];
+    private int[] docLengths = new int[1024];
+    private final BitSet deleted = new BitSet();
+    private int nextOrdinal = 0;
+    private int liveDocs = 0;
+    private long totalLength = 0;
+
+    // Deljeni pool akumulatora skora, da se ne alociraju nizovi veličine indeksa za svaki upit. Nije ThreadLocal:
+    // sa virtuelnim nitima svaki zahtev ima novu nit, pa bi ThreadLocal alocirao nove nizove pri svakom upitu.
+    // Istovremeno računa najviše onoliko upita koliko ima nosećih niti (jezgara), pa je toliki pool dovoljan.
+    private final BlockingQueue<Accumulator> accumulators =
+            new ArrayBlockingQueue<>(Math.max(2, Runtime.getRuntime().availableProcessors()));
+
+    /**
+     * Dodaje ili zamenjuje dokument sa datim id-jem.
+     */
+    public void index(long id, String title, String description, Collection<String> tags) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        int length = addTerms(frequencies, TextAnalyzer.tokenize(title), TITLE_WEIGHT)
+                + addTerms(frequencies, TextAnalyzer.tokenize(description), DESCRIPTION_WEIGHT);
+        if (tags != null) {
+            for (String tag : tags) {
+                length += addTerms(frequencies, TextAnalyzer.tokenize(tag), TAG_WEIGHT);
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            deleteLocked(id);
+            int ordinal = nextOrdinal++;
+            ensureDocCapacity(ordinal + 1);
+            externalIds[ordinal] = id;
+            docLengths[ordinal] = length;
+            ordinalById.put(id, ordinal);
+            liveDocs++;
+            totalLength += length;
+            for (Map.Entry<String, Integer> e : frequencies.entrySet()) {
+                terms.computeIfAbsent(e.getKey(), t -> new Postings()).add(ordinal, e.getValue());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void delete(long id) {
+        lock.writeLock().lock();
+        try {
+            deleteLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveDocs;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int termCount() {
+        lock.readLock().lock();
+        try {
+            return terms.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Vraća stranicu id-jeva rangiranih po BM25 skoru (termini upita se kombinuju kao OR).
+     */
+    public SearchResult search(String query, int page, int size) {
+        if (page < 0 || size <= 0) {
+            throw new IllegalArgumentException("Neispravni parametri stranice");
+        }
+        Set<String> queryTerms = new LinkedHashSet<>(TextAnalyzer.tokenize(query));
+        if (queryTerms.isEmpty()) return new SearchResult(new ArrayList<>(), 0);
+
+        lock.readLock().lock();
+        try {
+            if (liveDocs == 0) return new SearchResult(new ArrayList<>(), 0);
+            Accumulator acc = accumulators.poll();
+            if (acc == null) acc = new Accumulator();
+            try {
+                return search(acc, queryTerms, page, size);
+            } finally {
+                // Pun pool: akumulator se odbacuje
+                accumulators.offer(acc);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Poziva se pod read lock-om
+    private SearchResult search(Accumulator acc, Set<String> queryTerms, int page, int size) {
+        acc.reset(nextOrdinal);
+
+        float avgLength = Math.max(1f, (float) totalLength / liveDocs);
+        for (String term : queryTerms) {
+            Postings postings = terms.get(term);
+            if (postings == null) continue;
+            int df = postings.liveCount;
+            if (df == 0) continue;
+            float idf = (float) Math.log(1 + (liveDocs - df + 0.5) / (df + 0.5));
+            for (int i = 0; i < postings.size; i++) {
+                int ordinal = postings.ordinals[i];
+                if (deleted.get(ordinal)) continue;
+                float tf = postings.frequencies[i] & 0xFF;
+                float norm = K1 * (1 - B + B * docLengths[ordinal] / avgLength);
+                acc.add(ordinal, idf * tf * (K1 + 1) / (tf + norm));
+            }
+        }
+
+        int limit = (int) Math.min((long) (page + 1) * size, acc.touchedCount);
+        PriorityQueue<Integer> heap = new PriorityQueue<>(Math.max(1, limit),
+                (a, b) -> Float.compare(acc.scores[a], acc.scores[b]));
+        for (int i = 0; i < acc.touchedCount; i++) {
+            int ordinal = acc.touched[i];
+            if (heap.size() < limit) {
+                heap.offer(ordinal);
+            } else if (limit > 0 && acc.scores[ordinal] > acc.scores[heap.peek()]) {
+                heap.poll();
+                heap.offer(ordinal);
+            }
+        }
+        Integer[] top = heap.toArray(new Integer[0]);
+        Arrays.sort(top, (a, b) -> Float.compare(acc.scores[b], acc.scores[a]));
+
+        List<Long> ids = new ArrayList<>();
+        for (int i = page * size; i < top.length; i++) {
+            ids.add(externalIds[top[i]]);
+        }
+        return new SearchResult(ids, acc.touchedCount);
+    }
+
+    private static int addTerms(Map<String, Integer> frequencies, List<String> tokens, int weight) {
+        for (String token : tokens) {
+            frequencies.merge(token, weight, Integer::sum);
+        }
+        return tokens.size() * weight;
+    }
+
+    private void deleteLocked(long id) {
+        Integer old = ordinalById.remove(id);
+        if (old == null) return;
+        deleted.set(old);
+        liveDocs--;
+        totalLength -= docLengths[old];
+        // Smanjujemo df termina starog dokumenta; sami postings ostaju dok se indeks ne izgradi ponovo
+        for (Postings postings : terms.values()) {
+            if (postings.contains(old)) postings.liveCount--;
+        }
+    }
+
+    private void ensureDocCapacity(int needed) {
+        if (needed > externalIds.length) {
+            int newLength = Math.max(needed, externalIds.length * 2);
+            externalIds = Arrays.copyOf(externalIds, newLength);
+            docLengths = Arrays.copyOf(docLengths, newLength);
+        }
+    }
+
+    private static final class Postings {
+        int[] ordinals = new int[4];
+        byte[] frequencies = new byte[4];
+        int size = 0;
+        int liveCount = 0;
+
+        void add(int ordinal, int frequency) {
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            // Redni brojevi rastu, pa je lista uvek sortirana
+            ordinals[size] = ordinal;
+            frequencies[size] = (byte) Math.min(255, frequency);
+            size++;
+            liveCount++;
+        }
+
+        boolean contains(int ordinal) {
+            return Arrays.binarySearch(ordinals, 0, size, ordinal) >= 0;
+        }
+    }
+
+    private static final class Accumulator {
+        float[] scores = new float[0];
+        boolean[] seen = new boolean[0];
+        int[] touched = new int[16];
+        int touchedCount = 0;
+
+        void reset(int documents) {
+            if (scores.length < documents) {
+                scores = new float[documents];
+                seen = new boolean[documents];
+            } else {
+                for (int i = 0; i < touchedCount; i++) {
+                    scores[touched[i]] = 0f;
+                    seen[touched[i]] = false;
+                }
+            }
+            touchedCount = 0;
+        }
+
+        void add(int ordinal, float score) {
+            if (!seen[ordinal]) {
+                seen[ordinal] = true;
+                if (touchedCount == touched.length) touched = Arrays.copyOf(touched, touchedCount * 2);
+                touched[touchedCount++] = ordinal;
+            }
+            scores[ordinal] += score;
+        }
+    }
+
+    /**
+     * Jedna stranica rezultata (id-jevi po opadajućem skoru) i ukupan broj pogođenih dokumenata.
+     */
+    public static final class SearchResult {
+        private final List<Long> ids;
+        private final int totalHits;
+
+        public SearchResult(List<Long> ids, int totalHits) {
+            this.ids = ids;
+            this.totalHits = totalHits;
+        }
+
+        public List<Long> getIds() {
+            return ids;
+        }
+
+        public int getTotalHits() {
+            return totalHits;
+        }
+    }
+}
@@ -0,0 +1,283 @@
+package com.isa.backend.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Prostorni indeks tačaka (lat/lon) zasnovan na višenivojskoj mreži ćelija.
+ *
+ * Svaka tačka se upisuje u ćeliju na svakom nivou (1°, 0.1° i 0.01°). Upit bira najfiniji nivo
+ * na kome bounding box upita pokriva razuman broj ćelija, pa se obilaze samo ćelije oko tražene
+ * oblasti — nikada ceo skup tačaka. Rezultati se rangiraju po udaljenosti (haversine).
+ *
+ * Thread-safe: upiti rade pod read lock-om, izmene pod write lock-om.
+ */
+public class GeoGridIndex {
+
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+
+    private static final double[] CELL_DEGREES = {1.0, 0.1, 0.01};
+    private static final int MAX_CELLS_PER_QUERY = 400;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<Map<Long, Bucket>> levels = new ArrayList<>();
+    private final Map<Long, double[]> positions = new HashMap<>();
+
+    public GeoGridIndex() {
+        for (int i = 0; i < CELL_DEGREES.length; i++) levels.add(new HashMap<>());
+    }
+
+    public void put(long id, double lat, double lon) {
+        validate(lat, lon);
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            positions.put(id, new double[]{lat, lon});
+            for (int level = 0; level < CELL_DEGREES.length; level++) {
+                levels.get(level).computeIfAbsent(cellKey(lat, lon, level), k -> new Bucket()).add(id, lat, lon);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return positions.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Tačke u krugu poluprečnika radiusKm oko (lat, lon), najbliže prve.
+     */
+    public GeoResult nearby(double lat, double lon, double radiusKm, int page, int size) {
+        validate(lat, lon);
+        if (radiusKm <= 0) throw new IllegalArgumentException("Poluprečnik mora biti pozitivan");
+        // Tačan bounding box sfernog kruga: ugaoni poluprečnik po širini, asin(sin ρ / cos φ) po dužini
+        double angular = radiusKm / EARTH_RADIUS_KM;
+        double dLat = Math.toDegrees(angular);
+        double dLon = 360;
+        if (lat + dLat < 90 && lat - dLat > -90 && angular < Math.PI / 2) {
+            dLon = Math.toDegrees(Math.asin(Math.min(1, Math.sin(angular) / Math.cos(Math.toRadians(lat)))));
+        }
+        return query(lat - dLat, lon - dLon, lat + dLat, lon + dLon, lat, lon, radiusKm, page, size);
+    }
+
+    /**
+     * Tačke unutar pravougaonika, rangirane po udaljenosti od njegovog centra.
+     * minLon > maxLon znači da pravougaonik prelazi 180. meridijan.
+     */
+    public GeoResult within(double minLat, double minLon, double maxLat, double maxLon, int page, int size) {
+        validate(minLat, minLon);
+        validate(maxLat, maxLon);
+        if (minLat > maxLat) throw new IllegalArgumentException("minLat mora biti manji od maxLat");
+        double effectiveMaxLon = maxLon < minLon ? maxLon + 360 : maxLon;
+        double centerLat = (minLat + maxLat) / 2;
+        double centerLon = normalizeLon((minLon + effectiveMaxLon) / 2);
+        return query(minLat, minLon, maxLat, effectiveMaxLon, centerLat, centerLon, Double.POSITIVE_INFINITY, page, size);
+    }
+
+    public static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private GeoResult query(double minLat, double minLon, double maxLat, double maxLon,
+                            double centerLat, double centerLon, double radiusKm, int page, int size) {
+        if (page < 0 || size <= 0) throw new IllegalArgumentException("Neispravni parametri stranice");
+        minLat = Math.max(-90, minLat);
+        maxLat = Math.min(90, maxLat);
+        boolean fullLon = maxLon - minLon >= 359.999;
+
+        lock.readLock().lock();
+        try {
+            int level = chooseLevel(minLat, minLon, maxLat, maxLon, fullLon);
+            double cell = CELL_DEGREES[level];
+            int latFrom = cellIndex(minLat, cell);
+            int latTo = cellIndex(maxLat, cell);
+            int lonCells = (int) Math.round(360 / cell);
+            int offset = lonCells / 2;
+            int lonFrom = cellIndex(minLon, cell);
+            int lonTo = cellIndex(maxLon, cell);
+            if (fullLon || lonTo - lonFrom + 1 > lonCells) {
+                lonFrom = -offset;
+                lonTo = offset - 1;
+            }
+
+            int limit = (int) Math.min((long) (page + 1) * size, Integer.MAX_VALUE);
+            // Max-heap po udaljenosti: čuvamo samo limit najbližih
+            PriorityQueue<double[]> heap = new PriorityQueue<>((a, b) -> Double.compare(b[1], a[1]));
+            int total = 0;
+            Map<Long, Bucket> cells = levels.get(level);
+            for (int latIdx = latFrom; latIdx <= latTo; latIdx++) {
+                for (int lonStep = lonFrom; lonStep <= lonTo; lonStep++) {
+                    // Ćelije van [-180, 180) se preslikavaju preko 180. meridijana
+                    int lonIdx = Math.floorMod(lonStep + offset, lonCells) - offset;
+                    Bucket bucket = cells.get(key(latIdx, lonIdx));
+                    if (bucket == null) continue;
+                    for (int i = 0; i < bucket.size; i++) {
+                        double pLat = bucket.lats[i];
+                        double pLon = bucket.lons[i];
+                        if (pLat < minLat || pLat > maxLat || !lonInRange(pLon, minLon, maxLon, fullLon)) continue;
+                        double distance = distanceKm(centerLat, centerLon, pLat, pLon);
+                        if (distance > radiusKm) continue;
+                        total++;
+                        if (heap.size() < limit) {
+                            heap.offer(new double[]{bucket.ids[i], distance});
+                        } else if (distance < heap.peek()[1]) {
+                            heap.poll();
+                            heap.offer(new double[]{bucket.ids[i], distance});
+                        }
+                    }
+                }
+            }
+
+            double[][] sorted = heap.toArray(new double[0][]);
+            Arrays.sort(sorted, (a, b) -> Double.compare(a[1], b[1]));
+            List<Long> ids = new ArrayList<>();
+            List<Double> distances = new ArrayList<>();
+            for (int i = page * size; i < sorted.length; i++) {
+                ids.add((long) sorted[i][0]);
+                distances.add(sorted[i][1]);
+            }
+            return new GeoResult(ids, distances, total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int chooseLevel(double minLat, double minLon, double maxLat, double maxLon, boolean fullLon) {
+        for (int level = CELL_DEGREES.length - 1; level > 0; level--) {
+            double cell = CELL_DEGREES[level];
+            double lonSpan = fullLon ? 360 : maxLon - minLon;
+            double cells = (Math.floor(maxLat / cell) - Math.floor(minLat / cell) + 1) * (Math.floor(lonSpan / cell) + 2);
+            if (cells <= MAX_CELLS_PER_QUERY) return level;
+        }
+        return 0;
+    }
+
+    private static boolean lonInRange(double lon, double minLon, double maxLon, boolean fullLon) {
+        if (fullLon) return true;
+        // Opseg može izaći van [-180, 180] kada prelazi 180. meridijan
+        return (lon >= minLon && lon <= maxLon) || (lon + 360 >= minLon && lon + 360 <= maxLon)
+                || (lon - 360 >= minLon && lon - 360 <= maxLon);
+    }
+
+    private void removeLocked(long id) {
+        double[] old = positions.remove(id);
+        if (old == null) return;
+        for (int level = 0; level < CELL_DEGREES.length; level++) {
+            long key = cellKey(old[0], old[1], level);
+            Bucket bucket = levels.get(level).get(key);
+            if (bucket != null && bucket.remove(id) && bucket.size == 0) {
+                levels.get(level).remove(key);
+            }
+        }
+    }
+
+    private static long cellKey(double lat, double lon, int level) {
+        double cell = CELL_DEGREES[level];
+        // lon = 180 i lon = -180 su isti meridijan
+        return key(cellIndex(lat, cell), cellIndex(lon >= 180 ? -180 : lon, cell));
+    }
+
+    private static int cellIndex(double degrees, double cell) {
+        return (int) Math.floor(degrees / cell);
+    }
+
+    private static long key(int latIdx, int lonIdx) {
+        return ((long) latIdx << 32) | (lonIdx & 0xFFFFFFFFL);
+    }
+
+    private static double normalizeLon(double lon) {
+        return ((lon + 180) % 360 + 360) % 360 - 180;
+    }
+
+    private static void validate(double lat, double lon) {
+        if (Double.isNaN(lat) || lat < -90 || lat > 90) {
+            throw new IllegalArgumentException("Geografska širina mora biti između -90 i 90");
+        }
+        if (Double.isNaN(lon) || lon < -180 || lon > 180) {
+            throw new IllegalArgumentException("Geografska dužina mora biti između -180 i 180");
+        }
+    }
+
+    private static final class Bucket {
+        long[] ids = new long[2];
+        double[] lats = new double[2];
+        double[] lons = new double[2];
+        int size = 0;
+
+        void add(long id, double lat, double lon) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                lats = Arrays.copyOf(lats, size * 2);
+                lons = Arrays.copyOf(lons, size * 2);
+            }
+            ids[size] = id;
+            lats[size] = lat;
+            lons[size] = lon;
+            size++;
+        }
+
+        boolean remove(long id) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    size--;
+                    ids[i] = ids[size];
+                    lats[i] = lats[size];
+                    lons[i] = lons[size];
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Stranica rezultata (id-jevi i udaljenosti u km, najbliži prvi) i ukupan broj pogodaka.
+     */
+    public static final class GeoResult {
+        private final List<Long> ids;
+        private final List<Double> distancesKm;
+        private final int total;
+
+        public GeoResult(List<Long> ids, List<Double> distancesKm, int total) {
+            this.ids = ids;
+            this.distancesKm = distancesKm;
+            this.total = total;
+        }
+
+        public List<Long> getIds() {
+            return ids;
+        }
+
+        public List<Double> getDistancesKm() {
+            return distancesKm;
+        }
+
+        public int getTotal() {
+            return total;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.isa.backend.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * LSH indeks SimHash otisaka nedavnih tekstova u kliznom vremenskom prozoru, sa ograničenom memorijom.
+ *
+ * Otisak se deli na 4 trake od po 16 bitova i upisuje u kofu svake trake. Dva otiska na Hamming
+ * udaljenosti do 3 se razlikuju u najviše 3 trake, pa sigurno dele bar jednu kofu — upit poredi samo
+ * kandidate iz 4 kofe, nikada ceo skup. Prozor je prsten slotova (kao SlidingTopK); istekli slot se
+ * briše pri prvom upisu. Broj otisaka po slotu i po kofi je ograničen: zasićena kofa već daje dovoljno
+ * poklapanja, pa se novi otisci u nju ne upisuju.
+ *
+ * Thread-safe: svaki slot se zaključava zasebno.
+ */
+public class NearDuplicateIndex {
+
+    private static final int BANDS = 4;
+    private static final int BAND_BITS = 16;
+    private static final int BAND_MASK = (1 << BAND_BITS) - 1;
+
+    private final long slotMillis;
+    private final int maxDistance;
+    private final int maxEntriesPerSlot;
+    private final int maxBucketSize;
+    private final Slot[] slots;
+    private final long[] slotEpochs;
+
+    public NearDuplicateIndex(long windowMillis, int slotCount, int maxDistance, int maxEntriesPerSlot, int maxBucketSize) {
+        if (slotCount <= 0 || windowMillis < slotCount) {
+            throw new IllegalArgumentException("Neispravna podela prozora na slotove");
+        }
+        if (maxDistance < 0 || maxDistance >= BANDS) {
+            throw new IllegalArgumentException("Najveća udaljenost mora biti između 0 i " + (BANDS - 1));
+        }
+        this.slotMillis = windowMillis / slotCount;
+        this.maxDistance = maxDistance;
+        this.maxEntriesPerSlot = maxEntriesPerSlot;
+        this.maxBucketSize = maxBucketSize;
+        this.slots = new Slot[slotCount];
+        this.slotEpochs = new long[slotCount];
+        for (int i = 0; i < slotCount; i++) {
+            slots[i] = new Slot();
+            slotEpochs[i] = Long.MIN_VALUE;
+        }
+    }
+
+    /**
+     * Broji otiske iz prozora na udaljenosti do maxDistance (najviše limit, pa se pretraga prekida ranije)
+     * i zatim upisuje otisak u tekući slot.
+     */
+    public int countAndAdd(long fingerprint, long nowMillis, int limit) {
+        long currentEpoch = nowMillis / slotMillis;
+        int matches = 0;
+        for (int i = 0; i < slots.length && matches < limit; i++) {
+            Slot slot = slots[i];
+            synchronized (slot) {
+                long age = currentEpoch - slotEpochs[i];
+                if (slotEpochs[i] == Long.MIN_VALUE || age < 0 || age >= slots.length) continue;
+                matches += slot.count(fingerprint, limit - matches);
+            }
+        }
+
+        int index = (int) Math.floorMod(currentEpoch, (long) slots.length);
+        Slot slot = slots[index];
+        synchronized (slot) {
+            if (slotEpochs[index] != currentEpoch) {
+                slot.clear();
+                slotEpochs[index] = currentEpoch;
+            }
+            slot.add(fingerprint);
+        }
+        return matches;
+    }
+
+    private static int band(long fingerprint, int band) {
+        return (int) (fingerprint >>> (band * BAND_BITS)) & BAND_MASK;
+    }
+
+    private final class Slot {
+        final List<Map<Integer, Bucket>> bands = new ArrayList<>(BANDS);
+        int size;
+
+        Slot() {
+            for (int b = 0; b < BANDS; b++) bands.add(new HashMap<>());
+        }
+
+        int count(long fingerprint, int limit) {
+            int matches = 0;
+            for (int b = 0; b < BANDS && matches < limit; b++) {
+                Bucket bucket = bands.get(b).get(band(fingerprint, b));
+                if (bucket == null) continue;
+                for (int i = 0; i < bucket.size && matches < limit; i++) {
+                    long candidate = bucket.fingerprints[i];
+                    // Kandidat se broji samo u prvoj traci koju deli sa otiskom
+                    if (sharesEarlierBand(candidate, fingerprint, b)) continue;
+                    if (SimHash.distance(candidate, fingerprint) <= maxDistance) matches++;
+                }
+            }
+            return matches;
+        }
+
+        void add(long fingerprint) {
+            if (size >= maxEntriesPerSlot) return;
+            boolean added = false;
+            for (int b = 0; b < BANDS; b++) {
+                Bucket bucket = bands.get(b).computeIfAbsent(band(fingerprint, b), k -> new Bucket());
+                if (bucket.size < maxBucketSize) {
+                    bucket.add(fingerprint);
+                    added = true;
+                }
+            }
+            if (added) size++;
+        }
+
+        void clear() {
+            for (Map<Integer, Bucket> band : bands) band.clear();
+            size = 0;
+        }
+    }
+
+    private static boolean sharesEarlierBand(long a, long b, int band) {
+        for (int earlier = 0; earlier < band; earlier++) {
+            if (band(a, earlier) == band(b, earlier)) return true;
+        }
+        return false;
+    }
+
+    private static final class Bucket {
+        long[] fingerprints = new long[2];
+        int size;
+
+        void add(long fingerprint) {
+            if (size == fingerprints.length) fingerprints = Arrays.copyOf(fingerprints, size * 2);
+            fingerprints[size++] = fingerprint;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.isa.backend.util;
+
+import java.util.ArrayList;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Kompaktan prefiksni trie za autocomplete.
+ *
+ * Deca čvora se čuvaju u sortiranim paralelnim nizovima (char[] + Node[]) umesto u mapama,
+ * a svaki čvor drži keširanu listu top-K završetaka po težini. Lookup je zato O(dužina prefiksa)
+ * i ne obilazi podstablo. Težine samo rastu (add), pa se top liste ažuriraju duž jedne putanje.
+ *
+ * Klasa nije thread-safe; pozivalac obezbeđuje sinhronizaciju.
+ */
+public class PrefixTrie {
+
+    private static final char[] NO_LABELS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    private final int topK;
+    private final Node root = new Node();
+    private int termCount = 0;
+    private int nodeCount = 1;
+
+    public PrefixTrie(int topK) {
+        this.topK = topK;
+    }
+
+    /**
+     * Povećava težinu termina (key mora biti normalizovan); display je oblik koji se prikazuje korisniku.
+     */
+    public void add(String key, String display, long weight) {
+        if (key == null || key.isEmpty() || weight <= 0) return;
+
+        Node[] path = new Node[key.length() + 1];
+        Node node = root;
+        path[0] = node;
+        for (int i = 0; i < key.length(); i++) {
+            node = node.childOrCreate(key.charAt(i));
+            path[i + 1] = node;
+        }
+        if (node.weight == 0) {
+            termCount++;
+            node.display = display;
+        }
+        node.weight += weight;
+        for (Node n : path) {
+            n.offerTop(node, topK);
+        }
+    }
+
+    /**
+     * Vraća do limit najtežih termina koji počinju datim (normalizovanim) prefiksom.
+     */
+    public List<String> complete(String prefix, int limit) {
+        List<String> result = new ArrayList<>();
+        Node node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.child(prefix.charAt(i));
+        }
+        if (node == null) return result;
+        for (int i = 0; i < node.topSize && result.size() < limit; i++) {
+            result.add(node.top[i].display);
+        }
+        return result;
+    }
+
+    public int termCount() {
+        return termCount;
+    }
+
+    public int nodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Procena zauzete memorije (u bajtovima) za kompresovane OOP-ove na 64-bitnom JVM-u:
+     * zaglavlje i polja čvora plus nizovi dece i top liste. Display stringovi nisu uračunati.
+     */
+    public long estimatedBytes() {
+        long bytes = 0;
+        Deque<Node> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            Node n = stack.pop();
+            bytes += 40;
+            if (n.labels.length > 0) bytes += align(16 + 2L * n.labels.length) + align(16 + 4L * n.children.length);
+            if (n.top != null) bytes += align(16 + 4L * n.top.length);
+            for (int i = 0; i < n.childCount; i++) stack.push(n.children[i]);
+        }
+        return bytes;
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+
+    private final class Node {
+        char[] labels = NO_LABELS;
+        Node[] children = NO_CHILDREN;
+        int childCount = 0;
+        long weight = 0;
+        String display;
+        Node[] top;
+        int topSize = 0;
+
+        Node child(char c) {
+            int i = Arrays.binarySearch(labels, 0, childCount, c);
+            return i >= 0 ? children[i] : null;
+        }
+
+        Node childOrCreate(char c) {
+            int i = Arrays.binarySearch(labels, 0, childCount, c);
+            if (i >= 0) return children[i];
+            i = -i - 1;
+            if (childCount == labels.length) {
+                int newLength = Math.max(2, labels.length * 2);
+                labels = Arrays.copyOf(labels, newLength);
+                children = Arrays.copyOf(children, newLength);
+            }
+            System.arraycopy(labels, i, labels, i + 1, childCount - i);
+            System.arraycopy(children, i, children, i + 1, childCount - i);
+            Node created = new Node();
+            labels[i] = c;
+            children[i] = created;
+            childCount++;
+            nodeCount++;
+            return created;
+        }
+
+        void offerTop(Node terminal, int k) {
+            if (top == null) top = new Node[1];
+            int pos = -1;
+            for (int i = 0; i < topSize; i++) {
+                if (top[i] == terminal) {
+                    pos = i;
+                    break;
+                }
+            }
+            if (pos < 0) {
+                if (topSize < k) {
+                    // Top lista raste po potrebi — većina čvorova ima samo nekoliko završetaka
+                    if (topSize == top.length) top = Arrays.copyOf(top, Math.min(k, top.length * 2));
+                    pos = topSize++;
+                } else if (terminal.weight > top[k - 1].weight) {
+                    pos = k - 1;
+                } else {
+                    return;
+                }
+                top[pos] = terminal;
+            }
+            // Težina je samo porasla, pa element pomeramo ka početku
+            while (pos > 0 && top[pos - 1].weight < terminal.weight) {
+                top[pos] = top[pos - 1];
+                top[pos - 1] = terminal;
+                pos--;
+            }
+        }
+    }
+}
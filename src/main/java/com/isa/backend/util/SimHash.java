@@ -0,0 +1,60 @@
+package com.isa.backend.util;
+
+import java.util.List;
+
+/**
+ * 64-bitni SimHash otisak teksta (Charikar): slični tekstovi daju otiske na maloj Hamming udaljenosti.
+ *
+ * Osobine su tokeni i parovi susednih tokena (iz TextAnalyzer-a, pa su velika/mala slova, dijakritici
+ * i interpunkcija već ujednačeni). Svaka osobina glasa hash-om za svaki od 64 bita; bit otiska je 1
+ * ako je zbir glasova pozitivan. Izmena nekoliko reči menja samo nekoliko bitova.
+ */
+public final class SimHash {
+
+    private SimHash() {}
+
+    public static long fingerprint(List<String> tokens) {
+        int[] votes = new int[64];
+        long previous = 0;
+        for (int i = 0; i < tokens.size(); i++) {
+            long hash = hash(tokens.get(i));
+            vote(votes, hash);
+            if (i > 0) vote(votes, mix(previous * 0x9E3779B97F4A7C15L ^ hash));
+            previous = hash;
+        }
+        long fingerprint = 0;
+        for (int bit = 0; bit < 64; bit++) {
+            if (votes[bit] > 0) fingerprint |= 1L << bit;
+        }
+        return fingerprint;
+    }
+
+    public static int distance(long a, long b) {
+        return Long.bitCount(a ^ b);
+    }
+
+    private static void vote(int[] votes, long hash) {
+        for (int bit = 0; bit < 64; bit++) {
+            votes[bit] += (int) ((hash >>> bit) & 1L) * 2 - 1;
+        }
+    }
+
+    // FNV-1a nad char-ovima pa fmix64 (bez alokacije bajtova)
+    private static long hash(String token) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < token.length(); i++) {
+            h ^= token.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return mix(h);
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,131 @@
+package com.isa.backend.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Najčešći ključevi u kliznom vremenskom prozoru, sa fiksnom memorijom.
+ *
+ * Prozor je prsten od slotCount slotova (npr. 60 x 1 minut za prozor od sat vremena), a svaki slot
+ * ima sopstveni SpaceSaving sketch. Istekli slot se briše pri prvom sledećem upisu. Upit spaja
+ * slotove iz prozora: procene se sabiraju, a za slot u kome ključ nije praćen gornja granica se
+ * uvećava za min tog slota. Prozor je tačan do granularnosti jednog slota.
+ *
+ * Thread-safe: svaki slot se zaključava zasebno.
+ */
+public class SlidingTopK {
+
+    private final long slotMillis;
+    private final SpaceSaving[] slots;
+    private final long[] slotEpochs;
+
+    public SlidingTopK(long windowMillis, int slotCount, int capacityPerSlot) {
+        if (slotCount <= 0 || windowMillis < slotCount) {
+            throw new IllegalArgumentException("Neispravna podela prozora na slotove");
+        }
+        this.slotMillis = windowMillis / slotCount;
+        this.slots = new SpaceSaving[slotCount];
+        this.slotEpochs = new long[slotCount];
+        for (int i = 0; i < slotCount; i++) {
+            slots[i] = new SpaceSaving(capacityPerSlot);
+            slotEpochs[i] = Long.MIN_VALUE;
+        }
+    }
+
+    public void offer(long key, long nowMillis) {
+        long epoch = nowMillis / slotMillis;
+        int index = (int) Math.floorMod(epoch, (long) slots.length);
+        SpaceSaving slot = slots[index];
+        synchronized (slot) {
+            if (slotEpochs[index] != epoch) {
+                slot.clear();
+                slotEpochs[index] = epoch;
+            }
+            slot.offer(key, 1);
+        }
+    }
+
+    /**
+     * Do k ključeva sa najvećom procenom u prozoru koji se završava u nowMillis.
+     */
+    public WindowResult top(int k, long nowMillis) {
+        long currentEpoch = nowMillis / slotMillis;
+        List<SlotView> views = new ArrayList<>(slots.length);
+        for (int i = 0; i < slots.length; i++) {
+            SpaceSaving slot = slots[i];
+            synchronized (slot) {
+                long age = currentEpoch - slotEpochs[i];
+                if (slotEpochs[i] == Long.MIN_VALUE || age < 0 || age >= slots.length) continue;
+                views.add(new SlotView(slot.counters(), slot.minCount(), slot.total()));
+            }
+        }
+
+        Map<Long, long[]> merged = new HashMap<>();
+        long total = 0;
+        long sumOfMins = 0;
+        for (SlotView view : views) {
+            total += view.total;
+            sumOfMins += view.min;
+            for (SpaceSaving.Counter c : view.counters) {
+                // [procena, greška, zbir min-ova slotova u kojima je ključ praćen]
+                long[] acc = merged.computeIfAbsent(c.getKey(), key -> new long[3]);
+                acc[0] += c.getCount();
+                acc[1] += c.getError();
+                acc[2] += view.min;
+            }
+        }
+
+        List<SpaceSaving.Counter> counters = new ArrayList<>(merged.size());
+        for (Map.Entry<Long, long[]> e : merged.entrySet()) {
+            long[] acc = e.getValue();
+            // U slotovima gde ključ nije praćen mogao je imati do min tog slota
+            long missing = sumOfMins - acc[2];
+            counters.add(new SpaceSaving.Counter(e.getKey(), acc[0] + missing, acc[1] + missing));
+        }
+        counters.sort(Comparator.comparingLong(SpaceSaving.Counter::getCount).reversed()
+                .thenComparing(Comparator.comparingLong(SpaceSaving.Counter::getLowerBound).reversed()));
+        return new WindowResult(new ArrayList<>(counters.subList(0, Math.min(k, counters.size()))), total, sumOfMins);
+    }
+
+    private static final class SlotView {
+        final List<SpaceSaving.Counter> counters;
+        final long min;
+        final long total;
+
+        SlotView(List<SpaceSaving.Counter> counters, long min, long total) {
+            this.counters = counters;
+            this.min = min;
+            this.total = total;
+        }
+    }
+
+    /**
+     * Top-K u prozoru, ukupan broj događaja u prozoru i gornja granica za bilo koji ključ van liste.
+     */
+    public static final class WindowResult {
+        private final List<SpaceSaving.Counter> top;
+        private final long total;
+        private final long maxUntrackedCount;
+
+        public WindowResult(List<SpaceSaving.Counter> top, long total, long maxUntrackedCount) {
+            this.top = top;
+            this.total = total;
+            this.maxUntrackedCount = maxUntrackedCount;
+        }
+
+        public List<SpaceSaving.Counter> getTop() {
+            return top;
+        }
+
+        public long getTotal() {
+            return total;
+        }
+
+        public long getMaxUntrackedCount() {
+            return maxUntrackedCount;
+        }
+    }
+}
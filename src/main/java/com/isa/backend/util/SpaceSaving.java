@@ -0,0 +1,155 @@
+package com.isa.backend.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Space-Saving sketch (Metwally et al.) za pronalaženje najčešćih ključeva u toku događaja.
+ *
+ * Prati najviše capacity ključeva. Kada je pun, novi ključ preuzima brojač sa najmanjom vrednošću
+ * (min), a stari min postaje njegova greška — procena je uvek precenjena za najviše error, pa je
+ * count - error donja granica. Svaki ključ čija je stvarna frekvencija veća od N / capacity je sigurno praćen.
+ * Brojači su u indeksiranom min-heap-u, pa je ažuriranje O(log capacity).
+ *
+ * Klasa nije thread-safe; pozivalac obezbeđuje sinhronizaciju.
+ */
+public class SpaceSaving {
+
+    private final int capacity;
+    private final long[] keys;
+    private final long[] counts;
+    private final long[] errors;
+    private final Map<Long, Integer> positions;
+    private int size = 0;
+    private long total = 0;
+
+    public SpaceSaving(int capacity) {
+        if (capacity <= 0) throw new IllegalArgumentException("Kapacitet mora biti pozitivan");
+        this.capacity = capacity;
+        this.keys = new long[capacity];
+        this.counts = new long[capacity];
+        this.errors = new long[capacity];
+        this.positions = new HashMap<>(capacity * 2);
+    }
+
+    public void offer(long key, long increment) {
+        total += increment;
+        Integer pos = positions.get(key);
+        if (pos != null) {
+            counts[pos] += increment;
+            siftDown(pos);
+            return;
+        }
+        if (size < capacity) {
+            keys[size] = key;
+            counts[size] = increment;
+            errors[size] = 0;
+            positions.put(key, size);
+            siftUp(size++);
+            return;
+        }
+        // Zamena najmanjeg brojača (koren heap-a)
+        positions.remove(keys[0]);
+        long min = counts[0];
+        keys[0] = key;
+        counts[0] = min + increment;
+        errors[0] = min;
+        positions.put(key, 0);
+        siftDown(0);
+    }
+
+    /**
+     * Najmanji brojač kada je sketch pun (gornja granica za bilo koji nepraćeni ključ), inače 0.
+     */
+    public long minCount() {
+        return size < capacity ? 0 : counts[0];
+    }
+
+    public long total() {
+        return total;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Praćeni ključevi sa procenom i greškom (nesortirano).
+     */
+    public List<Counter> counters() {
+        List<Counter> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(new Counter(keys[i], counts[i], errors[i]));
+        }
+        return result;
+    }
+
+    public void clear() {
+        positions.clear();
+        Arrays.fill(counts, 0, size, 0);
+        size = 0;
+        total = 0;
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (counts[parent] <= counts[i]) break;
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= size) break;
+            int smallest = left + 1 < size && counts[left + 1] < counts[left] ? left + 1 : left;
+            if (counts[i] <= counts[smallest]) break;
+            swap(i, smallest);
+            i = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        long k = keys[a]; keys[a] = keys[b]; keys[b] = k;
+        long c = counts[a]; counts[a] = counts[b]; counts[b] = c;
+        long e = errors[a]; errors[a] = errors[b]; errors[b] = e;
+        positions.put(keys[a], a);
+        positions.put(keys[b], b);
+    }
+
+    /**
+     * Procena za jedan ključ: count je gornja granica, count - error donja.
+     */
+    public static final class Counter {
+        private final long key;
+        private final long count;
+        private final long error;
+
+        public Counter(long key, long count, long error) {
+            this.key = key;
+            this.count = count;
+            this.error = error;
+        }
+
+        public long getKey() {
+            return key;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getError() {
+            return error;
+        }
+
+        public long getLowerBound() {
+            return count - error;
+        }
+    }
+}
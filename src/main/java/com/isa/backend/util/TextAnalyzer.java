@@ -0,0 +1,128 @@
+package com.isa.backend.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Tokenizacija teksta za pretragu.
+ *
+ * Tekst se svodi na mala slova bez dijakritika, tako da "Čačak", "cacak" i "Чачак" daju isti token:
+ * ćirilica se transliteruje u latinicu, č/ć/š/ž se svode na c/s/z, a đ (i ђ) na "dj".
+ * Tokeni su nizovi slova i cifara; izbacuju se jednoslovni tokeni i česte reči bez značenja.
+ */
+public final class TextAnalyzer {
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            // srpski
+            "je", "se", "da", "na", "za", "od", "do", "sa", "su", "li", "ili", "ali", "to", "te", "ne",
+            "iz", "po", "pa", "kao", "sto", "koji", "koja", "koje", "ovo", "ova", "taj", "mi", "vi", "oni",
+            // engleski
+            "the", "and", "of", "in", "is", "on", "for", "at", "an", "it", "by", "with", "from"
+    );
+
+    private TextAnalyzer() {}
+
+    /**
+     * Vraća tokene teksta u redosledu pojavljivanja (sa ponavljanjem).
+     */
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) return tokens;
+
+        StringBuilder current = new StringBuilder(16);
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                appendFolded(current, Character.toLowerCase(c));
+            } else if (!isCombiningMark(c)) {
+                flush(current, tokens);
+            }
+        }
+        flush(current, tokens);
+        return tokens;
+    }
+
+    /**
+     * Normalizuje jedan termin (npr. prefiks za autocomplete) bez deljenja na tokene i bez stop reči.
+     */
+    public static String normalizeTerm(String text) {
+        if (text == null) return "";
+        StringBuilder sb = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                appendFolded(sb, Character.toLowerCase(c));
+            } else if (Character.isWhitespace(c)) {
+                sb.append(' ');
+            }
+        }
+        return sb.toString().trim();
+    }
+
+    private static void flush(StringBuilder current, List<String> tokens) {
+        if (current.length() > 1) {
+            String token = current.toString();
+            if (!STOP_WORDS.contains(token)) tokens.add(token);
+        }
+        current.setLength(0);
+    }
+
+    private static boolean isCombiningMark(char c) {
+        int type = Character.getType(c);
+        return type == Character.NON_SPACING_MARK || type == Character.COMBINING_SPACING_MARK;
+    }
+
+    private static void appendFolded(StringBuilder sb, char c) {
+        if (c < 0x80) {
+            sb.append(c);
+            return;
+        }
+        switch (c) {
+            // latinica sa dijakriticima
+            case 'č': case 'ć': sb.append('c'); return;
+            case 'š': sb.append('s'); return;
+            case 'ž': sb.append('z'); return;
+            case 'đ': sb.append("dj"); return;
+            // srpska ćirilica
+            case 'а': sb.append('a'); return;
+            case 'б': sb.append('b'); return;
+            case 'в': sb.append('v'); return;
+            case 'г': sb.append('g'); return;
+            case 'д': sb.append('d'); return;
+            case 'ђ': sb.append("dj"); return;
+            case 'е': sb.append('e'); return;
+            case 'ж': sb.append('z'); return;
+            case 'з': sb.append('z'); return;
+            case 'и': sb.append('i'); return;
+            case 'ј': sb.append('j'); return;
+            case 'к': sb.append('k'); return;
+            case 'л': sb.append('l'); return;
+            case 'љ': sb.append("lj"); return;
+            case 'м': sb.append('m'); return;
+            case 'н': sb.append('n'); return;
+            case 'њ': sb.append("nj"); return;
+            case 'о': sb.append('o'); return;
+            case 'п': sb.append('p'); return;
+            case 'р': sb.append('r'); return;
+            case 'с': sb.append('s'); return;
+            case 'т': sb.append('t'); return;
+            case 'ћ': sb.append('c'); return;
+            case 'у': sb.append('u'); return;
+            case 'ф': sb.append('f'); return;
+            case 'х': sb.append('h'); return;
+            case 'ц': sb.append('c'); return;
+            case 'ч': sb.append('c'); return;
+            case 'џ': sb.append("dz"); return;
+            case 'ш': sb.append('s'); return;
+            default:
+                // ostali dijakritici (é, ü, ...) — uklanjamo kombinujuće znakove nakon NFD dekompozicije
+                String decomposed = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD);
+                for (int i = 0; i < decomposed.length(); i++) {
+                    char d = decomposed.charAt(i);
+                    if (!isCombiningMark(d)) sb.append(d);
+                }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.isa.backend.util;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Ograničen prsten id-jeva (najnoviji na kraju) za home timeline jednog korisnika.
+ *
+ * Kada je pun, novi id prepisuje najstariji, pa memorija po korisniku ne raste preko capacity.
+ * Čitanje stranice kopira samo traženi opseg — O(size), bez obzira na dubinu prstena.
+ *
+ * Thread-safe: sve operacije su sinhronizovane na samom baferu.
+ */
+public class TimelineBuffer {
+
+    private final long[] ids;
+    private int head = 0;
+    private int size = 0;
+
+    public TimelineBuffer(int capacity) {
+        if (capacity <= 0) throw new IllegalArgumentException("Kapacitet mora biti pozitivan");
+        this.ids = new long[capacity];
+    }
+
+    public synchronized void push(long id) {
+        ids[head] = id;
+        head = (head + 1) % ids.length;
+        if (size < ids.length) size++;
+    }
+
+    /**
+     * Do limit id-jeva počevši od offset-a, najnoviji prvi.
+     */
+    public synchronized long[] page(int offset, int limit) {
+        if (offset < 0 || limit < 0) throw new IllegalArgumentException("Neispravni parametri stranice");
+        int count = Math.max(0, Math.min(limit, size - offset));
+        long[] result = new long[count];
+        for (int i = 0; i < count; i++) {
+            result[i] = ids[Math.floorMod(head - 1 - offset - i, ids.length)];
+        }
+        return result;
+    }
+
+    /**
+     * Dodaje starije id-jeve (najnoviji prvi) ispred postojećih; id-jevi koji su već u prstenu se preskaču.
+     * Koristi se kada se prsten puni iz baze dok istovremeno stižu novi id-jevi.
+     */
+    public synchronized void prependOlder(List<Long> olderNewestFirst) {
+        long[] current = page(0, size);
+        Set<Long> present = new HashSet<>(current.length * 2);
+        for (long id : current) present.add(id);
+        clear();
+        for (int i = olderNewestFirst.size() - 1; i >= 0; i--) {
+            long id = olderNewestFirst.get(i);
+            if (!present.contains(id)) push(id);
+        }
+        for (int i = current.length - 1; i >= 0; i--) push(current[i]);
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return ids.length;
+    }
+
+    public synchronized void clear() {
+        Arrays.fill(ids, 0);
+        head = 0;
+        size = 0;
+    }
+}
@@ -0,0 +1,29 @@
+package com.isa.backend.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Pomoćne metode za izvršavanje akcija tek nakon uspešnog commit-a tekuće transakcije.
+ */
+public final class TransactionHooks {
+
+    private TransactionHooks() {}
+
+    /**
+     * Izvršava akciju nakon commit-a aktivne transakcije, ili odmah ako transakcija ne postoji.
+     * Ako transakcija bude rollback-ovana, akcija se ne izvršava.
+     */
+    public static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,294 @@
+package com.isa.backend.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Trending rang lista sa vremenski opadajućom popularnošću (forward decay).
+ *
+ * Svaki događaj doprinosi težinom w * 2^((t - base) / halfLife), gde je base fiksno referentno vreme.
+ * Ovako skor jednom upisan ne mora da se preračunava kako vreme prolazi: relativni poredak dva videa
+ * je isti kao kod klasičnog eksponencijalnog opadanja, pa se skor ažurira inkrementalno, O(log K) po
+ * događaju. Kada eksponent postane prevelik, base se pomera i svi skorovi se skaliraju istim faktorom.
+ *
+ * Top-K se drži u ConcurrentSkipListSet-u ograničene veličine; video koji ispadne vraća se čim mu
+ * skor pređe najslabiji u listi (skor raste samo kroz njegove sopstvene događaje).
+ * Pored skora, za svaki aktivan video čuvaju se brojači događaja po satu za poslednja 24 sata.
+ */
+public class TrendingTopK {
+
+    public enum Event {
+        VIEW(1), LIKE(3), COMMENT(5);
+
+        private final double weight;
+
+        Event(double weight) {
+            this.weight = weight;
+        }
+
+        public double getWeight() {
+            return weight;
+        }
+    }
+
+    private static final long HOUR_MILLIS = 3_600_000L;
+    private static final int HOURLY_SLOTS = 24;
+    private static final double MAX_EXPONENT = 50;
+    // Video čiji je trenutni skor ispod ovoga uklanja se pri prune()
+    private static final double NEGLIGIBLE_SCORE = 0.01;
+
+    private final int capacity;
+    private final double halfLifeMillis;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Stats> stats = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<Entry> top = new ConcurrentSkipListSet<>();
+    private final AtomicInteger topSize = new AtomicInteger();
+    private volatile long baseMillis;
+
+    public TrendingTopK(int capacity, double halfLifeMillis, long nowMillis) {
+        if (capacity <= 0 || halfLifeMillis <= 0) {
+            throw new IllegalArgumentException("Kapacitet i poluživot moraju biti pozitivni");
+        }
+        this.capacity = capacity;
+        this.halfLifeMillis = halfLifeMillis;
+        this.baseMillis = nowMillis;
+    }
+
+    /**
+     * Evidentira događaj u trenutku nowMillis (ulazi i u satne brojače).
+     */
+    public void record(long id, Event event, long nowMillis) {
+        add(id, event.getWeight(), nowMillis, event, nowMillis);
+    }
+
+    /**
+     * Dodaje istorijsku težinu koja se tretira kao da je nastala u trenutku atMillis (npr. ukupni brojači
+     * iz baze pri startu, pripisani datumu objave). Ne ulazi u satne brojače.
+     */
+    public void seed(long id, double weight, long atMillis, long nowMillis) {
+        if (weight <= 0) return;
+        add(id, weight, atMillis, null, nowMillis);
+    }
+
+    /**
+     * Do limit id-jeva sa najvećim skorom, najpopularniji prvi. O(limit).
+     */
+    public List<Long> top(int limit) {
+        List<Long> result = new ArrayList<>(Math.min(limit, capacity));
+        lock.readLock().lock();
+        try {
+            Iterator<Entry> it = top.descendingIterator();
+            while (it.hasNext() && result.size() < limit) {
+                result.add(it.next().id);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    /**
+     * Trenutni (opadajući) skor videa, u jedinicama težine događaja.
+     */
+    public double score(long id, long nowMillis) {
+        Stats s = stats.get(id);
+        if (s == null) return 0;
+        synchronized (s) {
+            return s.score * Math.pow(2, (baseMillis - nowMillis) / halfLifeMillis);
+        }
+    }
+
+    /**
+     * Broj pregleda, lajkova i komentara u poslednja 24 sata (indeksi po Event.ordinal()).
+     */
+    public int[] recentCounts(long id, long nowMillis) {
+        int[] totals = new int[Event.values().length];
+        Stats s = stats.get(id);
+        if (s == null) return totals;
+        long currentHour = nowMillis / HOUR_MILLIS;
+        synchronized (s) {
+            if (s.hourly == null) return totals;
+            for (int slot = 0; slot < HOURLY_SLOTS; slot++) {
+                if (currentHour - s.slotHour[slot] >= HOURLY_SLOTS) continue;
+                for (int e = 0; e < totals.length; e++) totals[e] += s.hourly[slot][e];
+            }
+        }
+        return totals;
+    }
+
+    public void remove(long id) {
+        lock.readLock().lock();
+        try {
+            Stats s = stats.remove(id);
+            if (s != null) {
+                synchronized (s) {
+                    removeFromTop(s);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Uklanja videe sa zanemarljivim skorom i oslobađa istekle satne brojače.
+     */
+    public int prune(long nowMillis) {
+        double threshold = NEGLIGIBLE_SCORE * Math.pow(2, (nowMillis - baseMillis) / halfLifeMillis);
+        long currentHour = nowMillis / HOUR_MILLIS;
+        int removed = 0;
+        lock.readLock().lock();
+        try {
+            Iterator<Map.Entry<Long, Stats>> it = stats.entrySet().iterator();
+            while (it.hasNext()) {
+                Stats s = it.next().getValue();
+                synchronized (s) {
+                    if (s.hourly != null && currentHour - s.lastHour >= HOURLY_SLOTS) {
+                        s.hourly = null;
+                        s.slotHour = null;
+                    }
+                    if (s.score < threshold && s.hourly == null
+                            && (s.entry == null || !top.contains(s.entry))) {
+                        it.remove();
+                        removed++;
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return removed;
+    }
+
+    public int size() {
+        return stats.size();
+    }
+
+    private void add(long id, double weight, long eventMillis, Event event, long nowMillis) {
+        if (nowMillis - baseMillis > MAX_EXPONENT * halfLifeMillis) {
+            rebase(nowMillis);
+        }
+        lock.readLock().lock();
+        try {
+            Stats s = stats.computeIfAbsent(id, k -> new Stats(id));
+            synchronized (s) {
+                s.score += weight * Math.pow(2, (eventMillis - baseMillis) / halfLifeMillis);
+                if (event != null) s.count(event, nowMillis / HOUR_MILLIS);
+                offer(s);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Poziva se pod monitorom s
+    private void offer(Stats s) {
+        Entry lowest = topSize.get() >= capacity ? first() : null;
+        if (s.entry == null && lowest != null && s.score <= lowest.score) return;
+
+        removeFromTop(s);
+        Entry entry = new Entry(s.score, s.id);
+        if (top.add(entry)) topSize.incrementAndGet();
+        s.entry = entry;
+
+        // Višak se izbacuje od najslabijeg; izbačenom videu entry ostaje zastareo, pa remove vrati false
+        while (topSize.get() > capacity) {
+            Entry evicted = top.pollFirst();
+            if (evicted == null) break;
+            topSize.decrementAndGet();
+            if (evicted == s.entry) s.entry = null;
+        }
+    }
+
+    private void removeFromTop(Stats s) {
+        if (s.entry != null && top.remove(s.entry)) topSize.decrementAndGet();
+        s.entry = null;
+    }
+
+    private Entry first() {
+        try {
+            return top.first();
+        } catch (NoSuchElementException e) {
+            return null;
+        }
+    }
+
+    // Pomera referentno vreme na nowMillis; poredak se ne menja jer se svi skorovi skaliraju istim faktorom
+    private void rebase(long nowMillis) {
+        lock.writeLock().lock();
+        try {
+            if (nowMillis - baseMillis <= MAX_EXPONENT * halfLifeMillis) return;
+            double factor = Math.pow(2, (baseMillis - nowMillis) / halfLifeMillis);
+            top.clear();
+            topSize.set(0);
+            for (Stats s : stats.values()) {
+                synchronized (s) {
+                    s.score *= factor;
+                    s.entry = null;
+                }
+            }
+            baseMillis = nowMillis;
+            for (Stats s : stats.values()) {
+                synchronized (s) {
+                    if (s.score > 0) offer(s);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static final class Stats {
+        final long id;
+        double score;
+        Entry entry;
+        // Satni brojači se alociraju tek pri prvom događaju i oslobađaju kada isteknu
+        int[][] hourly;
+        long[] slotHour;
+        long lastHour;
+
+        Stats(long id) {
+            this.id = id;
+        }
+
+        void count(Event event, long hour) {
+            if (hourly == null) {
+                hourly = new int[HOURLY_SLOTS][Event.values().length];
+                slotHour = new long[HOURLY_SLOTS];
+                Arrays.fill(slotHour, Long.MIN_VALUE / 2);
+            }
+            int slot = (int) Math.floorMod(hour, (long) HOURLY_SLOTS);
+            if (slotHour[slot] != hour) {
+                Arrays.fill(hourly[slot], 0);
+                slotHour[slot] = hour;
+            }
+            hourly[slot][event.ordinal()]++;
+            lastHour = Math.max(lastHour, hour);
+        }
+    }
+
+    private static final class Entry implements Comparable<Entry> {
+        final double score;
+        final long id;
+
+        Entry(double score, long id) {
+            this.score = score;
+            this.id = id;
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            int c = Double.compare(score, other.score);
+            return c != 0 ? c : Long.compare(id, other.id);
+        }
+    }
+}
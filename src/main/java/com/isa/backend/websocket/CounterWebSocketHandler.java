@@ -0,0 +1,80 @@
+package com.isa.backend.websocket;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.isa.backend.service.LiveCounterService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * WebSocket handler za /ws/counters.
+ * Klijent šalje {"subscribe":[1,2,3]} ili {"unsubscribe":[2]}, a server na svaki tick šalje okvir sa priraštajima.
+ */
+@Component
+public class CounterWebSocketHandler extends TextWebSocketHandler {
+
+    // Poruke klijenta su samo liste id-jeva; veće poruke se odbijaju
+    private static final int MAX_MESSAGE_LENGTH = 8192;
+
+    @Autowired
+    private LiveCounterService liveCounterService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        liveCounterService.register(session);
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) {
+        if (message.getPayloadLength() > MAX_MESSAGE_LENGTH) {
+            liveCounterService.sendError(session, "Poruka je prevelika");
+            return;
+        }
+        try {
+            JsonNode root = objectMapper.readTree(message.getPayload());
+            if (root.has("subscribe")) {
+                liveCounterService.subscribe(session, ids(root.get("subscribe")));
+            }
+            if (root.has("unsubscribe")) {
+                liveCounterService.unsubscribe(session, ids(root.get("unsubscribe")));
+            }
+        } catch (IOException e) {
+            liveCounterService.sendError(session, "Neispravan format poruke");
+        } catch (IllegalArgumentException e) {
+            liveCounterService.sendError(session, e.getMessage());
+        }
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        liveCounterService.unregister(session);
+    }
+
+    @Override
+    public void handleTransportError(WebSocketSession session, Throwable exception) {
+        liveCounterService.unregister(session);
+    }
+
+    private static List<Long> ids(JsonNode node) {
+        if (node == null || !node.isArray()) {
+            throw new IllegalArgumentException("Očekuje se niz id-jeva videa");
+        }
+        List<Long> ids = new ArrayList<>(node.size());
+        for (JsonNode id : node) {
+            if (!id.canConvertToLong()) throw new IllegalArgumentException("Neispravan id videa: " + id);
+            ids.add(id.asLong());
+        }
+        return ids;
+    }
+}
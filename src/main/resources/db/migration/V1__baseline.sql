@@ -0,0 +1,49 @@
+-- Početna šema: stanje koje je ddl-auto=update napravio za prvobitne entitete (IDENTITY id-jevi, brojači
+-- u video_posts). Sve kasnije izmene su u migracijama od V2 nadalje.
+--
+-- Na praznoj bazi Flyway izvršava ovu migraciju. Postojeća baza (nastala kroz ddl-auto=update) se pri prvom
+-- pokretanju samo označava kao verzija 1 (spring.flyway.baseline-on-migrate) i dobija migracije od V2 nadalje,
+-- pa su one napisane tako da prođu i nad bazom koja već ima deo tih izmena.
+
+CREATE TABLE users (
+    id                bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    email             varchar(255) NOT NULL,
+    username          varchar(255) NOT NULL,
+    password          varchar(255) NOT NULL,
+    first_name        varchar(255),
+    last_name         varchar(255),
+    address           varchar(255),
+    enabled           boolean      NOT NULL,
+    activation_token  varchar(255),
+    token_expiry_date timestamp(6),
+    created_at        timestamp(6) NOT NULL,
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE TABLE video_posts (
+    id             bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    title          varchar(255) NOT NULL,
+    description    text,
+    thumbnail_path varchar(255) NOT NULL,
+    video_path     varchar(255) NOT NULL,
+    video_size     bigint       NOT NULL,
+    created_at     timestamp(6) NOT NULL,
+    location       varchar(255),
+    user_id        bigint       NOT NULL,
+    view_count     integer DEFAULT 0,
+    like_count     integer DEFAULT 0,
+    comment_count  integer DEFAULT 0
+);
+
+CREATE TABLE video_tags (
+    video_id bigint NOT NULL REFERENCES video_posts (id),
+    tag      varchar(255)
+);
+
+CREATE TABLE comments (
+    id            bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    text          text         NOT NULL,
+    user_id       bigint       NOT NULL,
+    video_post_id bigint       NOT NULL,
+    created_at    timestamp(6) NOT NULL
+);
@@ -0,0 +1,43 @@
+-- Kolone i tabele koje je do uvođenja Flyway-a dodavao ddl-auto=update: niti komentara, koordinate videa,
+-- praćenje autora i agregati pregleda. IF NOT EXISTS: baza koja je radila sa tim verzijama ih već ima.
+-- Putanje postojećih komentara popunjava aplikacija pri pokretanju (CommentService.backfillThreadPaths).
+
+ALTER TABLE comments
+    ADD COLUMN IF NOT EXISTS parent_id   bigint,
+    -- Materijalizovana putanja niti; "C" kolacija daje bajtovsko poređenje za opsežne upite podstabla
+    ADD COLUMN IF NOT EXISTS path        varchar(255) COLLATE "C",
+    ADD COLUMN IF NOT EXISTS depth       integer DEFAULT 0,
+    ADD COLUMN IF NOT EXISTS reply_count integer DEFAULT 0;
+
+ALTER TABLE video_posts
+    ADD COLUMN IF NOT EXISTS latitude  float(53),
+    ADD COLUMN IF NOT EXISTS longitude float(53);
+
+CREATE TABLE IF NOT EXISTS follows (
+    id          bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    follower_id bigint       NOT NULL,
+    followee_id bigint       NOT NULL,
+    created_at  timestamp(6) NOT NULL,
+    CONSTRAINT uk_follows_follower_followee UNIQUE (follower_id, followee_id)
+);
+
+CREATE TABLE IF NOT EXISTS video_view_hourly (
+    video_id     bigint       NOT NULL,
+    bucket_start timestamp(6) NOT NULL,
+    views        bigint       NOT NULL,
+    PRIMARY KEY (video_id, bucket_start)
+);
+
+CREATE TABLE IF NOT EXISTS video_view_daily (
+    video_id bigint NOT NULL,
+    view_day date   NOT NULL,
+    views    bigint NOT NULL,
+    PRIMARY KEY (video_id, view_day)
+);
+
+CREATE TABLE IF NOT EXISTS video_viewer_sketch (
+    video_id bigint NOT NULL,
+    view_day date   NOT NULL,
+    sketch   bytea  NOT NULL,
+    PRIMARY KEY (video_id, view_day)
+);
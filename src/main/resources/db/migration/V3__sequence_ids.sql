@@ -0,0 +1,28 @@
+-- Prelazak users, video_posts i comments sa IDENTITY/serial id-jeva na pooled sekvence (allocationSize = 50).
+--
+-- INCREMENT BY mora biti jednak allocationSize: pooled-lo optimizator jedan nextval tumači kao blok
+-- [vrednost, vrednost + 50). Sekvenca kreće od MAX(id) + 1, pa prvi blok počinje odmah iza postojećih id-jeva.
+-- Ako sekvenca već postoji i ispred je (baza na kojoj je ovo ranije pokrenuto ručno), ne vraća se unazad —
+-- blokovi koje su instance već uzele ostaju neiskorišćeni.
+
+DO $$
+DECLARE
+    t text;
+BEGIN
+    FOREACH t IN ARRAY ARRAY['users', 'video_posts', 'comments'] LOOP
+        EXECUTE format('CREATE SEQUENCE IF NOT EXISTS %I INCREMENT BY 50 START WITH 1', t || '_seq');
+        EXECUTE format('ALTER SEQUENCE %I INCREMENT BY 50', t || '_seq');
+        -- LOCK sprečava insert sa starim id-jem između čitanja MAX(id) i setval-a
+        EXECUTE format('LOCK TABLE %I IN EXCLUSIVE MODE', t);
+        EXECUTE format('SELECT setval(%L, GREATEST(COALESCE(MAX(id), 0) + 1, nextval(%L)), false) FROM %I',
+                t || '_seq', t || '_seq', t);
+        -- Id sada dodeljuje aplikacija; stara IDENTITY/serial podrazumevana vrednost se uklanja
+        EXECUTE format('ALTER TABLE %I ALTER COLUMN id DROP IDENTITY IF EXISTS', t);
+        EXECUTE format('ALTER TABLE %I ALTER COLUMN id DROP DEFAULT', t);
+    END LOOP;
+END $$;
+
+-- Stare serial sekvence (ako je šema nastala pre Hibernate 6) više nisu u upotrebi
+DROP SEQUENCE IF EXISTS users_id_seq;
+DROP SEQUENCE IF EXISTS video_posts_id_seq;
+DROP SEQUENCE IF EXISTS comments_id_seq;
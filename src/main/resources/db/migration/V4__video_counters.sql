@@ -0,0 +1,44 @@
+-- Premeštanje view_count, like_count i comment_count iz video_posts u usku tabelu video_counters.
+-- Baza na kojoj je tabelu već napravio ddl-auto=update (ili je ovo ranije pokrenuto ručno) dobija samo
+-- podešavanja tabele; kopiranje se preskače ako stare kolone više ne postoje.
+
+CREATE TABLE IF NOT EXISTS video_counters (
+    video_id      bigint  NOT NULL,
+    slot          integer NOT NULL,
+    view_count    bigint  NOT NULL,
+    like_count    bigint  NOT NULL,
+    comment_count bigint  NOT NULL,
+    PRIMARY KEY (video_id, slot)
+);
+
+-- Slobodan prostor u stranici omogućava HOT izmene (nova verzija reda u istoj stranici, bez izmene indeksa)
+ALTER TABLE video_counters SET (fillfactor = 50);
+-- Tabela je mala i menja se stalno: autovacuum treba da je čisti češće od podrazumevanih 20% mrtvih redova
+ALTER TABLE video_counters SET (autovacuum_vacuum_scale_factor = 0.01, autovacuum_vacuum_threshold = 1000);
+
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_schema = current_schema() AND table_name = 'video_posts' AND column_name = 'view_count') THEN
+        -- Zaključavanje sprečava uvećanje u staroj koloni između kopiranja i brisanja kolona
+        LOCK TABLE video_posts IN EXCLUSIVE MODE;
+
+        -- Postojeće vrednosti idu u slot 0
+        INSERT INTO video_counters (video_id, slot, view_count, like_count, comment_count)
+        SELECT id, 0, COALESCE(view_count, 0), COALESCE(like_count, 0), COALESCE(comment_count, 0)
+        FROM video_posts
+        ON CONFLICT (video_id, slot) DO UPDATE SET
+            view_count = video_counters.view_count + EXCLUDED.view_count,
+            like_count = video_counters.like_count + EXCLUDED.like_count,
+            comment_count = video_counters.comment_count + EXCLUDED.comment_count;
+
+        ALTER TABLE video_posts
+            DROP COLUMN IF EXISTS view_count,
+            DROP COLUMN IF EXISTS like_count,
+            DROP COLUMN IF EXISTS comment_count;
+    END IF;
+END $$;
+
+-- Stare verzije redova video_posts (od svakog uvećanja brojača) ostaju u tabeli dok se ne prepiše.
+-- Van radnog vremena (zaključava tabelu):
+--   VACUUM FULL ANALYZE video_posts;
@@ -0,0 +1,32 @@
+-- Indeksi za kolone po kojima filtriraju i sortiraju upiti iz repository sloja.
+-- Proverava ih QueryPlanRegressionTest (EXPLAIN svakog upita nad popunjenom bazom, bez sekvencijalnih prolaza).
+--
+-- IF NOT EXISTS: baza nastala kroz ddl-auto=update već ima indekse deklarisane u @Table (ista imena).
+-- CREATE INDEX zaključava tabelu za upis dok traje; na velikoj postojećoj bazi pokrenuti van špica.
+
+-- video_posts: stream i komentari po nazivu fajla, videi autora (home timeline), feed po datumu
+CREATE UNIQUE INDEX IF NOT EXISTS idx_video_posts_video_path ON video_posts (video_path);
+CREATE INDEX IF NOT EXISTS idx_video_posts_user_id ON video_posts (user_id, id);
+CREATE INDEX IF NOT EXISTS idx_video_posts_created_at ON video_posts (created_at);
+
+-- video_tags: pretraga po tagu i učitavanje tagova videa (ElementCollection nema ni primarni ključ)
+CREATE INDEX IF NOT EXISTS idx_video_tags_tag ON video_tags (tag);
+CREATE INDEX IF NOT EXISTS idx_video_tags_video_id ON video_tags (video_id);
+
+-- comments: stranice komentara videa (keyset po created_at, id), podstablo po putanji, odgovori
+CREATE INDEX IF NOT EXISTS idx_comments_video_created_id ON comments (video_post_id, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_comments_path ON comments (path);
+CREATE INDEX IF NOT EXISTS idx_comments_parent_id ON comments (parent_id, id);
+
+-- users: aktivacija naloga po tokenu i provera zauzetog korisničkog imena (email ima unique ograničenje)
+CREATE INDEX IF NOT EXISTS idx_users_activation_token ON users (activation_token);
+CREATE INDEX IF NOT EXISTS idx_users_username ON users (username);
+
+-- follows: pratioci autora (fan-out); upiti po follower_id koriste unique (follower_id, followee_id)
+CREATE INDEX IF NOT EXISTS idx_follows_followee ON follows (followee_id);
+
+ANALYZE video_posts;
+ANALYZE video_tags;
+ANALYZE comments;
+ANALYZE users;
+ANALYZE follows;
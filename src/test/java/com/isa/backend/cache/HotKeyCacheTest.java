@@ -0,0 +1,112 @@
+package com.isa.backend.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Single-flight učitavanje, spajanje istovremenih promašaja, greška učitavanja i
+ * stale-while-revalidate u HotKeyCache.get(key, loader).
+ */
+public class HotKeyCacheTest {
+
+    private static final int THREADS = 16;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+    @AfterEach
+    public void cleanup() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testConcurrentMissesAreLoadedOnce() throws Exception {
+        HotKeyCache cache = new HotKeyCache("test", 0, 1, 100, null, 0.8);
+        AtomicInteger calls = new AtomicInteger();
+
+        // Učitavanje traje dok svi ostali pozivaoci ne počnu da čekaju njegov rezultat
+        List<Future<String>> results = runConcurrently(() -> cache.get("k", () -> {
+            calls.incrementAndGet();
+            awaitCoalesced(cache, THREADS - 1);
+            return "vrednost";
+        }));
+
+        for (Future<String> result : results) {
+            assertEquals("vrednost", result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, calls.get());
+        assertEquals(1L, cache.getStats().get("loads").longValue());
+        assertEquals(THREADS - 1L, cache.getStats().get("coalesced").longValue());
+        assertEquals("vrednost", cache.get("k", () -> fail("Vrednost je već u kešu")));
+    }
+
+    @Test
+    public void testLoaderFailureReachesWaitersAndNextCallReloads() throws Exception {
+        HotKeyCache cache = new HotKeyCache("test", 0, 1, 100, null, 0.8);
+
+        List<Future<String>> results = runConcurrently(() -> cache.get("k", () -> {
+            awaitCoalesced(cache, THREADS - 1);
+            throw new IllegalStateException("Baza nije dostupna");
+        }));
+
+        for (Future<String> result : results) {
+            Exception e = assertThrows(Exception.class, () -> result.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(Cache.ValueRetrievalException.class, e.getCause());
+            assertInstanceOf(IllegalStateException.class, e.getCause().getCause());
+        }
+        assertNull(cache.get("k"), "Neuspešno učitavanje ne sme ostati u kešu");
+
+        assertEquals("vrednost", cache.get("k", () -> "vrednost"));
+        assertEquals(2L, cache.getStats().get("loads").longValue());
+    }
+
+    @Test
+    public void testStaleValueIsServedWhileRefreshing() throws Exception {
+        List<Runnable> refreshes = new ArrayList<>();
+        // Osvežavanje kreće čim je unos stariji od 0 * TTL; zadaci se izvršavaju ručno
+        HotKeyCache cache = new HotKeyCache("test", 60_000, 1, 100, refreshes::add, 0.0);
+        cache.put("k", "staro");
+        Thread.sleep(5);
+
+        assertEquals("staro", cache.get("k", () -> "novo"));
+        assertEquals("staro", cache.get("k", () -> "novo"));
+        assertEquals(1, refreshes.size(), "Jedno osvežavanje po ključu dok prethodno nije završeno");
+
+        refreshes.get(0).run();
+        assertEquals(1L, cache.getStats().get("refreshes").longValue());
+        assertEquals("novo", cache.get("k").get());
+    }
+
+    private List<Future<String>> runConcurrently(Callable<String> task) {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                return task.call();
+            }));
+        }
+        start.countDown();
+        return results;
+    }
+
+    private static void awaitCoalesced(HotKeyCache cache, long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (cache.getStats().get("coalesced") < expected) {
+            if (System.nanoTime() > deadline) throw new IllegalStateException("Pozivaoci nisu stigli do čekanja");
+            Thread.sleep(1);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.isa.backend.datasource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Rutiranje na dve ugrađene H2 baze (primarna i replika): svaka baza u tabeli node ima svoje ime,
+ * pa upit pokazuje na koju je bazu konekcija otišla.
+ */
+public class ReadReplicaRoutingDataSourceTest {
+
+    private static final long WINDOW_MS = 5_000;
+
+    private final AtomicLong clock = new AtomicLong(1_000_000);
+    private JdbcTemplate jdbc;
+    private TransactionTemplate reads;
+    private TransactionTemplate writes;
+
+    @BeforeEach
+    public void setup() {
+        use(database("primary"), List.of(database("replica")));
+    }
+
+    @AfterEach
+    public void cleanup() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void testReadOnlyTransactionGoesToReplica() {
+        assertEquals("replica", reads.execute(status -> node()));
+    }
+
+    @Test
+    public void testWritesAndNonTransactionalReadsGoToPrimary() {
+        assertEquals("primary", writes.execute(status -> node()));
+        assertEquals("primary", node());
+    }
+
+    @Test
+    public void testReadYourWritesWindow() {
+        login("ana@example.com");
+        writes.executeWithoutResult(status -> jdbc.update("UPDATE node SET writes = writes + 1"));
+        assertEquals("primary", reads.execute(status -> node()), "Posle sopstvenog upisa čitanje ide na primarnu");
+
+        login("marko@example.com");
+        assertEquals("replica", reads.execute(status -> node()), "Drugi korisnik i dalje čita sa replike");
+
+        login("ana@example.com");
+        clock.addAndGet(WINDOW_MS);
+        assertEquals("replica", reads.execute(status -> node()), "Po isteku prozora čitanje se vraća na repliku");
+    }
+
+    @Test
+    public void testRolledBackWriteIsNotSticky() {
+        login("ana@example.com");
+        writes.executeWithoutResult(status -> {
+            jdbc.update("UPDATE node SET writes = writes + 1");
+            status.setRollbackOnly();
+        });
+        assertEquals("replica", reads.execute(status -> node()));
+    }
+
+    @Test
+    public void testAnonymousWriteIsNotSticky() {
+        writes.executeWithoutResult(status -> jdbc.update("UPDATE node SET writes = writes + 1"));
+        assertEquals("replica", reads.execute(status -> node()));
+    }
+
+    @Test
+    public void testCounterOnlyWriteIsNotSticky() {
+        login("ana@example.com");
+        writes.executeWithoutResult(status -> {
+            jdbc.update("UPDATE node SET writes = writes + 1");
+            ReadReplicaRoutingDataSource.skipReadYourWrites();
+        });
+        assertEquals("replica", reads.execute(status -> node()), "Upis samo brojača ne vezuje korisnika za primarnu");
+
+        writes.executeWithoutResult(status -> jdbc.update("UPDATE node SET writes = writes + 1"));
+        assertEquals("primary", reads.execute(status -> node()), "Oznaka važi samo za transakciju u kojoj je postavljena");
+    }
+
+    @Test
+    public void testReadFromPrimaryMarker() {
+        assertEquals("primary", reads.execute(status -> {
+            ReadReplicaRoutingDataSource.readFromPrimary();
+            return node();
+        }));
+        assertEquals("replica", reads.execute(status -> node()), "Oznaka važi samo za transakciju u kojoj je postavljena");
+    }
+
+    @Test
+    public void testRoundRobinAcrossReplicas() {
+        use(database("primary"), List.of(database("replica-a"), database("replica-b")));
+        List<String> nodes = new ArrayList<>();
+        for (int i = 0; i < 4; i++) nodes.add(reads.execute(status -> node()));
+        assertEquals(List.of("replica-a", "replica-b", "replica-a", "replica-b"), nodes);
+    }
+
+    @Test
+    public void testUnavailableReplicaFallsBackToPrimary() {
+        DataSource down = new AbstractDataSource() {
+            @Override
+            public Connection getConnection() throws SQLException {
+                throw new SQLException("Connection refused");
+            }
+
+            @Override
+            public Connection getConnection(String username, String password) throws SQLException {
+                return getConnection();
+            }
+        };
+        use(database("primary"), List.of(down));
+        assertEquals("primary", reads.execute(status -> node()));
+    }
+
+    private void use(DataSource primary, List<DataSource> replicas) {
+        ReadYourWritesTracker tracker = new ReadYourWritesTracker(WINDOW_MS, clock::get);
+        DataSource dataSource = new LazyConnectionDataSourceProxy(new ReadReplicaRoutingDataSource(primary, replicas, tracker));
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbc = new JdbcTemplate(dataSource);
+        reads = new TransactionTemplate(transactionManager);
+        reads.setReadOnly(true);
+        writes = new TransactionTemplate(transactionManager);
+    }
+
+    private String node() {
+        return jdbc.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private static void login(String email) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(email, null, List.of()));
+    }
+
+    private static DataSource database(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate setup = new JdbcTemplate(dataSource);
+        setup.execute("CREATE TABLE node (name VARCHAR(32), writes INT)");
+        setup.update("INSERT INTO node VALUES (?, 0)", name);
+        return dataSource;
+    }
+}
@@ -0,0 +1,349 @@
+package com.isa.backend.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.isa.backend.util.CommentPaths;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Regresioni test planova upita: svaki upit iz repository sloja izvršava se nad popunjenom bazom
+ * (šema iz Flyway migracija), a SQL koji je zaista poslat bazi, sa istim parametrima, ponovo se izvršava
+ * kao EXPLAIN. Test pada ako plan sadrži sekvencijalni prolaz kroz tabelu.
+ *
+ * Sekvencijalni prolazi su isključeni za sesiju (enable_seqscan = off), pa planer bira indeks kad god
+ * postoji indeks koji upit može da koristi; Seq Scan u planu znači da takav indeks ne postoji.
+ * Sve se radi u jednoj transakciji koja se na kraju poništava, pa podaci testa ne ostaju u bazi.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class QueryPlanRegressionTest {
+
+    // Id-jevi test podataka su daleko iznad id-jeva iz sekvenci, da se ne sudare sa postojećim redovima
+    private static final long BASE = 900_000_000L;
+    private static final int USERS = 2_000;
+    private static final int VIDEOS = 5_000;
+    private static final int COMMENTS = 20_000;
+    private static final int COMMENTED_VIDEOS = 50;
+    private static final int FOLLOWS = 10_000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private VideoPostRepository videoPostRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private FollowRepository followRepository;
+
+    @Autowired
+    private VideoCounterRepository videoCounterRepository;
+
+    @Autowired
+    private VideoViewHourlyRepository videoViewHourlyRepository;
+
+    @Autowired
+    private VideoViewDailyRepository videoViewDailyRepository;
+
+    @Autowired
+    private VideoViewerSketchRepository videoViewerSketchRepository;
+
+    @TestConfiguration
+    static class CaptureConfig {
+        @Bean
+        static BeanPostProcessor statementCapturingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? StatementCapture.wrap(dataSource) : bean;
+                }
+            };
+        }
+    }
+
+    @Test
+    public void testRepositoryQueriesUseIndexes() {
+        Map<String, List<String>> violations = new LinkedHashMap<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            status.setRollbackOnly();
+            seed();
+
+            long videoId = BASE + 1;
+            long userId = BASE + 1;
+            long rootCommentId = BASE + 1;
+            String rootPath = CommentPaths.segment(rootCommentId);
+            LocalDateTime now = LocalDateTime.now();
+            LocalDate today = LocalDate.now();
+            List<Long> userIds = List.of(BASE + 1, BASE + 2, BASE + 3);
+            List<Long> videoIds = List.of(BASE + 1, BASE + 2, BASE + 3);
+
+            Map<String, Runnable> checks = new LinkedHashMap<>();
+            // VideoPostRepository (bez upita koji namerno čitaju celu tabelu za in-memory indekse:
+            // findAllIdTagPairs, findAllIndexMetadata, findAllSearchDocuments, findAllCoordinates,
+            // nestranični findAllByOrderByCreatedAtDesc)
+            checks.put("VideoPost.findByUserId", () -> videoPostRepository.findByUserId(userId));
+            checks.put("VideoPost.findByTagsContaining", () -> videoPostRepository.findByTagsContaining("tag-7"));
+            checks.put("VideoPost.findAllByOrderByCreatedAtDesc(page)",
+                    () -> videoPostRepository.findAllByOrderByCreatedAtDesc(PageRequest.of(0, 20)));
+            checks.put("VideoPost.findIdByVideoPath", () -> videoPostRepository.findIdByVideoPath("plan-video-1.mp4"));
+            checks.put("VideoPost.findVideoPathIds", () -> videoPostRepository.findVideoPathIds(PageRequest.of(0, 100)));
+            checks.put("VideoPost.findIdsByUserIdIn", () -> videoPostRepository.findIdsByUserIdIn(userIds, PageRequest.of(0, 50)));
+            checks.put("VideoPost.findExistingIds", () -> videoPostRepository.findExistingIds(videoIds));
+            checks.put("VideoPost.findByVideoPath + tags",
+                    () -> videoPostRepository.findByVideoPath("plan-video-1.mp4").ifPresent(v -> v.getTags().size()));
+            // CommentRepository
+            checks.put("Comment.findByVideoPostIdAndParentIdIsNullOrderByCreatedAtDesc",
+                    () -> commentRepository.findByVideoPostIdAndParentIdIsNullOrderByCreatedAtDesc(videoId));
+            checks.put("Comment.findByVideoPostIdAndParentIdIsNullOrderByCreatedAtDescIdDesc",
+                    () -> commentRepository.findByVideoPostIdAndParentIdIsNullOrderByCreatedAtDescIdDesc(videoId, PageRequest.of(0, 20)));
+            checks.put("Comment.findNewestByVideoPostId", () -> commentRepository.findNewestByVideoPostId(videoId, 21));
+            checks.put("Comment.findOlderByVideoPostId",
+                    () -> commentRepository.findOlderByVideoPostId(videoId, now, BASE + COMMENTS, 21));
+            checks.put("Comment.findNewerByVideoPostId",
+                    () -> commentRepository.findNewerByVideoPostId(videoId, now.minusHours(1), BASE, 100));
+            checks.put("Comment.findSubtree", () -> commentRepository.findSubtree(rootPath,
+                    CommentPaths.subtreeUpperBound(rootPath), 3, 200));
+            checks.put("Comment.findByParentIdAndIdGreaterThanOrderByIdAsc",
+                    () -> commentRepository.findByParentIdAndIdGreaterThanOrderByIdAsc(rootCommentId, 0L, PageRequest.of(0, 20)));
+            checks.put("Comment.incrementReplyCounts", () -> commentRepository.incrementReplyCounts(List.of(rootCommentId)));
+            checks.put("Comment.backfillRootPaths", () -> commentRepository.backfillRootPaths());
+            // UserRepository
+            checks.put("User.findByEmail", () -> userRepository.findByEmail("plan-1@example.com"));
+            checks.put("User.findByUsername", () -> userRepository.findByUsername("plan_user_1"));
+            checks.put("User.findByActivationToken", () -> userRepository.findByActivationToken("token-1"));
+            checks.put("User.existsByEmail", () -> userRepository.existsByEmail("plan-1@example.com"));
+            checks.put("User.existsByUsername", () -> userRepository.existsByUsername("plan_user_1"));
+            // FollowRepository
+            checks.put("Follow.existsByFollowerIdAndFolloweeId",
+                    () -> followRepository.existsByFollowerIdAndFolloweeId(userId, BASE + 2));
+            checks.put("Follow.deleteByFollowerIdAndFolloweeId",
+                    () -> followRepository.deleteByFollowerIdAndFolloweeId(userId, BASE + 2));
+            checks.put("Follow.countByFolloweeId", () -> followRepository.countByFolloweeId(userId));
+            checks.put("Follow.countByFollowerId", () -> followRepository.countByFollowerId(userId));
+            checks.put("Follow.findFollowerIds", () -> followRepository.findFollowerIds(userId));
+            checks.put("Follow.findFolloweeIds", () -> followRepository.findFolloweeIds(userId));
+            checks.put("Follow.countFollowersByFolloweeIds", () -> followRepository.countFollowersByFolloweeIds(userIds));
+            // Brojači i statistika pregleda
+            checks.put("VideoCounter.addToSlot", () -> videoCounterRepository.addToSlot(videoId, 1, 1, 0, 0));
+            checks.put("VideoCounter.upsertSlot", () -> videoCounterRepository.upsertSlot(videoId, 1, 1, 0, 0));
+            checks.put("VideoViewHourly.findByVideoIdAndBucketStart...",
+                    () -> videoViewHourlyRepository.findByVideoIdAndBucketStartGreaterThanEqualAndBucketStartLessThanOrderByBucketStartAsc(
+                            videoId, now.minusDays(1), now));
+            checks.put("VideoViewDaily.findByVideoIdAndDayBetweenOrderByDayAsc",
+                    () -> videoViewDailyRepository.findByVideoIdAndDayBetweenOrderByDayAsc(videoId, today.minusDays(30), today));
+            checks.put("VideoViewerSketch.findByVideoIdAndDayBetween",
+                    () -> videoViewerSketchRepository.findByVideoIdAndDayBetween(videoId, today.minusDays(7), today));
+            checks.put("VideoViewerSketch.findByVideoId", () -> videoViewerSketchRepository.findByVideoId(videoId));
+
+            jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+            checks.forEach((name, check) -> {
+                // Bez keša prvog nivoa: svaki upit mora da ode do baze
+                entityManager.flush();
+                entityManager.clear();
+                List<StatementCapture.Executed> executed = StatementCapture.capture(check);
+                assertFalse(executed.isEmpty(), name + ": nije izvršen nijedan upit");
+                for (StatementCapture.Executed statement : executed) {
+                    List<String> scans = seqScans(statement);
+                    if (!scans.isEmpty()) {
+                        violations.computeIfAbsent(name, k -> new ArrayList<>())
+                                .add("Seq Scan " + scans + " u: " + statement.sql());
+                    }
+                }
+            });
+        });
+
+        StringBuilder report = new StringBuilder("Upiti sa sekvencijalnim prolazom:");
+        violations.forEach((name, scans) -> scans.forEach(scan -> report.append("\n  ").append(name).append(" — ").append(scan)));
+        assertTrue(violations.isEmpty(), report.toString());
+    }
+
+    private void seed() {
+        jdbcTemplate.update("INSERT INTO users (id, email, username, password, enabled, activation_token, created_at) " +
+                "SELECT ? + g, 'plan-' || g || '@example.com', 'plan_user_' || g, 'x', g % 2 = 0, " +
+                "CASE WHEN g % 2 = 1 THEN 'token-' || g END, now() FROM generate_series(1, ?) g", BASE, USERS);
+        jdbcTemplate.update("INSERT INTO video_posts (id, title, description, thumbnail_path, video_path, video_size, " +
+                "created_at, latitude, longitude, user_id) " +
+                "SELECT ? + g, 'Video ' || g, 'Opis ' || g, 'plan-thumb-' || g || '.jpg', 'plan-video-' || g || '.mp4', " +
+                "1024, now() - g * interval '1 minute', 44.8 + g % 100 * 0.01, 20.4 + g % 100 * 0.01, " +
+                "? + 1 + g % ? FROM generate_series(1, ?) g", BASE, BASE, USERS, VIDEOS);
+        jdbcTemplate.update("INSERT INTO video_tags (video_id, tag) " +
+                "SELECT ? + g, 'tag-' || ((g * k) % 200) FROM generate_series(1, ?) g, generate_series(1, 3) k", BASE, VIDEOS);
+        // Svaki četvrti komentar je odgovor na prethodni (koren), ostali su najvišeg nivoa
+        jdbcTemplate.update("INSERT INTO comments (id, text, user_id, video_post_id, created_at, parent_id, path, depth, reply_count) " +
+                "SELECT ? + g, 'Komentar ' || g, ? + 1 + g % ?, ? + 1 + g % ?, now() - g * interval '1 second', " +
+                "CASE WHEN g % 4 = 0 THEN ? + g - 1 END, " +
+                "CASE WHEN g % 4 = 0 THEN lpad(CAST(? + g - 1 AS text), 10, '0') || '.' || lpad(CAST(? + g AS text), 10, '0') " +
+                "ELSE lpad(CAST(? + g AS text), 10, '0') END, " +
+                "CASE WHEN g % 4 = 0 THEN 1 ELSE 0 END, 0 FROM generate_series(1, ?) g",
+                BASE, BASE, USERS, BASE, COMMENTED_VIDEOS, BASE, BASE, BASE, BASE, COMMENTS);
+        jdbcTemplate.update("INSERT INTO follows (follower_id, followee_id, created_at) " +
+                "SELECT ? + 1 + (g - 1) % ?, ? + 1 + ((g - 1) / ? * 37 + g) % ?, now() FROM generate_series(1, ?) g " +
+                "ON CONFLICT DO NOTHING", BASE, USERS, BASE, USERS, USERS, FOLLOWS);
+        jdbcTemplate.update("INSERT INTO video_counters (video_id, slot, view_count, like_count, comment_count) " +
+                "SELECT ? + g, s, g, g % 10, g % 5 FROM generate_series(1, ?) g, generate_series(0, 3) s", BASE, VIDEOS);
+        jdbcTemplate.update("INSERT INTO video_view_hourly (video_id, bucket_start, views) " +
+                "SELECT ? + g, date_trunc('hour', now()) - h * interval '1 hour', h " +
+                "FROM generate_series(1, ?) g, generate_series(0, 14 * 24 - 1) h", BASE, COMMENTED_VIDEOS);
+        jdbcTemplate.update("INSERT INTO video_view_daily (video_id, view_day, views) " +
+                "SELECT ? + g, current_date - d, d FROM generate_series(1, ?) g, generate_series(1, 90) d",
+                BASE, COMMENTED_VIDEOS);
+        jdbcTemplate.update("INSERT INTO video_viewer_sketch (video_id, view_day, sketch) " +
+                "SELECT ? + g, current_date - d, decode('00', 'hex') FROM generate_series(1, ?) g, generate_series(0, 29) d",
+                BASE, COMMENTED_VIDEOS);
+        for (String table : new String[]{"users", "video_posts", "video_tags", "comments", "follows",
+                "video_counters", "video_view_hourly", "video_view_daily", "video_viewer_sketch"}) {
+            jdbcTemplate.execute("ANALYZE " + table);
+        }
+    }
+
+    // Relacije kroz koje plan prolazi sekvencijalno
+    private List<String> seqScans(StatementCapture.Executed statement) {
+        String plan = jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (PreparedStatement explain = connection.prepareStatement("EXPLAIN (FORMAT JSON) " + statement.sql())) {
+                statement.bind(explain);
+                try (ResultSet rs = explain.executeQuery()) {
+                    rs.next();
+                    return rs.getString(1);
+                }
+            }
+        });
+        List<String> scans = new ArrayList<>();
+        try {
+            collectSeqScans(objectMapper.readTree(plan).get(0).get("Plan"), scans);
+        } catch (Exception e) {
+            fail("Neispravan EXPLAIN izlaz: " + plan);
+        }
+        return scans;
+    }
+
+    private static void collectSeqScans(JsonNode node, List<String> scans) {
+        if ("Seq Scan".equals(node.path("Node Type").asText())) {
+            scans.add(node.path("Relation Name").asText());
+        }
+        for (JsonNode child : node.path("Plans")) {
+            collectSeqScans(child, scans);
+        }
+    }
+
+    /**
+     * Omotač DataSource-a koji beleži SQL i vrednosti parametara izvršenih PreparedStatement-a,
+     * samo u niti koja je pozvala capture (pozadinski poslovi aplikacije se ne beleže).
+     */
+    static final class StatementCapture {
+
+        private static final ThreadLocal<List<Executed>> CAPTURED = new ThreadLocal<>();
+
+        record Executed(String sql, List<Object[]> bindings) {
+            // Ponavlja iste set* pozive (setLong, setTimestamp, setNull...) nad drugim statement-om
+            void bind(PreparedStatement target) throws SQLException {
+                for (Object[] binding : bindings) {
+                    try {
+                        ((Method) binding[0]).invoke(target, (Object[]) binding[1]);
+                    } catch (ReflectiveOperationException e) {
+                        throw new IllegalStateException("Parametar nije moguće ponoviti: " + binding[0], e);
+                    }
+                }
+            }
+        }
+
+        static List<Executed> capture(Runnable action) {
+            List<Executed> executed = new ArrayList<>();
+            CAPTURED.set(executed);
+            try {
+                action.run();
+            } finally {
+                CAPTURED.remove();
+            }
+            return executed;
+        }
+
+        static DataSource wrap(DataSource dataSource) {
+            return proxy(DataSource.class, dataSource, (method, args, result) ->
+                    result instanceof Connection connection ? wrap(connection) : result);
+        }
+
+        private static Connection wrap(Connection connection) {
+            return proxy(Connection.class, connection, (method, args, result) ->
+                    result instanceof PreparedStatement statement && method.getName().equals("prepareStatement")
+                            ? wrap(statement, (String) args[0]) : result);
+        }
+
+        private static PreparedStatement wrap(PreparedStatement statement, String sql) {
+            // Poslednja vrednost po indeksu parametra
+            Map<Integer, Object[]> bindings = new TreeMap<>();
+            return proxy(PreparedStatement.class, statement, (method, args, result) -> {
+                String name = method.getName();
+                if (name.startsWith("set") && method.getDeclaringClass() == PreparedStatement.class
+                        && args != null && args.length > 1 && args[0] instanceof Integer index) {
+                    bindings.put(index, new Object[]{method, args.clone()});
+                } else if (name.equals("clearParameters")) {
+                    bindings.clear();
+                } else if ((args == null || args.length == 0) && name.startsWith("execute")) {
+                    List<Executed> captured = CAPTURED.get();
+                    if (captured != null) captured.add(new Executed(sql, new ArrayList<>(bindings.values())));
+                }
+                return result;
+            });
+        }
+
+        private interface AfterCall {
+            Object apply(Method method, Object[] args, Object result) throws Exception;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T proxy(Class<T> type, T target, AfterCall after) {
+            return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+                Object result;
+                try {
+                    result = method.invoke(target, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getTargetException();
+                }
+                return after.apply(method, args, result);
+            });
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.isa.backend.service;
+
+import com.isa.backend.BackendApplication;
+import com.isa.backend.model.Comment;
+import com.isa.backend.model.VideoPost;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.function.LongFunction;
+
+/**
+ * Benchmark masovnog upisa video objava i komentara kroz JPA (redova u sekundi).
+ *
+ * "Pre" meri upis red po red (JDBC batch isključen na nivou sesije, kao sa IDENTITY id-jevima kada je
+ * svaki insert zaseban round-trip), a "posle" upis sa pooled sekvencom i hibernate.jdbc.batch_size.
+ * Upisani redovi se brišu na kraju.
+ *
+ * Nije @SpringBootApplication (kao ViewCountDemoScript) da @SpringBootTest u ovom paketu ne bi
+ * pronašao dve konfiguracije; podiže kontekst BackendApplication bez web servera.
+ *
+ * Pokretanje (iz target/test-classes + target/classes + zavisnosti):
+ *   java -cp target/classes:target/test-classes:<classpath> com.isa.backend.service.BulkInsertBenchmark [brojRedova]
+ */
+public class BulkInsertBenchmark {
+
+    // Flush/clear na svakih CHUNK entiteta da persistence context ne raste
+    private static final int CHUNK = 500;
+
+    public static void main(String[] args) {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(BackendApplication.class)
+                .web(WebApplicationType.NONE)
+                .run()) {
+            run(context.getBean(EntityManager.class), context.getBean(TransactionTemplate.class), rows);
+        }
+    }
+
+    private static void run(EntityManager entityManager, TransactionTemplate transactionTemplate, int rows) {
+        System.out.println("╔════════════════════════════════════════════════════════════════╗");
+        System.out.println("║  BENCHMARK: Masovni upis (sekvence + JDBC batch)               ║");
+        System.out.println("╚════════════════════════════════════════════════════════════════╝");
+        System.out.println("Broj redova po merenju: " + rows);
+
+        long runId = System.currentTimeMillis();
+        List<Long> videoIds = new ArrayList<>();
+        List<Long> commentIds = new ArrayList<>();
+
+        // Zagrevanje (JIT, pool konekcija, prvi blok sekvence)
+        insert(entityManager, transactionTemplate, 1_000, 0, i -> video(runId, "warmup-" + i), videoIds);
+
+        long videoId = videoIds.get(0);
+
+        report("Video objave", rows,
+                insert(entityManager, transactionTemplate, rows, 1, i -> video(runId, "row-" + i), videoIds),
+                insert(entityManager, transactionTemplate, rows, 0, i -> video(runId, "batch-" + i), videoIds));
+        report("Komentari", rows,
+                insert(entityManager, transactionTemplate, rows, 1, i -> comment(videoId, i), commentIds),
+                insert(entityManager, transactionTemplate, rows, 0, i -> comment(videoId, i), commentIds));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int from = 0; from < commentIds.size(); from += 10_000) {
+                entityManager.createQuery("DELETE FROM Comment c WHERE c.id IN :ids")
+                        .setParameter("ids", commentIds.subList(from, Math.min(from + 10_000, commentIds.size())))
+                        .executeUpdate();
+            }
+            for (int from = 0; from < videoIds.size(); from += 10_000) {
+                entityManager.createQuery("DELETE FROM VideoPost v WHERE v.id IN :ids")
+                        .setParameter("ids", videoIds.subList(from, Math.min(from + 10_000, videoIds.size())))
+                        .executeUpdate();
+            }
+        });
+        System.out.println("✓ Test podaci obrisani");
+    }
+
+    /**
+     * Upisuje rows entiteta u jednoj transakciji i vraća trajanje u nanosekundama.
+     * batchSize 1 isključuje JDBC batch, 0 zadržava podešenu vrednost.
+     */
+    private static long insert(EntityManager entityManager, TransactionTemplate transactionTemplate, int rows,
+                               int batchSize, LongFunction<Object> factory, List<Long> ids) {
+        long start = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> {
+            Session session = entityManager.unwrap(Session.class);
+            session.setJdbcBatchSize(batchSize > 0 ? batchSize : null);
+            List<Object> chunk = new ArrayList<>(CHUNK);
+            for (int i = 0; i < rows; i++) {
+                Object entity = factory.apply(i);
+                entityManager.persist(entity);
+                chunk.add(entity);
+                if (chunk.size() == CHUNK || i == rows - 1) {
+                    entityManager.flush();
+                    for (Object e : chunk) ids.add(id(e));
+                    chunk.clear();
+                    entityManager.clear();
+                }
+            }
+            session.setJdbcBatchSize(null);
+        });
+        return System.nanoTime() - start;
+    }
+
+    private static void report(String name, int rows, long rowByRowNanos, long batchedNanos) {
+        double before = rows / (rowByRowNanos / 1e9);
+        double after = rows / (batchedNanos / 1e9);
+        System.out.println();
+        System.out.println("━━━ " + name + " ━━━");
+        System.out.printf("  Red po red:   %10.0f redova/s%n", before);
+        System.out.printf("  JDBC batch:   %10.0f redova/s%n", after);
+        System.out.printf("  Ubrzanje:     %10.1fx%n", after / before);
+    }
+
+    private static VideoPost video(long runId, String suffix) {
+        VideoPost video = new VideoPost();
+        video.setTitle("Benchmark video " + suffix);
+        video.setDescription("Masovni upis");
+        video.setTags(new HashSet<>());
+        video.setThumbnailPath("benchmark-thumbnail.jpg");
+        video.setVideoPath("benchmark-" + runId + "-" + suffix + ".mp4");
+        video.setVideoSize(1024L);
+        video.setUserId(1L);
+        video.setViewCount(0);
+        return video;
+    }
+
+    private static Comment comment(long videoId, long i) {
+        Comment comment = new Comment();
+        comment.setText("Benchmark komentar " + i);
+        comment.setUserId(1L);
+        comment.setVideoPostId(videoId);
+        comment.setDepth(0);
+        return comment;
+    }
+
+    private static Long id(Object entity) {
+        return entity instanceof VideoPost video ? video.getId() : ((Comment) entity).getId();
+    }
+}
@@ -0,0 +1,107 @@
+package com.isa.backend.service;
+
+import com.isa.backend.dto.CommentDTO;
+import com.isa.backend.model.VideoPost;
+import com.isa.backend.repository.VideoPostRepository;
+import com.isa.backend.util.CommentCursor;
+import com.isa.backend.util.CommentPaths;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Nastavak SSE strima posle Last-Event-ID: id-jevi komentara se dodeljuju u blokovima iz sekvence, pa komentar
+ * upisan posle prekida konekcije može imati manji id od poslednjeg primljenog — i dalje mora biti poslat.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class CommentStreamResumeTest {
+
+    // Id-jevi daleko iznad id-jeva iz sekvence, da se ne sudare sa postojećim komentarima
+    private static final long LAST_RECEIVED_ID = 900_000_100L;
+    private static final long LATER_LOWER_ID = 900_000_050L;
+    private static final long EARLIER_ID = 900_000_200L;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private VideoPostRepository videoPostRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private VideoPost video;
+    private LocalDateTime lastReceivedAt;
+
+    @BeforeEach
+    public void setup() {
+        video = new VideoPost();
+        video.setTitle("Test Video - SSE nastavak");
+        video.setDescription("Komentari van redosleda id-jeva");
+        video.setTags(new HashSet<>());
+        video.setThumbnailPath("test-thumbnail.jpg");
+        video.setVideoPath("test-video-sse-resume.mp4");
+        video.setVideoSize(1024L);
+        video.setUserId(1L);
+        video = videoPostRepository.save(video);
+
+        lastReceivedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        // Pre poslednjeg primljenog (već isporučen), poslednji primljen, i upisan kasnije iz drugog bloka id-jeva
+        insertComment(EARLIER_ID, lastReceivedAt.minusSeconds(1));
+        insertComment(LAST_RECEIVED_ID, lastReceivedAt);
+        insertComment(LATER_LOWER_ID, lastReceivedAt.plusSeconds(1));
+    }
+
+    @AfterEach
+    public void cleanup() {
+        jdbcTemplate.update("DELETE FROM comments WHERE video_post_id = ?", video.getId());
+        videoPostRepository.deleteById(video.getId());
+    }
+
+    @Test
+    public void testResumeIncludesLaterCommentWithLowerId() {
+        String lastEventId = new CommentCursor(lastReceivedAt, LAST_RECEIVED_ID).encode();
+
+        List<Long> ids = ids(commentService.getCommentsAfter(video.getId(), lastEventId, 100));
+
+        assertEquals(List.of(LATER_LOWER_ID), ids,
+                "Propušten je samo komentar upisan posle poslednjeg primljenog, bez obzira na manji id");
+    }
+
+    @Test
+    public void testResumeFromPlainIdOfOlderClient() {
+        List<Long> ids = ids(commentService.getCommentsAfter(video.getId(), String.valueOf(LAST_RECEIVED_ID), 100));
+
+        assertEquals(List.of(LATER_LOWER_ID), ids);
+    }
+
+    @Test
+    public void testInvalidLastEventIdIsRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> commentService.getCommentsAfter(video.getId(), "nije-kursor", 100));
+    }
+
+    private void insertComment(long id, LocalDateTime createdAt) {
+        jdbcTemplate.update("INSERT INTO comments (id, text, user_id, video_post_id, created_at, parent_id, path, depth, reply_count) " +
+                "VALUES (?, ?, 1, ?, ?, NULL, ?, 0, 0)",
+                id, "Komentar " + id, video.getId(), Timestamp.valueOf(createdAt), CommentPaths.segment(id));
+    }
+
+    private static List<Long> ids(List<CommentDTO> comments) {
+        return comments.stream().map(CommentDTO::getId).collect(Collectors.toList());
+    }
+}
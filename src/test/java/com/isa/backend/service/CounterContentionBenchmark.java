@@ -0,0 +1,154 @@
+package com.isa.backend.service;
+
+import com.isa.backend.BackendApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark uvećanja brojača: širok red (stari raspored video_posts) prema uskoj tabeli video_counters
+ * sa jednim i sa više slotova po videu. Meri uvećanja u sekundi, rast tabele, mrtve redove i udeo HOT izmena.
+ *
+ * Radi nad privremenim tabelama bench_* (autovacuum isključen, da se vidi koliko izmene naduvavaju tabelu)
+ * koje briše na kraju; podaci aplikacije se ne diraju. Većina uvećanja pogađa mali skup popularnih videa.
+ *
+ * Pokretanje (iz target/test-classes + target/classes + zavisnosti):
+ *   java -cp target/classes:target/test-classes:<classpath> com.isa.backend.service.CounterContentionBenchmark
+ *        [brojVidea] [brojNiti] [sekundiPoMerenju] [brojSlotova]
+ */
+public class CounterContentionBenchmark {
+
+    private static final int HOT_VIDEOS = 20;
+    private static final double HOT_SHARE = 0.8;
+
+    public static void main(String[] args) throws Exception {
+        int videos = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 32;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        int slots = args.length > 3 ? Integer.parseInt(args[3]) : 4;
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(BackendApplication.class)
+                .web(WebApplicationType.NONE)
+                .run()) {
+            JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+
+            System.out.println("╔════════════════════════════════════════════════════════════════╗");
+            System.out.println("║  BENCHMARK: Brojači u video_posts prema video_counters         ║");
+            System.out.println("╚════════════════════════════════════════════════════════════════╝");
+            System.out.println("Videa: " + videos + ", niti: " + threads + ", trajanje: " + seconds + " s, slotova: " + slots);
+
+            try {
+                setup(jdbc, videos, slots);
+                run(jdbc, "Širok red (video_posts)", "bench_wide_posts",
+                        "UPDATE bench_wide_posts SET view_count = view_count + 1 WHERE id = ?",
+                        0, videos, threads, seconds);
+                run(jdbc, "video_counters, 1 slot", "bench_counters_single",
+                        "UPDATE bench_counters_single SET view_count = view_count + 1 WHERE video_id = ? AND slot = ?",
+                        1, videos, threads, seconds);
+                run(jdbc, "video_counters, " + slots + " slota", "bench_counters_slotted",
+                        "UPDATE bench_counters_slotted SET view_count = view_count + 1 WHERE video_id = ? AND slot = ?",
+                        slots, videos, threads, seconds);
+            } finally {
+                jdbc.execute("DROP TABLE IF EXISTS bench_wide_posts, bench_counters_single, bench_counters_slotted");
+                System.out.println("✓ Privremene tabele obrisane");
+            }
+        }
+    }
+
+    private static void setup(JdbcTemplate jdbc, int videos, int slots) {
+        jdbc.execute("DROP TABLE IF EXISTS bench_wide_posts, bench_counters_single, bench_counters_slotted");
+        // Isti raspored kao video_posts pre premeštanja brojača (opis je TEXT, tipično nekoliko stotina znakova)
+        jdbc.execute("CREATE TABLE bench_wide_posts (id bigint PRIMARY KEY, title varchar(255) NOT NULL, " +
+                "description text, thumbnail_path varchar(255) NOT NULL, video_path varchar(255) NOT NULL, " +
+                "video_size bigint NOT NULL, created_at timestamp NOT NULL, location varchar(255), latitude float8, " +
+                "longitude float8, user_id bigint NOT NULL, view_count integer DEFAULT 0, like_count integer DEFAULT 0, " +
+                "comment_count integer DEFAULT 0) WITH (autovacuum_enabled = false)");
+        jdbc.execute("CREATE INDEX ON bench_wide_posts (video_path)");
+        jdbc.execute("CREATE INDEX ON bench_wide_posts (user_id, id)");
+        jdbc.update("INSERT INTO bench_wide_posts (id, title, description, thumbnail_path, video_path, video_size, " +
+                "created_at, user_id) SELECT g, 'Video ' || g, repeat('opis snimka ', 40), 'thumb-' || g || '.jpg', " +
+                "'video-' || g || '.mp4', 1024, now(), g % 1000 FROM generate_series(1, ?) g", videos);
+
+        for (String table : new String[]{"bench_counters_single", "bench_counters_slotted"}) {
+            jdbc.execute("CREATE TABLE " + table + " (video_id bigint NOT NULL, slot integer NOT NULL, " +
+                    "view_count bigint NOT NULL DEFAULT 0, like_count bigint NOT NULL DEFAULT 0, " +
+                    "comment_count bigint NOT NULL DEFAULT 0, PRIMARY KEY (video_id, slot)) " +
+                    "WITH (fillfactor = 50, autovacuum_enabled = false)");
+        }
+        jdbc.update("INSERT INTO bench_counters_single (video_id, slot) SELECT g, 0 FROM generate_series(1, ?) g", videos);
+        jdbc.update("INSERT INTO bench_counters_slotted (video_id, slot) " +
+                "SELECT g, s FROM generate_series(1, ?) g, generate_series(0, ?) s", videos, slots - 1);
+        jdbc.execute("VACUUM ANALYZE bench_wide_posts");
+        jdbc.execute("VACUUM ANALYZE bench_counters_single");
+        jdbc.execute("VACUUM ANALYZE bench_counters_slotted");
+    }
+
+    // slots = 0: tabela bez slot kolone (širok red)
+    private static void run(JdbcTemplate jdbc, String name, String table, String sql, int slots,
+                            int videos, int threads, int seconds) throws Exception {
+        long sizeBefore = size(jdbc, table);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<Long>> results = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            results.add(executor.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long done = 0;
+                while (System.nanoTime() < deadline) {
+                    long videoId = random.nextDouble() < HOT_SHARE
+                            ? 1 + random.nextInt(HOT_VIDEOS)
+                            : 1 + random.nextInt(videos);
+                    if (slots == 0) {
+                        jdbc.update(sql, videoId);
+                    } else {
+                        jdbc.update(sql, videoId, random.nextInt(slots));
+                    }
+                    done++;
+                }
+                return done;
+            }));
+        }
+        long updates = 0;
+        for (Future<Long> result : results) updates += result.get();
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        executor.shutdown();
+
+        // Statistika se u pg_stat_user_tables osvežava asinhrono
+        Thread.sleep(1_000);
+        Map<String, Object> stats = jdbc.queryForMap(
+                "SELECT n_tup_upd, n_tup_hot_upd, n_dead_tup FROM pg_stat_user_tables WHERE relname = ?", table);
+        long sizeAfter = size(jdbc, table);
+        long scanStart = System.nanoTime();
+        jdbc.queryForObject("SELECT count(*) FROM " + table, Long.class);
+        double scanMs = (System.nanoTime() - scanStart) / 1e6;
+
+        long updated = ((Number) stats.get("n_tup_upd")).longValue();
+        long hot = ((Number) stats.get("n_tup_hot_upd")).longValue();
+        System.out.println();
+        System.out.println("━━━ " + name + " ━━━");
+        System.out.printf("  Uvećanja:           %10.0f /s (%d ukupno)%n", updates / elapsed, updates);
+        System.out.printf("  Veličina tabele:    %10s -> %s%n", mb(sizeBefore), mb(sizeAfter));
+        System.out.printf("  Mrtvi redovi:       %10d%n", ((Number) stats.get("n_dead_tup")).longValue());
+        System.out.printf("  HOT izmene:         %9.1f%%%n", updated == 0 ? 0.0 : 100.0 * hot / updated);
+        System.out.printf("  Pun prolaz tabele:  %10.1f ms%n", scanMs);
+    }
+
+    private static long size(JdbcTemplate jdbc, String table) {
+        return jdbc.queryForObject("SELECT pg_total_relation_size(?::regclass)", Long.class, table);
+    }
+
+    private static String mb(long bytes) {
+        return String.format("%.1f MB", bytes / (1024.0 * 1024.0));
+    }
+}
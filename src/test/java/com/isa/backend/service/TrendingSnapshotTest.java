@@ -0,0 +1,77 @@
+package com.isa.backend.service;
+
+import com.isa.backend.dto.VideoPostDTO;
+import com.isa.backend.model.VideoPost;
+import com.isa.backend.repository.VideoPostRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Osvežavanje trending snapshot-a van HTTP zahteva (kao iz scheduler-a): tagovi se učitavaju lazy,
+ * pa DTO-ovi moraju nastati unutar transakcije, inače trending endpoint ostaje prazan.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class TrendingSnapshotTest {
+
+    @Autowired
+    private VideoPostService videoPostService;
+
+    @Autowired
+    private TrendingService trendingService;
+
+    @Autowired
+    private VideoPostRepository videoPostRepository;
+
+    private VideoPost video;
+
+    @BeforeEach
+    public void setup() {
+        video = new VideoPost();
+        video.setTitle("Test Video - Trending");
+        video.setDescription("Video za osvežavanje trending liste");
+        video.setTags(new HashSet<>(Set.of("trending", "test")));
+        video.setThumbnailPath("test-thumbnail.jpg");
+        video.setVideoPath("test-video-trending.mp4");
+        video.setVideoSize(1024L);
+        video.setUserId(1L);
+        video = videoPostRepository.save(video);
+
+        trendingService.rebuild();
+        for (int i = 0; i < 10; i++) {
+            trendingService.recordView(video.getId());
+        }
+    }
+
+    @AfterEach
+    public void cleanup() {
+        videoPostRepository.deleteById(video.getId());
+        trendingService.rebuild();
+        videoPostService.refreshTrendingSnapshot();
+    }
+
+    @Test
+    public void testRefreshPublishesRankedVideosWithTags() {
+        videoPostService.refreshTrendingSnapshot();
+
+        List<VideoPostDTO> trending = trendingService.getTrending(100, false);
+        assertFalse(trending.isEmpty(), "Trending lista ne sme biti prazna posle osvežavanja");
+
+        VideoPostDTO dto = trending.stream()
+                .filter(v -> v.getId().equals(video.getId()))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("Video sa pregledima nije u trending listi"));
+        assertEquals(Set.of("trending", "test"), dto.getTags());
+        assertFalse(trendingService.getTrending(100, true).isEmpty());
+    }
+}
@@ -0,0 +1,71 @@
+package com.isa.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Poredi CompressedIdSet sa TreeSet-om na nasumičnim podacima, uključujući prelaz
+ * između retkih (array) i gustih (bitmap) kontejnera.
+ */
+public class CompressedIdSetTest {
+
+    @Test
+    public void testAddRemoveContains() {
+        CompressedIdSet set = CompressedIdSet.of(1, 5, 70000, 5);
+        assertEquals(3, set.cardinality());
+        assertTrue(set.contains(70000));
+        assertFalse(set.contains(2));
+        assertTrue(set.remove(5));
+        assertFalse(set.remove(5));
+        assertArrayEquals(new int[]{1, 70000}, set.toArray());
+    }
+
+    @Test
+    public void testBooleanOperationsMatchTreeSet() {
+        Random random = new Random(42);
+        for (int round = 0; round < 20; round++) {
+            // Mali opseg daje guste (bitmap) kontejnere, veliki retke (array)
+            int range = round % 2 == 0 ? 70_000 : 1_000_000;
+            TreeSet<Integer> expectedA = new TreeSet<>();
+            TreeSet<Integer> expectedB = new TreeSet<>();
+            CompressedIdSet a = new CompressedIdSet();
+            CompressedIdSet b = new CompressedIdSet();
+            for (int i = 0; i < 20_000; i++) {
+                int x = random.nextInt(range);
+                int y = random.nextInt(range);
+                expectedA.add(x);
+                a.add(x);
+                expectedB.add(y);
+                b.add(y);
+            }
+            for (int i = 0; i < 5_000; i++) {
+                int x = random.nextInt(range);
+                expectedA.remove(x);
+                a.remove(x);
+            }
+
+            assertSameIds(expectedA, a);
+
+            TreeSet<Integer> and = new TreeSet<>(expectedA);
+            and.retainAll(expectedB);
+            assertSameIds(and, CompressedIdSet.and(a, b));
+
+            TreeSet<Integer> or = new TreeSet<>(expectedA);
+            or.addAll(expectedB);
+            assertSameIds(or, CompressedIdSet.or(a, b));
+
+            TreeSet<Integer> andNot = new TreeSet<>(expectedA);
+            andNot.removeAll(expectedB);
+            assertSameIds(andNot, CompressedIdSet.andNot(a, b));
+        }
+    }
+
+    private static void assertSameIds(TreeSet<Integer> expected, CompressedIdSet actual) {
+        assertEquals(expected.size(), actual.cardinality());
+        assertArrayEquals(expected.stream().mapToInt(Integer::intValue).toArray(), actual.toArray());
+    }
+}
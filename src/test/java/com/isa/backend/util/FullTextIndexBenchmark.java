@@ -0,0 +1,125 @@
+package com.isa.backend.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Benchmark za FullTextIndex: indeksira 1M sintetičkih video objava i meri latenciju upita (p50/p95/p99).
+ *
+ * Reči se biraju po Zipf raspodeli iz sintetičkog rečnika (uključujući reči sa č/ć/š/ž/đ),
+ * tako da česti termini imaju duge postings liste kao u realnim podacima.
+ *
+ * Pokretanje (iz target/test-classes + target/classes):
+ *   java -Xmx4g -cp target/classes:target/test-classes com.isa.backend.util.FullTextIndexBenchmark [brojObjava] [brojUpita]
+ */
+public class FullTextIndexBenchmark {
+
+    private static final String[] SYLLABLES = {
+            "ka", "ra", "vi", "de", "mo", "na", "se", "lo", "pi", "tu", "če", "ša", "žu", "đe", "ći",
+            "ba", "go", "le", "mi", "no", "po", "ru", "sa", "ti", "zo", "kr", "st", "br", "gr", "dr"
+    };
+
+    public static void main(String[] args) {
+        int posts = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int queries = args.length > 1 ? Integer.parseInt(args[1]) : 20_000;
+
+        Random random = new Random(7);
+        String[] vocabulary = buildVocabulary(random, 50_000);
+        ZipfSampler zipf = new ZipfSampler(vocabulary.length, 1.05, random);
+
+        System.out.println("╔════════════════════════════════════════════════════════════════╗");
+        System.out.println("║  BENCHMARK: Full-text pretraga (BM25)                          ║");
+        System.out.println("╚════════════════════════════════════════════════════════════════╝");
+        System.out.println("Broj objava: " + posts + ", broj upita: " + queries);
+
+        FullTextIndex index = new FullTextIndex();
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long memoryBefore = runtime.totalMemory() - runtime.freeMemory();
+        long start = System.nanoTime();
+        for (int id = 1; id <= posts; id++) {
+            String title = sentence(vocabulary, zipf, 4 + random.nextInt(5));
+            String description = sentence(vocabulary, zipf, 10 + random.nextInt(30));
+            List<String> tags = List.of(vocabulary[zipf.next()], vocabulary[zipf.next()]);
+            index.index(id, title, description, tags);
+        }
+        long buildMillis = (System.nanoTime() - start) / 1_000_000;
+        System.gc();
+        long memoryAfter = runtime.totalMemory() - runtime.freeMemory();
+
+        System.out.println("Vreme indeksiranja:   " + buildMillis + " ms (" + (posts * 1000L / Math.max(1, buildMillis)) + " objava/s)");
+        System.out.println("Broj termina:         " + index.termCount());
+        System.out.println("Memorija indeksa:     ~" + (memoryAfter - memoryBefore) / (1024 * 1024) + " MB");
+
+        // Zagrevanje JIT-a
+        for (int i = 0; i < 2_000; i++) {
+            index.search(sentence(vocabulary, zipf, 1 + random.nextInt(3)), 0, 20);
+        }
+
+        long[] latencies = new long[queries];
+        long hits = 0;
+        for (int i = 0; i < queries; i++) {
+            String query = sentence(vocabulary, zipf, 1 + random.nextInt(3));
+            long t0 = System.nanoTime();
+            FullTextIndex.SearchResult result = index.search(query, 0, 20);
+            latencies[i] = System.nanoTime() - t0;
+            hits += result.getTotalHits();
+        }
+        Arrays.sort(latencies);
+
+        System.out.println("-------------------------------------------------");
+        System.out.println("Prosečan broj pogodaka: " + hits / queries);
+        System.out.printf("p50: %.3f ms%n", latencies[queries / 2] / 1e6);
+        System.out.printf("p95: %.3f ms%n", latencies[(int) (queries * 0.95)] / 1e6);
+        System.out.printf("p99: %.3f ms%n", latencies[(int) (queries * 0.99)] / 1e6);
+        System.out.printf("max: %.3f ms%n", latencies[queries - 1] / 1e6);
+    }
+
+    private static String[] buildVocabulary(Random random, int size) {
+        List<String> words = new ArrayList<>(size);
+        java.util.Set<String> seen = new java.util.HashSet<>();
+        while (words.size() < size) {
+            StringBuilder sb = new StringBuilder();
+            int syllables = 2 + random.nextInt(3);
+            for (int s = 0; s < syllables; s++) sb.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+            String word = sb.toString();
+            if (seen.add(TextAnalyzer.normalizeTerm(word))) words.add(word);
+        }
+        return words.toArray(new String[0]);
+    }
+
+    private static String sentence(String[] vocabulary, ZipfSampler zipf, int words) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) sb.append(' ');
+            sb.append(vocabulary[zipf.next()]);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Uzorkovanje po Zipf raspodeli preko kumulativne raspodele i binarne pretrage.
+     */
+    private static final class ZipfSampler {
+        private final double[] cumulative;
+        private final Random random;
+
+        ZipfSampler(int n, double exponent, Random random) {
+            this.random = random;
+            cumulative = new double[n];
+            double sum = 0;
+            for (int i = 0; i < n; i++) {
+                sum += 1.0 / Math.pow(i + 1, exponent);
+                cumulative[i] = sum;
+            }
+            for (int i = 0; i < n; i++) cumulative[i] /= sum;
+        }
+
+        int next() {
+            int i = Arrays.binarySearch(cumulative, random.nextDouble());
+            return i >= 0 ? i : Math.min(cumulative.length - 1, -i - 1);
+        }
+    }
+}
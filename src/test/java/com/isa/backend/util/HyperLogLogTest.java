@@ -0,0 +1,54 @@
+package com.isa.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Proverava tačnost procene (retki i gusti oblik), serijalizaciju i spajanje skica.
+ */
+public class HyperLogLogTest {
+
+    @Test
+    public void testEstimateWithinErrorBounds() {
+        for (int n : new int[]{10, 1_000, 50_000, 500_000}) {
+            HyperLogLog hll = new HyperLogLog();
+            for (int i = 0; i < n; i++) {
+                hll.offer("user-" + i);
+                hll.offer("user-" + i); // ponovljeni pregled ne sme da utiče na procenu
+            }
+            double error = Math.abs(hll.estimate() - n) / (double) n;
+            assertTrue(error < 0.03, "Greška " + error + " za n=" + n);
+        }
+    }
+
+    @Test
+    public void testSerializationRoundTripAndSize() {
+        HyperLogLog small = new HyperLogLog();
+        for (int i = 0; i < 100; i++) small.offer("a" + i);
+        byte[] sparse = small.toBytes();
+        assertTrue(sparse.length < 1000);
+        assertEquals(small.estimate(), HyperLogLog.fromBytes(sparse).estimate());
+
+        HyperLogLog large = new HyperLogLog();
+        for (int i = 0; i < 100_000; i++) large.offer("b" + i);
+        byte[] dense = large.toBytes();
+        assertTrue(dense.length <= 12 * 1024 + 1);
+        assertEquals(large.estimate(), HyperLogLog.fromBytes(dense).estimate());
+    }
+
+    @Test
+    public void testMergeCountsUnion() {
+        HyperLogLog first = new HyperLogLog();
+        HyperLogLog second = new HyperLogLog();
+        for (int i = 0; i < 60_000; i++) first.offer("v" + i);
+        for (int i = 30_000; i < 90_000; i++) second.offer("v" + i);
+        first.merge(second);
+        assertEquals(90_000, first.estimate(), 90_000 * 0.03);
+
+        // Spajanje je idempotentno
+        long before = first.estimate();
+        first.merge(second);
+        assertEquals(before, first.estimate());
+    }
+}
@@ -0,0 +1,56 @@
+package com.isa.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Proverava da SimHash + LSH indeks prepoznaje skoro iste tekstove, ne meša različite i da prozor ističe.
+ */
+public class NearDuplicateIndexTest {
+
+    private static final long MINUTE = 60_000L;
+
+    private static long fingerprint(String text) {
+        return SimHash.fingerprint(TextAnalyzer.tokenize(text));
+    }
+
+    @Test
+    public void testNearDuplicatesAreCounted() {
+        NearDuplicateIndex index = new NearDuplicateIndex(10 * MINUTE, 5, 3, 1000, 64);
+        String spam = "Besplatni iPhone za sve pratioce, kliknite na link u mom profilu i preuzmite nagradu odmah";
+        long now = 1_000_000L;
+        assertEquals(0, index.countAndAdd(fingerprint(spam), now, 10));
+        assertEquals(1, index.countAndAdd(fingerprint(spam.toUpperCase()), now + 1, 10));
+        // Interpunkcija i dijakritici ne menjaju tokene
+        assertEquals(2, index.countAndAdd(fingerprint(spam.replace(",", "!!!") + " !!!"), now + 2, 10));
+    }
+
+    @Test
+    public void testDifferentTextsDoNotMatch() {
+        NearDuplicateIndex index = new NearDuplicateIndex(10 * MINUTE, 5, 3, 1000, 64);
+        long now = 1_000_000L;
+        int matches = 0;
+        for (int i = 0; i < 500; i++) {
+            matches += index.countAndAdd(fingerprint("komentar broj " + i + " o snimku " + (i * 7919) + " i utisci gledaoca " + (i * 31)), now, 10);
+        }
+        assertTrue(matches < 5, "Previše lažnih poklapanja: " + matches);
+    }
+
+    @Test
+    public void testWindowExpires() {
+        NearDuplicateIndex index = new NearDuplicateIndex(10 * MINUTE, 5, 3, 1000, 64);
+        long fp = fingerprint("isti tekst koji se ponavlja više puta zaredom");
+        index.countAndAdd(fp, 0, 10);
+        assertEquals(1, index.countAndAdd(fp, 9 * MINUTE, 10));
+        assertEquals(0, index.countAndAdd(fp, 30 * MINUTE, 10));
+    }
+
+    @Test
+    public void testLimitStopsCounting() {
+        NearDuplicateIndex index = new NearDuplicateIndex(10 * MINUTE, 5, 3, 1000, 64);
+        long fp = fingerprint("kupite pratioce jeftino na nasem sajtu");
+        for (int i = 0; i < 20; i++) index.countAndAdd(fp, 1000, 100);
+        assertEquals(3, index.countAndAdd(fp, 1000, 3));
+    }
+}
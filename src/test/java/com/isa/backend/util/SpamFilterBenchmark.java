@@ -0,0 +1,171 @@
+package com.isa.backend.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark za proveru skoro istih komentara (put CommentSpamFilterService.check): tokenizacija, SimHash
+ * otisak i countAndAdd u NearDuplicateIndex sa podrazumevanim podešavanjima app.comments.spam.*.
+ * Meri latenciju po komentaru (p50/p95/p99) u odnosu na budžet od 50 µs.
+ *
+ * Vreme je simulirano (comments-per-second), pa je prozor od 10 minuta popunjen kao u produkciji.
+ * Većina komentara je organska (reči po Zipf raspodeli), a deo su spam kampanje: nekoliko šablona
+ * sa malim izmenama (zamenjena ili dodata reč) sa više naloga.
+ *
+ * Pokretanje (iz target/test-classes + target/classes):
+ *   java -cp target/classes:target/test-classes com.isa.backend.util.SpamFilterBenchmark [brojKomentara] [komentaraUSekundi]
+ */
+public class SpamFilterBenchmark {
+
+    private static final long BUDGET_NANOS = 50_000;
+
+    // Isto kao podrazumevana app.comments.spam.* podešavanja i CommentSpamFilterService.init
+    private static final long WINDOW_MILLIS = TimeUnit.MINUTES.toMillis(10);
+    private static final int SLOTS = 5;
+    private static final int MAX_DISTANCE = 3;
+    private static final int MAX_DUPLICATES = 3;
+    private static final int MIN_TOKENS = 4;
+    private static final int MAX_ENTRIES_PER_SLOT = 20_000;
+    private static final int MAX_BUCKET_SIZE = Math.max(16, MAX_DUPLICATES * 4);
+
+    private static final double SPAM_SHARE = 0.1;
+    private static final int CAMPAIGNS = 20;
+
+    private static final String[] SYLLABLES = {
+            "ka", "ra", "vi", "de", "mo", "na", "se", "lo", "pi", "tu", "če", "ša", "žu", "đe", "ći",
+            "ba", "go", "le", "mi", "no", "po", "ru", "sa", "ti", "zo", "kr", "st", "br", "gr", "dr"
+    };
+
+    public static void main(String[] args) {
+        int comments = args.length > 0 ? Integer.parseInt(args[0]) : 500_000;
+        int perSecond = args.length > 1 ? Integer.parseInt(args[1]) : 300;
+
+        Random random = new Random(11);
+        String[] vocabulary = buildVocabulary(random, 30_000);
+        ZipfSampler zipf = new ZipfSampler(vocabulary.length, 1.05, random);
+        List<String[]> campaigns = new ArrayList<>();
+        for (int i = 0; i < CAMPAIGNS; i++) {
+            campaigns.add(words(vocabulary, zipf, 10 + random.nextInt(15)));
+        }
+
+        System.out.println("╔════════════════════════════════════════════════════════════════╗");
+        System.out.println("║  BENCHMARK: Filter skoro istih komentara (SimHash + LSH)       ║");
+        System.out.println("╚════════════════════════════════════════════════════════════════╝");
+        System.out.println("Broj komentara: " + comments + ", simulirano " + perSecond + " komentara/s");
+
+        NearDuplicateIndex index = new NearDuplicateIndex(WINDOW_MILLIS, SLOTS, MAX_DISTANCE,
+                MAX_ENTRIES_PER_SLOT, MAX_BUCKET_SIZE);
+        long clock = 1_000_000_000L;
+        long stepMillis = Math.max(1, 1000 / perSecond);
+
+        // Zagrevanje JIT-a i popunjavanje prozora (nije u merenju)
+        int warmup = (int) Math.min(comments, TimeUnit.MILLISECONDS.toSeconds(WINDOW_MILLIS) * perSecond);
+        for (int i = 0; i < warmup; i++) {
+            clock += stepMillis;
+            check(index, comment(random, vocabulary, zipf, campaigns), clock);
+        }
+
+        long[] latencies = new long[comments];
+        int flagged = 0;
+        int flaggedSpam = 0;
+        int spam = 0;
+        for (int i = 0; i < comments; i++) {
+            clock += stepMillis;
+            boolean isSpam = random.nextDouble() < SPAM_SHARE;
+            String text = isSpam ? spam(random, vocabulary, zipf, campaigns) : organic(random, vocabulary, zipf);
+            long t0 = System.nanoTime();
+            boolean rejected = check(index, text, clock);
+            latencies[i] = System.nanoTime() - t0;
+            if (isSpam) spam++;
+            if (rejected) {
+                flagged++;
+                if (isSpam) flaggedSpam++;
+            }
+        }
+        Arrays.sort(latencies);
+
+        long p99 = latencies[(int) (comments * 0.99)];
+        System.out.println("-------------------------------------------------");
+        System.out.println("Spam komentara:       " + spam + " (odbijeno " + flaggedSpam + ")");
+        System.out.println("Odbijeno organskih:   " + (flagged - flaggedSpam));
+        System.out.printf("p50: %.1f µs%n", latencies[comments / 2] / 1e3);
+        System.out.printf("p95: %.1f µs%n", latencies[(int) (comments * 0.95)] / 1e3);
+        System.out.printf("p99: %.1f µs%n", p99 / 1e3);
+        System.out.printf("max: %.1f µs%n", latencies[comments - 1] / 1e3);
+        System.out.println("Budžet 50 µs (p99):   " + (p99 <= BUDGET_NANOS ? "OK" : "PREKORAČEN"));
+    }
+
+    // Isti koraci kao CommentSpamFilterService.check; true ako bi komentar bio odbijen
+    private static boolean check(NearDuplicateIndex index, String text, long nowMillis) {
+        List<String> tokens = TextAnalyzer.tokenize(text);
+        if (tokens.size() < MIN_TOKENS) return false;
+        long fingerprint = SimHash.fingerprint(tokens);
+        return index.countAndAdd(fingerprint, nowMillis, MAX_DUPLICATES) >= MAX_DUPLICATES;
+    }
+
+    private static String comment(Random random, String[] vocabulary, ZipfSampler zipf, List<String[]> campaigns) {
+        return random.nextDouble() < SPAM_SHARE ? spam(random, vocabulary, zipf, campaigns) : organic(random, vocabulary, zipf);
+    }
+
+    private static String organic(Random random, String[] vocabulary, ZipfSampler zipf) {
+        return String.join(" ", words(vocabulary, zipf, 2 + random.nextInt(25)));
+    }
+
+    // Šablon kampanje sa jednom zamenjenom ili dodatom reči
+    private static String spam(Random random, String[] vocabulary, ZipfSampler zipf, List<String[]> campaigns) {
+        String[] template = campaigns.get(random.nextInt(campaigns.size()));
+        List<String> words = new ArrayList<>(Arrays.asList(template));
+        if (random.nextBoolean()) {
+            words.set(random.nextInt(words.size()), vocabulary[zipf.next()]);
+        } else {
+            words.add(random.nextInt(words.size() + 1), vocabulary[zipf.next()]);
+        }
+        return String.join(" ", words);
+    }
+
+    private static String[] words(String[] vocabulary, ZipfSampler zipf, int count) {
+        String[] words = new String[count];
+        for (int i = 0; i < count; i++) words[i] = vocabulary[zipf.next()];
+        return words;
+    }
+
+    private static String[] buildVocabulary(Random random, int size) {
+        List<String> words = new ArrayList<>(size);
+        java.util.Set<String> seen = new java.util.HashSet<>();
+        while (words.size() < size) {
+            StringBuilder sb = new StringBuilder();
+            int syllables = 2 + random.nextInt(3);
+            for (int s = 0; s < syllables; s++) sb.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+            String word = sb.toString();
+            if (seen.add(TextAnalyzer.normalizeTerm(word))) words.add(word);
+        }
+        return words.toArray(new String[0]);
+    }
+
+    /**
+     * Uzorkovanje po Zipf raspodeli preko kumulativne raspodele i binarne pretrage.
+     */
+    private static final class ZipfSampler {
+        private final double[] cumulative;
+        private final Random random;
+
+        ZipfSampler(int n, double exponent, Random random) {
+            this.random = random;
+            cumulative = new double[n];
+            double sum = 0;
+            for (int i = 0; i < n; i++) {
+                sum += 1.0 / Math.pow(i + 1, exponent);
+                cumulative[i] = sum;
+            }
+            for (int i = 0; i < n; i++) cumulative[i] /= sum;
+        }
+
+        int next() {
+            int i = Arrays.binarySearch(cumulative, random.nextDouble());
+            return i >= 0 ? i : Math.min(cumulative.length - 1, -i - 1);
+        }
+    }
+}